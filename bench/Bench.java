@@ -0,0 +1,401 @@
+import keyshuffle.Level;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Benchmarks for the parts of generation that dominate its running time: the logic checks, the placement search, the
+ * difficulty test and playthrough, and the individual patch stages.
+ *
+ * Each benchmark is warmed up for one measurement period, then measured for several; the result is the average time
+ * per operation, along with the fastest and slowest period. Most of what is measured is private, so it's reached
+ * through reflection, and the benchmarks live in the default package alongside the randomizer.
+ *
+ * Build and run from the repository root (src/ is on the classpath for the randomizer's resources):
+ *
+ *     javac -encoding UTF-8 -d bench-out -cp gson.jar $(find src bench -name "*.java")
+ *     java -cp bench-out:src:gson.jar Bench [--rom <vanilla ROM>] [--filter <text>] [--time <ms>]
+ *
+ * --filter only runs benchmarks whose name contains the given text, and --time sets the length of each measurement
+ * period (default 500ms). Without --rom, the patch stages run on a synthetic ROM-shaped buffer; see syntheticRom.
+ */
+public class Bench {
+    private static final int PERIODS = 5;
+    private static final Integer[] JUNK = {Items.ROCKETSHIP, Items.POKEMON_PIKACHU, Items.FIGHTER, Items.TELEPHONE,
+            Items.CROWN, Items.TIME_BUTTON, Items.RUBY, Items.EMERALD, Items.SAPPHIRE, Items.CLUBS, Items.SPADES,
+            Items.HEARTS, Items.DIAMONDS, Items.CLAY_FIGURE, Items.SABRE, Items.GLASS, Items.TEAPOT,
+            Items.MAGNIFYING_GLASS, Items.UFO, Items.CAR, Items.TRAIN, Items.RED_CRAYON, Items.BROWN_CRAYON,
+            Items.YELLOW_CRAYON, Items.GREEN_CRAYON, Items.CYAN_CRAYON, Items.BLUE_CRAYON, Items.PINK_CRAYON};
+
+    // results are folded into this, so the JIT can't drop the work that produced them
+    private static volatile int sink;
+
+    private final long periodNanos;
+    private final String filter;
+
+    /**
+     * One operation to be timed.
+     */
+    private interface Op {
+        Object run() throws Exception;
+    }
+
+    private Bench(long periodMillis, String filter) {
+        this.periodNanos = periodMillis * 1000000L;
+        this.filter = filter;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String romPath = null;
+        String filter = "";
+        long periodMillis = 500;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--rom":
+                    romPath = args[i + 1];
+                    break;
+                case "--filter":
+                    filter = args[i + 1];
+                    break;
+                case "--time":
+                    periodMillis = Long.parseLong(args[i + 1]);
+                    break;
+                default:
+                    System.err.println("Unknown argument: " + args[i]);
+                    System.exit(2);
+            }
+        }
+        byte[] vanilla;
+        if (romPath != null) {
+            vanilla = Files.readAllBytes(new File(romPath).toPath());
+            if (!Main.verifyFile(new File(romPath))) {
+                System.err.println("Warning: " + romPath + " is not a clean Wario Land 3 ROM");
+            }
+        }
+        else {
+            System.err.println("No --rom given; patch stages will run on a synthetic ROM");
+            vanilla = syntheticRom();
+        }
+        new Bench(periodMillis, filter).runAll(vanilla);
+    }
+
+    private void runAll(byte[] vanilla) throws Exception {
+        Level[] allKeyLocations = Resources.getKeyLocations();
+        List<Integer> inventory = new ArrayList<>();
+        for (int i = 1; i <= 0x64; i++) {
+            if (!Arrays.asList(JUNK).contains(i)) {
+                inventory.add(i);
+            }
+        }
+        Map<String, Map<String,String>> presets = new LinkedHashMap<>();
+        presets.put("default", options());
+        presets.put("unrestricted", options("restrictedMusicBoxes", "false"));
+        presets.put("mapShuffle", options("mapShuffle", "true"));
+        presets.put("keyShuffle", options("keyShuffle", "true"));
+        presets.put("merciless", options("difficulty", "merciless"));
+
+        // placement search: one attempt per operation, cycling through a fixed list of seeds
+        for (Map.Entry<String, Map<String,String>> preset : presets.entrySet()) {
+            final Map<String,String> options = preset.getValue();
+            final List<Level> levelList = levelList(options);
+            final long[] seeds = seeds(64);
+            bench("placeTreasures/" + preset.getKey(), new Op() {
+                int next = 0;
+
+                @Override
+                public Object run() {
+                    long seed = seeds[next++ % seeds.length];
+                    return new GenerationContext(seed, options, allKeyLocations).placeTreasures(inventory, levelList);
+                }
+            });
+        }
+
+        // logic checks, on a finished key shuffle game
+        final GenerationContext game = finishedGame(presets.get("keyShuffle"), allKeyLocations, inventory);
+        final Inventory midGame = midGameInventory(game);
+        final List<Level> keyLocations = Arrays.asList(game.getFinalKeyLocations());
+        final Method canAccess = method(GenerationContext.class, "canAccess", int.class, Inventory.class, List.class);
+        for (int location = 0; location < 100; location++) {
+            final int loc = location;
+            bench(String.format("canAccess/%02d", location), new Op() {
+                @Override
+                public Object run() throws Exception {
+                    return canAccess.invoke(game, loc, midGame, keyLocations);
+                }
+            });
+        }
+        final Method placeKey = method(GenerationContext.class, "placeKey",
+                Level.class, int.class, int.class, List.class, Inventory.class);
+        final List<?> keyIndexes = (List<?>) field(GenerationContext.class, "keyIndexes").get(game);
+        bench("placeKey/allLevels", new Op() {
+            @Override
+            public Object run() throws Exception {
+                int placed = 0;
+                for (int levelNum = 0; levelNum < 25; levelNum++) {
+                    Level level = new Level(levelNum, "bench");
+                    for (int keyNum = 0; keyNum < 4; keyNum++) {
+                        if ((Boolean) placeKey.invoke(game, level, levelNum, keyNum, keyIndexes.get(levelNum), midGame)) {
+                            placed++;
+                        }
+                    }
+                }
+                return placed;
+            }
+        });
+        final Method testDifficulty = method(GenerationContext.class, "testDifficulty", boolean.class);
+        bench("testDifficulty", new Op() {
+            @Override
+            public Object run() throws Exception {
+                return testDifficulty.invoke(game, game.isItemStart());
+            }
+        });
+        bench("buildPlaythrough/spoiler", new Op() {
+            @Override
+            public Object run() {
+                return game.buildPlaythrough(null, false, game.isItemStart());
+            }
+        });
+        bench("buildPlaythrough/strategic", new Op() {
+            @Override
+            public Object run() {
+                return game.buildPlaythrough(new Random(1), true, game.isItemStart());
+            }
+        });
+
+        // patch stages. Every stage but baseDiff starts from a fresh copy of the base-patched ROM, so the cost of
+        // copying is measured on its own too.
+        final byte[] scratch = new byte[vanilla.length];
+        final Patch baseDiff = Resources.getPatch("baseDiff.json");
+        bench("patch/vanillaCopy", new Op() {
+            @Override
+            public Object run() {
+                System.arraycopy(vanilla, 0, scratch, 0, vanilla.length);
+                return scratch;
+            }
+        });
+        bench("patch/applyPatch(baseDiff)", new Op() {
+            @Override
+            public Object run() {
+                System.arraycopy(vanilla, 0, scratch, 0, vanilla.length);
+                baseDiff.apply(scratch);
+                return scratch;
+            }
+        });
+        byte[] templateBytes = vanilla.clone();
+        baseDiff.apply(templateBytes);
+        final RomImage template = new RomImage(templateBytes);
+        bench("patch/templateCopy", new Op() {
+            @Override
+            public Object run() {
+                return template.copy();
+            }
+        });
+        final Method revealSecrets = method(Patcher.class, "revealSecrets", RomImage.class);
+        bench("patch/revealSecrets", new Op() {
+            @Override
+            public Object run() throws Exception {
+                return revealSecrets.invoke(null, template.copy());
+            }
+        });
+        final Method shuffleBGPalettes = method(Patcher.class, "shuffleBGPalettes", RomImage.class, int[].class);
+        final int[] switches = new int[1168];
+        Random rng = new Random(2);
+        for (int i = 0; i < switches.length; i++) {
+            switches[i] = rng.nextInt(100000);
+        }
+        bench("patch/shuffleBGPalettes", new Op() {
+            @Override
+            public Object run() throws Exception {
+                return shuffleBGPalettes.invoke(null, template.copy(), switches);
+            }
+        });
+        final Method keyShufflePatch = method(Patcher.class, "keyShufflePatch", RomImage.class, Level[].class);
+        bench("patch/keyShufflePatch", new Op() {
+            @Override
+            public Object run() throws Exception {
+                return keyShufflePatch.invoke(null, template.copy(), game.getFinalKeyLocations());
+            }
+        });
+        final Method mapPatch = method(Patcher.class, "mapPatch", RomImage.class, Integer[].class, boolean.class);
+        final Integer[] worldMap = finishedGame(presets.get("mapShuffle"), allKeyLocations, inventory).getWorldMap();
+        bench("patch/mapPatch", new Op() {
+            @Override
+            public Object run() throws Exception {
+                return mapPatch.invoke(null, template.copy(), worldMap, false);
+            }
+        });
+    }
+
+    /**
+     * Time the given operation, if its name matches the filter, and print the result.
+     */
+    private void bench(String name, Op op) throws Exception {
+        if (!name.contains(filter)) {
+            return;
+        }
+        try {
+            measure(op); // warmup
+            double[] nanosPerOp = new double[PERIODS];
+            for (int i = 0; i < PERIODS; i++) {
+                nanosPerOp[i] = measure(op);
+            }
+            double total = 0;
+            for (double n : nanosPerOp) {
+                total += n;
+            }
+            Arrays.sort(nanosPerOp);
+            System.out.printf("%-32s %14s ns/op   (%s .. %s)%n", name, format(total / PERIODS),
+                    format(nanosPerOp[0]), format(nanosPerOp[PERIODS - 1]));
+        } catch (InvocationTargetException e) {
+            System.out.printf("%-32s failed: %s%n", name, e.getCause());
+        }
+    }
+
+    /**
+     * Run the operation repeatedly for one measurement period.
+     *
+     * @return the average time per operation, in nanoseconds
+     */
+    private double measure(Op op) throws Exception {
+        long start = System.nanoTime();
+        long end = start + periodNanos;
+        long ops = 0;
+        long now;
+        do {
+            sink ^= System.identityHashCode(op.run());
+            ops++;
+            now = System.nanoTime();
+        } while (now < end);
+        return (double) (now - start) / ops;
+    }
+
+    private static String format(double nanos) {
+        return String.format("%,.1f", nanos);
+    }
+
+    /**
+     * @return the GUI's default options, with the given option/value pairs changed
+     */
+    private static Map<String,String> options(String... overrides) {
+        Map<String,String> options = new HashMap<>();
+        for (String key : new String[]{"axeStart", "powerStart", "utilityStart", "openStart", "excludeJunk",
+                "mapShuffle", "keyShuffle", "golfShuffle", "chestColors", "cutsceneSkip", "revealSecrets"}) {
+            options.put(key, "false");
+        }
+        options.put("difficulty", "normal");
+        options.put("restrictedMusicBoxes", "true");
+        options.put("musicShuffle", "on");
+        options.put("hints", "nextitem");
+        options.put("levelColors", "true");
+        options.put("enemyColors", "true");
+        for (int i = 0; i < overrides.length; i += 2) {
+            options.put(overrides[i], overrides[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * @return the levels a placement attempt starts from, as set up by Randomizer.generate
+     */
+    private static List<Level> levelList(Map<String,String> options) throws Exception {
+        if (!"true".equals(options.get("keyShuffle"))) {
+            return Arrays.asList(Resources.getVanillaKeyLocations());
+        }
+        List<Level> levels = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            levels.add(new Level(i, "" + "NWSEE".charAt(i / 6) + (i >= 24 ? '7' : Character.forDigit(i % 6 + 1, 10))));
+        }
+        return levels;
+    }
+
+    private static long[] seeds(int count) {
+        Random rng = new Random(0x3a1d);
+        long[] seeds = new long[count];
+        for (int i = 0; i < count; i++) {
+            seeds[i] = rng.nextLong();
+        }
+        return seeds;
+    }
+
+    /**
+     * @return the first attempt, in a fixed sequence of seeds, that produces a valid game with the given options
+     */
+    private static GenerationContext finishedGame(Map<String,String> options, Level[] allKeyLocations,
+                                                  List<Integer> inventory) throws Exception {
+        List<Level> levelList = levelList(options);
+        Random rng = new Random(0x51ed);
+        while (true) {
+            GenerationContext attempt = new GenerationContext(rng.nextLong(), options, allKeyLocations);
+            if (attempt.placeTreasures(inventory, levelList)) {
+                return attempt;
+            }
+        }
+    }
+
+    /**
+     * @return the treasures in the first half of the game's locations, so logic checks see a partial inventory
+     */
+    private static Inventory midGameInventory(GenerationContext game) {
+        List<Integer> items = new ArrayList<>();
+        int[] treasures = game.getFinalTreasures();
+        for (int i = 0; i < treasures.length / 2; i++) {
+            if (treasures[i] > 0) {
+                items.add(treasures[i]);
+            }
+        }
+        return Inventory.of(items);
+    }
+
+    private static Method method(Class<?> owner, String name, Class<?>... parameterTypes) throws Exception {
+        Method method = owner.getDeclaredMethod(name, parameterTypes);
+        method.setAccessible(true);
+        return method;
+    }
+
+    private static Field field(Class<?> owner, String name) throws Exception {
+        Field field = owner.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+
+    /**
+     * Build a stand-in for the vanilla ROM. It isn't playable, and the stages produce garbage on it, but the tables
+     * they follow (hint text, tile flag pointers) point to valid data, so every stage does a realistic amount of work.
+     */
+    private static byte[] syntheticRom() {
+        byte[] rom = new byte[0x420000];
+        new Random(12345).nextBytes(rom);
+        for (int i = 0; i < rom.length; i++) {
+            // so compressed data decodes as literal runs rather than arbitrary repeats
+            rom[i] |= (byte) 0x80;
+        }
+        Random rng = new Random(99);
+        // hint text: 16 compressed strings of one literal and 63 spaces each
+        for (int base : new int[]{0xb211a, 0xb1fd7}) {
+            for (int k = 0; k < 16; k++) {
+                rom[base + k*4] = (byte) 0x81;
+                rom[base + k*4 + 1] = (byte) rng.nextInt(0x40);
+                rom[base + k*4 + 2] = 63;
+                rom[base + k*4 + 3] = 0x7f;
+            }
+        }
+        // tile flags: every pointer goes to 0x4100 in each bank, where there's a short flag list
+        for (int k = 0; k < 256; k++) {
+            rom[0xc09d1 + k*2] = 0x00;
+            rom[0xc09d1 + k*2 + 1] = 0x41;
+        }
+        for (int bank = 0x38; bank < 0x80; bank++) {
+            int idx = bank * 0x4000 + 0x100;
+            for (int k = 0; k < 8; k++) {
+                rom[idx + k*2] = 0x40;
+                rom[idx + k*2 + 1] = (byte) rng.nextInt(16);
+            }
+            rom[idx + 16] = 0;
+        }
+        return rom;
+    }
+}
@@ -0,0 +1,367 @@
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import keyshuffle.Level;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Regression check for seeds. Seeds are shared between players (e.g. for races), so the same seed and options must
+ * keep producing the same game. This generates every game in a corpus of seeds and options, and compares it with what
+ * the corpus recorded: the treasure in each location, the key locations, the world map, the spoiler log playthrough,
+ * and the SHA-256 of the randomized ROM.
+ *
+ * Build and run from the repository root (src/ is on the classpath for the randomizer's resources):
+ *
+ *     javac -encoding UTF-8 -d regression-out -cp gson.jar $(find src regression -name "*.java")
+ *     java -cp regression-out:src:gson.jar SeedRegression --rom <vanilla ROM> [--corpus <file>] [--threads <n>] [--record]
+ *
+ * Games are generated in parallel, one thread per core unless --threads says otherwise. Each game's ROM and spoiler log
+ * are written to the working directory, then deleted once they've been checked. The corpus defaults to
+ * regression/corpus.json.
+ *
+ * --record generates every game in the corpus and stores the results as the new expected values, instead of checking
+ * them. To add a seed to the corpus, add an entry with just its seed and options, then record. ROM hashes depend on
+ * the vanilla ROM, so they're only checked or recorded when --rom is a clean Wario Land 3 ROM; with any other file,
+ * only the placement is.
+ */
+public class SeedRegression {
+    private static final String[] COLORS = {"Silver", "Red", "Green", "Blue"};
+
+    /**
+     * One corpus entry: a seed and options, and what they should produce. The expected values are null until recorded.
+     */
+    private static class Entry {
+        String seed;
+        Map<String,String> options;
+        int[] finalTreasures;
+        String[][] finalKeyLocations;
+        Integer[] worldMap;
+        String playthrough;
+        String romSha256;
+    }
+
+    private final String romPath;
+    private final boolean cleanRom;
+    private final int threads;
+
+    private SeedRegression(String romPath, boolean cleanRom, int threads) {
+        this.romPath = romPath;
+        this.cleanRom = cleanRom;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String romPath = null;
+        String corpusPath = "regression/corpus.json";
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean record = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rom":
+                    romPath = args[++i];
+                    break;
+                case "--corpus":
+                    corpusPath = args[++i];
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--record":
+                    record = true;
+                    break;
+                default:
+                    System.err.println("Unknown argument: " + args[i]);
+                    System.exit(2);
+            }
+        }
+        if (romPath == null) {
+            System.err.println("Usage: SeedRegression --rom <vanilla ROM> [--corpus <file>] [--threads <n>] [--record]");
+            System.exit(2);
+        }
+        boolean cleanRom = Main.verifyFile(new File(romPath));
+        if (!cleanRom) {
+            System.err.println("Warning: " + romPath + " is not a clean Wario Land 3 ROM; ROM hashes will not be "
+                    + (record ? "recorded" : "checked"));
+        }
+
+        File corpusFile = new File(corpusPath);
+        Entry[] corpus = new Gson().fromJson(new String(Files.readAllBytes(corpusFile.toPath()), StandardCharsets.UTF_8),
+                Entry[].class);
+        SeedRegression regression = new SeedRegression(romPath, cleanRom, threads);
+        if (record) {
+            regression.record(corpus);
+            writeCorpus(corpusFile, corpus);
+            System.out.println("Recorded " + corpus.length + " seeds to " + corpusPath);
+        }
+        else {
+            System.exit(regression.check(corpus) ? 0 : 1);
+        }
+    }
+
+    /**
+     * Generate every game in the corpus and compare it with the expected values, printing what differs.
+     *
+     * @return true if every game matched
+     */
+    private boolean check(Entry[] corpus) throws InterruptedException {
+        List<Future<Entry>> results = generateAll(corpus);
+        int failed = 0;
+        int unrecorded = 0;
+        for (int i = 0; i < corpus.length; i++) {
+            Entry expected = corpus[i];
+            List<String> diffs = new ArrayList<>();
+            try {
+                Entry actual = results.get(i).get();
+                if (expected.finalTreasures == null) {
+                    unrecorded++;
+                    continue;
+                }
+                diffTreasures(expected.finalTreasures, actual.finalTreasures, diffs);
+                diffKeyLocations(expected.finalKeyLocations, actual.finalKeyLocations, diffs);
+                diffWorldMap(expected.worldMap, actual.worldMap, diffs);
+                diffPlaythrough(expected.playthrough, actual.playthrough, diffs);
+                if (cleanRom && expected.romSha256 != null && !expected.romSha256.equals(actual.romSha256)) {
+                    diffs.add("ROM SHA-256: expected " + expected.romSha256 + ", got " + actual.romSha256);
+                }
+            } catch (ExecutionException e) {
+                diffs.add(e.getCause().getMessage());
+            }
+            if (!diffs.isEmpty()) {
+                failed++;
+                System.out.println("FAIL " + describe(expected));
+                for (String diff : diffs) {
+                    System.out.println("  " + diff);
+                }
+            }
+        }
+        System.out.println((corpus.length - failed - unrecorded) + " passed, " + failed + " failed"
+                + (unrecorded > 0 ? ", " + unrecorded + " not recorded yet" : ""));
+        return failed == 0;
+    }
+
+    /**
+     * Generate every game in the corpus, and store the results in the corpus as the expected values.
+     */
+    private void record(Entry[] corpus) throws InterruptedException, ExecutionException {
+        List<Future<Entry>> results = generateAll(corpus);
+        for (int i = 0; i < corpus.length; i++) {
+            Entry actual = results.get(i).get();
+            corpus[i].finalTreasures = actual.finalTreasures;
+            corpus[i].finalKeyLocations = actual.finalKeyLocations;
+            corpus[i].worldMap = actual.worldMap;
+            corpus[i].playthrough = actual.playthrough;
+            if (cleanRom) {
+                corpus[i].romSha256 = actual.romSha256;
+            }
+        }
+    }
+
+    /**
+     * Start generating every game in the corpus. The results are in corpus order; each one holds what was generated,
+     * or fails with a message saying why nothing was.
+     */
+    private List<Future<Entry>> generateAll(Entry[] corpus) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // output files are named after the seed, so entries with the same seed are generated one after another
+        Map<String, List<Integer>> entriesBySeed = new LinkedHashMap<>();
+        for (int i = 0; i < corpus.length; i++) {
+            if (!entriesBySeed.containsKey(corpus[i].seed)) {
+                entriesBySeed.put(corpus[i].seed, new ArrayList<Integer>());
+            }
+            entriesBySeed.get(corpus[i].seed).add(i);
+        }
+        List<CompletableFuture<Entry>> results = new ArrayList<>();
+        for (int i = 0; i < corpus.length; i++) {
+            results.add(new CompletableFuture<Entry>());
+        }
+        for (final List<Integer> sameSeed : entriesBySeed.values()) {
+            final List<CompletableFuture<Entry>> sameSeedResults = new ArrayList<>();
+            for (int idx : sameSeed) {
+                sameSeedResults.add(results.get(idx));
+            }
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < sameSeed.size(); i++) {
+                        try {
+                            sameSeedResults.get(i).complete(generate(corpus[sameSeed.get(i)]));
+                        } catch (Exception e) {
+                            sameSeedResults.get(i).completeExceptionally(e);
+                        }
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        return new ArrayList<Future<Entry>>(results);
+    }
+
+    /**
+     * Generate the game for a corpus entry.
+     *
+     * @return what was generated, in the corpus format
+     * @throws IOException if no game was generated, or its files couldn't be read
+     */
+    private Entry generate(Entry entry) throws IOException {
+        final List<String> messages = new ArrayList<>();
+        Randomizer randomizer = new Randomizer(romPath, new Randomizer.Logger() {
+            @Override
+            public void log(String message) {
+                messages.add(message);
+            }
+        });
+        String seed = randomizer.generate(entry.seed, entry.options);
+        GeneratedGame game = randomizer.getGame();
+        if (seed == null || game == null) {
+            throw new IOException("Generation failed: " + String.join(" / ", messages));
+        }
+        File romFile = new File(game.getRomFile());
+        File spoilerFile = new File("wl3spoiler-" + Randomizer.VERSION + "-" + seed + ".txt");
+        try {
+            Entry result = new Entry();
+            result.seed = seed;
+            result.options = entry.options;
+            result.finalTreasures = game.getFinalTreasures();
+            if (game.getFinalKeyLocations() != null) {
+                result.finalKeyLocations = new String[game.getFinalKeyLocations().length][];
+                for (int i = 0; i < result.finalKeyLocations.length; i++) {
+                    Level level = game.getFinalKeyLocations()[i];
+                    result.finalKeyLocations[i] = new String[COLORS.length];
+                    for (int color = 0; color < COLORS.length; color++) {
+                        result.finalKeyLocations[i][color] = level.getLocation(color).getName();
+                    }
+                }
+            }
+            result.worldMap = game.getWorldMap();
+            result.playthrough = hex(game.getPlaythrough());
+            result.romSha256 = hex(sha256(Files.readAllBytes(romFile.toPath())));
+            return result;
+        } finally {
+            romFile.delete();
+            spoilerFile.delete();
+        }
+    }
+
+    private static void diffTreasures(int[] expected, int[] actual, List<String> diffs) {
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] != actual[i]) {
+                diffs.add("treasure at " + locationName(i) + ": expected " + Items.ITEM_NAMES[expected[i]]
+                        + ", got " + Items.ITEM_NAMES[actual[i]]);
+            }
+        }
+    }
+
+    private static void diffKeyLocations(String[][] expected, String[][] actual, List<String> diffs) {
+        if (expected == null || actual == null) {
+            if (expected != actual) {
+                diffs.add("key locations: expected " + (expected == null ? "vanilla" : "shuffled")
+                        + ", got " + (actual == null ? "vanilla" : "shuffled"));
+            }
+            return;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            for (int color = 0; color < COLORS.length; color++) {
+                if (!expected[i][color].equals(actual[i][color])) {
+                    diffs.add(COLORS[color] + " key in " + locationName(i * 4).substring(0, 2) + ": expected "
+                            + expected[i][color] + ", got " + actual[i][color]);
+                }
+            }
+        }
+    }
+
+    private static void diffWorldMap(Integer[] expected, Integer[] actual, List<String> diffs) {
+        if (expected == null || actual == null) {
+            if (expected != actual) {
+                diffs.add("world map: expected " + (expected == null ? "vanilla" : "shuffled")
+                        + ", got " + (actual == null ? "vanilla" : "shuffled"));
+            }
+            return;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (!expected[i].equals(actual[i])) {
+                diffs.add("world map at " + locationName(i * 4).substring(0, 2) + ": expected "
+                        + locationName(expected[i] * 4).substring(0, 2) + ", got "
+                        + locationName(actual[i] * 4).substring(0, 2));
+            }
+        }
+    }
+
+    /**
+     * Report where two playthroughs (as hex strings) first differ, and the treasures from there on.
+     */
+    private static void diffPlaythrough(String expected, String actual, List<String> diffs) {
+        if (expected.equals(actual)) {
+            return;
+        }
+        int step = 0;
+        while (expected.regionMatches(step * 2, actual, step * 2, 2)) {
+            step++;
+        }
+        diffs.add("playthrough from step " + (step + 1) + ": expected " + treasureNames(expected, step)
+                + ", got " + treasureNames(actual, step));
+    }
+
+    private static String treasureNames(String playthrough, int from) {
+        List<String> names = new ArrayList<>();
+        for (int i = from; i < from + 5 && i * 2 < playthrough.length(); i++) {
+            names.add(Items.ITEM_NAMES[Integer.parseInt(playthrough.substring(i * 2, i * 2 + 2), 16)]);
+        }
+        return names + (playthrough.length() > (from + 5) * 2 ? "..." : "");
+    }
+
+    /**
+     * @return the name of a treasure location, as in the spoiler log, e.g. "N1 Red"
+     */
+    private static String locationName(int location) {
+        return "" + "NWSEE".charAt(location / 24) + (location >= 96 ? 7 : (location % 24) / 4 + 1) + " "
+                + COLORS[location % 4];
+    }
+
+    private static String describe(Entry entry) {
+        List<String> options = new ArrayList<>();
+        for (Map.Entry<String,String> option : new TreeMap<>(entry.options).entrySet()) {
+            options.add(option.getKey() + "=" + option.getValue());
+        }
+        return entry.seed + " " + String.join(",", options);
+    }
+
+    /**
+     * Write the corpus with one entry per line, so changes to it diff cleanly.
+     */
+    private static void writeCorpus(File file, Entry[] corpus) throws IOException {
+        Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+        StringBuilder sb = new StringBuilder("[\n");
+        for (int i = 0; i < corpus.length; i++) {
+            // sorted, so the order options were given in doesn't matter
+            corpus[i].options = new TreeMap<>(corpus[i].options);
+            sb.append("  ").append(gson.toJson(corpus[i])).append(i < corpus.length - 1 ? ",\n" : "\n");
+        }
+        sb.append("]\n");
+        Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(Integer.toString((b & 0xff) + 0x100, 16).substring(1));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,162 @@
+import java.io.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Builds BPS patches, so a randomized game can be distributed as the few kilobytes that differ from the vanilla ROM
+ * instead of a full ROM. Any BPS patcher (e.g. Floating IPS, beat) can apply the result to a vanilla ROM.
+ *
+ * The randomizer never moves data around, so the patch is just a walk over both ROMs: unchanged stretches are
+ * copied from the source, changed ones are stored in the patch. If the caller knows which bytes may differ, only those
+ * are compared.
+ */
+public final class BpsPatch {
+    private static final int SOURCE_READ = 0;
+    private static final int TARGET_READ = 1;
+    // unchanged stretches shorter than this are cheaper to store than to copy
+    private static final int MIN_SOURCE_READ = 4;
+
+    private BpsPatch() {
+    }
+
+    /**
+     * @param source  the ROM the patch will be applied to
+     * @param target  the ROM the patch should produce
+     * @return a BPS patch turning source into target
+     */
+    public static byte[] create(byte[] source, byte[] target) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            write(source, target, out);
+        } catch (IOException e) {
+            // ByteArrayOutputStream doesn't throw
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Write a BPS patch turning source into target to the given stream. Nothing but the patch's actions is buffered.
+     *
+     * @param source  the ROM the patch will be applied to
+     * @param target  the ROM the patch should produce
+     * @param out     where to write the patch; not closed
+     */
+    public static void write(byte[] source, byte[] target, OutputStream out) throws IOException {
+        write(source, target, new ByteRanges().add(0, Math.max(source.length, target.length)), out);
+    }
+
+    /**
+     * Write a BPS patch turning source into target to the given stream, only comparing the given ranges. The patch is
+     * the same as the one the full comparison would produce.
+     *
+     * @param source   the ROM the patch will be applied to
+     * @param target   the ROM the patch should produce
+     * @param changed  every offset at which source and target may differ
+     * @param out      where to write the patch; not closed
+     */
+    public static void write(byte[] source, byte[] target, ByteRanges changed, OutputStream out) throws IOException {
+        changed = changed.merged();
+        CheckedOutputStream patch = new CheckedOutputStream(out, new CRC32());
+        patch.write(new byte[]{'B', 'P', 'S', '1'});
+        writeNumber(patch, source.length);
+        writeNumber(patch, target.length);
+        writeNumber(patch, 0); // no metadata
+
+        int pos = 0;
+        while (pos < target.length) {
+            int same = matchLength(source, target, changed, pos);
+            if (same >= MIN_SOURCE_READ || pos + same == target.length) {
+                writeNumber(patch, ((long) (same - 1) << 2) | SOURCE_READ);
+                pos += same;
+                continue;
+            }
+            // store changed bytes, along with any unchanged stretches too short to be worth copying
+            int end = pos + same;
+            while (end < target.length) {
+                int differing = 0;
+                while (end + differing < target.length && matchLength(source, target, changed, end + differing) == 0) {
+                    differing++;
+                }
+                end += differing;
+                int gap = matchLength(source, target, changed, end);
+                if (gap >= MIN_SOURCE_READ || end + gap == target.length) {
+                    break;
+                }
+                end += gap;
+            }
+            writeNumber(patch, ((long) (end - pos - 1) << 2) | TARGET_READ);
+            patch.write(target, pos, end - pos);
+            pos = end;
+        }
+
+        writeCrc(patch, source);
+        writeCrc(patch, target);
+        long patchCrc = patch.getChecksum().getValue();
+        for (int i = 0; i < 4; i++) {
+            patch.write((int) (patchCrc >>> (i * 8)));
+        }
+        patch.flush();
+    }
+
+    /**
+     * @param changed  merged ranges outside of which source and target are known to match
+     * @return the number of bytes starting at pos that are the same in source and target
+     */
+    private static int matchLength(byte[] source, byte[] target, ByteRanges changed, int pos) {
+        // find the first range that doesn't end before pos
+        int lo = 0;
+        int hi = changed.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (changed.end(mid) <= pos) {
+                lo = mid + 1;
+            }
+            else {
+                hi = mid;
+            }
+        }
+        int end = pos;
+        for (int range = lo; end < target.length; range++) {
+            // skip ahead to the next range that may differ
+            int rangeStart = range < changed.size() ? changed.start(range) : target.length;
+            end = Math.max(end, Math.min(rangeStart, target.length));
+            if (range == changed.size()) {
+                break;
+            }
+            int rangeEnd = Math.min(changed.end(range), target.length);
+            while (end < rangeEnd && end < source.length && source[end] == target[end]) {
+                end++;
+            }
+            if (end < rangeEnd) {
+                break;
+            }
+        }
+        return end - pos;
+    }
+
+    /**
+     * Write a number in BPS's variable-length encoding.
+     */
+    private static void writeNumber(OutputStream out, long number) throws IOException {
+        while (true) {
+            int x = (int) (number & 0x7f);
+            number >>>= 7;
+            if (number == 0) {
+                out.write(0x80 | x);
+                return;
+            }
+            out.write(x);
+            number--;
+        }
+    }
+
+    private static void writeCrc(OutputStream out, byte[] data) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        long value = crc.getValue();
+        for (int i = 0; i < 4; i++) {
+            out.write((int) (value >>> (i * 8)));
+        }
+    }
+}
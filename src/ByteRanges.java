@@ -0,0 +1,95 @@
+import java.util.Arrays;
+
+/**
+ * A set of ROM byte ranges, used to describe which parts of a ROM have changed.
+ * Each range is half-open: [start, end).
+ */
+public final class ByteRanges {
+    private int[] starts = new int[4];
+    private int[] ends = new int[4];
+    private int count = 0;
+
+    /**
+     * Add the range [start, end).
+     *
+     * @return this set, for chaining
+     */
+    public ByteRanges add(int start, int end) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        count++;
+        return this;
+    }
+
+    /**
+     * Add every range in the given set.
+     *
+     * @return this set, for chaining
+     */
+    public ByteRanges addAll(ByteRanges other) {
+        for (int i = 0; i < other.count; i++) {
+            add(other.starts[i], other.ends[i]);
+        }
+        return this;
+    }
+
+    /**
+     * @return the number of ranges in this set
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the first offset of the given range
+     */
+    public int start(int range) {
+        return starts[range];
+    }
+
+    /**
+     * @return the offset just past the end of the given range
+     */
+    public int end(int range) {
+        return ends[range];
+    }
+
+    /**
+     * @return a copy of this set with its ranges in ascending order, and overlapping or touching ranges combined
+     */
+    public ByteRanges merged() {
+        long[] sorted = new long[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = ((long) starts[i] << 32) | (ends[i] & 0xffffffffL);
+        }
+        Arrays.sort(sorted);
+        ByteRanges merged = new ByteRanges();
+        for (long range : sorted) {
+            int start = (int) (range >>> 32);
+            int end = (int) range;
+            if (merged.count > 0 && start <= merged.ends[merged.count - 1]) {
+                merged.ends[merged.count - 1] = Math.max(merged.ends[merged.count - 1], end);
+            }
+            else if (start < end) {
+                merged.add(start, end);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Check if the given offset is in this set.
+     */
+    public boolean contains(int offset) {
+        for (int i = 0; i < count; i++) {
+            if (offset >= starts[i] && offset < ends[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+import java.util.Arrays;
+
+/**
+ * A growable buffer of bytes, for building up data (such as recompressed graphics) whose final size isn't known in
+ * advance. Not thread-safe.
+ */
+public final class ByteSink {
+    private byte[] buffer;
+    private int size = 0;
+
+    public ByteSink() {
+        this(256);
+    }
+
+    /**
+     * @param capacity  number of bytes to allocate room for up front
+     */
+    public ByteSink(int capacity) {
+        buffer = new byte[Math.max(capacity, 16)];
+    }
+
+    /**
+     * Append the low 8 bits of the given value.
+     */
+    public void write(int b) {
+        if (size == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        buffer[size++] = (byte) b;
+    }
+
+    /**
+     * Append len bytes of the given array, starting at off.
+     */
+    public void write(byte[] src, int off, int len) {
+        if (size + len > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + len));
+        }
+        System.arraycopy(src, off, buffer, size, len);
+        size += len;
+    }
+
+    /**
+     * @return the number of bytes written so far
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Write every byte written so far into the given ROM, starting at off.
+     */
+    public void copyTo(RomImage rom, int off) {
+        rom.write(off, buffer, 0, size);
+    }
+
+    /**
+     * @return a copy of every byte written so far
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+}
@@ -0,0 +1,118 @@
+import java.awt.Color;
+
+/**
+ * Hue rotation for 15-bit GBC colors, without going through java.awt.Color for every color.
+ *
+ * The HSB components of all 32768 GBC colors are computed once, and the conversion back to RGB is a copy of
+ * Color.HSBtoRGB that goes straight to 5-bit channels. Every step uses the same float operations in the same order
+ * as Color, so the results are bit-identical to rotating with Color.RGBtoHSB/HSBtoRGB.
+ */
+final class ColorTable {
+    private static final int NUM_COLORS = 0x8000;
+    private static final float[] HUE = new float[NUM_COLORS];
+    private static final float[] SATURATION = new float[NUM_COLORS];
+    private static final float[] BRIGHTNESS = new float[NUM_COLORS];
+
+    static {
+        float[] hsb = new float[3];
+        for (int pal = 0; pal < NUM_COLORS; pal++) {
+            int b = (pal & 0x7c00) >>> 10;
+            int g = (pal & 0x3e0) >>> 5;
+            int r = (pal & 0x1f);
+            Color.RGBtoHSB(r*8, g*8, b*8, hsb);
+            HUE[pal] = hsb[0];
+            SATURATION[pal] = hsb[1];
+            BRIGHTNESS[pal] = hsb[2];
+        }
+    }
+
+    private ColorTable() {
+    }
+
+    /**
+     * @param pal   a 15-bit GBC color
+     * @param swap  amount to rotate the hue by, from 0 to 100000
+     * @return the rotated 15-bit GBC color
+     */
+    static int rotateHue(int pal, int swap) {
+        pal &= 0x7fff;
+        return hsbToGbc(HUE[pal] + (float)(swap)/100000.0f, SATURATION[pal], BRIGHTNESS[pal]);
+    }
+
+    /**
+     * Rotate a hue given as a fraction, replacing the color's saturation and brightness.
+     *
+     * @param hue         hue, before rotation
+     * @param saturation  saturation of the new color
+     * @param brightness  brightness of the new color
+     * @param swap        amount to rotate the hue by, from 0 to 100000
+     * @return the resulting 15-bit GBC color
+     */
+    static int rotateHue(float hue, float saturation, float brightness, int swap) {
+        return hsbToGbc(hue + (float)(swap)/100000.0f, saturation, brightness);
+    }
+
+    /**
+     * @return the saturation of the given 15-bit GBC color, as computed by Color.RGBtoHSB
+     */
+    static float saturation(int pal) {
+        return SATURATION[pal & 0x7fff];
+    }
+
+    /**
+     * @return the brightness of the given 15-bit GBC color, as computed by Color.RGBtoHSB
+     */
+    static float brightness(int pal) {
+        return BRIGHTNESS[pal & 0x7fff];
+    }
+
+    /**
+     * Color.HSBtoRGB, truncated to a 15-bit GBC color.
+     */
+    static int hsbToGbc(float hue, float saturation, float brightness) {
+        int r = 0, g = 0, b = 0;
+        if (saturation == 0) {
+            r = g = b = (int) (brightness * 255.0f + 0.5f);
+        }
+        else {
+            float h = (hue - (float)Math.floor(hue)) * 6.0f;
+            float f = h - (float)Math.floor(h);
+            float p = brightness * (1.0f - saturation);
+            float q = brightness * (1.0f - saturation * f);
+            float t = brightness * (1.0f - (saturation * (1.0f - f)));
+            switch ((int) h) {
+                case 0:
+                    r = (int) (brightness * 255.0f + 0.5f);
+                    g = (int) (t * 255.0f + 0.5f);
+                    b = (int) (p * 255.0f + 0.5f);
+                    break;
+                case 1:
+                    r = (int) (q * 255.0f + 0.5f);
+                    g = (int) (brightness * 255.0f + 0.5f);
+                    b = (int) (p * 255.0f + 0.5f);
+                    break;
+                case 2:
+                    r = (int) (p * 255.0f + 0.5f);
+                    g = (int) (brightness * 255.0f + 0.5f);
+                    b = (int) (t * 255.0f + 0.5f);
+                    break;
+                case 3:
+                    r = (int) (p * 255.0f + 0.5f);
+                    g = (int) (q * 255.0f + 0.5f);
+                    b = (int) (brightness * 255.0f + 0.5f);
+                    break;
+                case 4:
+                    r = (int) (t * 255.0f + 0.5f);
+                    g = (int) (p * 255.0f + 0.5f);
+                    b = (int) (brightness * 255.0f + 0.5f);
+                    break;
+                case 5:
+                    r = (int) (brightness * 255.0f + 0.5f);
+                    g = (int) (p * 255.0f + 0.5f);
+                    b = (int) (q * 255.0f + 0.5f);
+                    break;
+            }
+        }
+        return ((b & 0xff) >>> 3 << 10) + ((g & 0xff) >>> 3 << 5) + ((r & 0xff) >>> 3);
+    }
+}
@@ -0,0 +1,213 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * Headless entry point. Generates one or more randomized games without opening the GUI, using the same option keys
+ * the GUI passes to the randomizer.
+ */
+public class CommandLine {
+    private static final String USAGE =
+            "Usage: java -jar wl3-randomizer.jar --rom <vanilla ROM> [--seed <seed>] [--count <n>] [--threads <n>]\n" +
+            "                                    [--preset <file>] [--<option> <value>]...\n" +
+            "\n" +
+            "  --rom <file>      Clean Wario Land 3 ROM to patch (required)\n" +
+            "  --seed <seed>     Generate the game for this 11-character seed\n" +
+            "  --count <n>       Number of games to generate (default 1; cannot be combined with --seed)\n" +
+            "  --threads <n>     Number of candidate seeds to try at once (default: number of cores)\n" +
+            "  --preset <file>   Read options from a properties file (option=value per line)\n" +
+            "  --metrics         Print seeds tried, search counters and stage timings when done\n" +
+            "\n" +
+            "Options (applied in order, so later arguments override earlier ones and --preset files;\n" +
+            "a flag without a value means true):\n" +
+            "  --difficulty easy|normal|hard|minorglitches|merciless   (default normal)\n" +
+            "  --hints unhelpful|nextitem|strategic                    (default nextitem)\n" +
+            "  --musicShuffle off|on|chaos                             (default on)\n" +
+            "  --powerStart true|false|full                            (default false)\n" +
+            "  --restrictedMusicBoxes, --levelColors, --enemyColors    (default true)\n" +
+            "  --axeStart, --utilityStart, --openStart, --excludeJunk, --mapShuffle, --keyShuffle,\n" +
+            "  --golfShuffle, --chestColors, --cutsceneSkip, --revealSecrets   (default false)\n" +
+            "  --outputFormat gbc|bps   write full ROMs, or BPS patches for the vanilla ROM   (default gbc)\n";
+
+    private static final Map<String, List<String>> OPTION_VALUES = new LinkedHashMap<>();
+    static {
+        List<String> bool = Arrays.asList("true", "false");
+        OPTION_VALUES.put("difficulty", Arrays.asList("easy", "normal", "hard", "minorglitches", "merciless"));
+        OPTION_VALUES.put("restrictedMusicBoxes", bool);
+        OPTION_VALUES.put("musicShuffle", Arrays.asList("off", "on", "chaos"));
+        OPTION_VALUES.put("axeStart", bool);
+        OPTION_VALUES.put("powerStart", Arrays.asList("true", "false", "full"));
+        OPTION_VALUES.put("utilityStart", bool);
+        OPTION_VALUES.put("openStart", bool);
+        OPTION_VALUES.put("hints", Arrays.asList("unhelpful", "nextitem", "strategic"));
+        OPTION_VALUES.put("excludeJunk", bool);
+        OPTION_VALUES.put("mapShuffle", bool);
+        OPTION_VALUES.put("keyShuffle", bool);
+        OPTION_VALUES.put("golfShuffle", bool);
+        OPTION_VALUES.put("levelColors", bool);
+        OPTION_VALUES.put("enemyColors", bool);
+        OPTION_VALUES.put("chestColors", bool);
+        OPTION_VALUES.put("cutsceneSkip", bool);
+        OPTION_VALUES.put("revealSecrets", bool);
+        OPTION_VALUES.put("outputFormat", Arrays.asList("gbc", "bps"));
+    }
+
+    /**
+     * Parse the given arguments and generate the requested games.
+     *
+     * @param args  command line arguments
+     * @return the process exit code; 0 if every requested game was generated
+     */
+    public static int run(String[] args) {
+        Map<String,String> options = defaultOptions();
+        String romPath = null;
+        String seed = null;
+        int count = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean printMetrics = false;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (!args[i].startsWith("--")) {
+                    throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                }
+                String key = args[i].substring(2);
+                String value = null;
+                if (key.contains("=")) {
+                    value = key.substring(key.indexOf('=') + 1);
+                    key = key.substring(0, key.indexOf('='));
+                }
+                else if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    value = args[++i];
+                }
+
+                switch (key) {
+                    case "help":
+                        System.out.print(USAGE);
+                        return 0;
+                    case "rom":
+                        romPath = requireValue(key, value);
+                        break;
+                    case "seed":
+                        seed = requireValue(key, value);
+                        break;
+                    case "count":
+                        count = parsePositive(key, requireValue(key, value));
+                        break;
+                    case "threads":
+                        threads = parsePositive(key, requireValue(key, value));
+                        break;
+                    case "preset":
+                        readPreset(requireValue(key, value), options);
+                        break;
+                    case "metrics":
+                        printMetrics = true;
+                        break;
+                    default:
+                        setOption(key, value == null ? "true" : value, options);
+                }
+            }
+            if (romPath == null) {
+                throw new IllegalArgumentException("No vanilla ROM given; use --rom <file>.");
+            }
+            if (seed != null && count > 1) {
+                throw new IllegalArgumentException("--count cannot be combined with --seed, since every game would be identical.");
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            return 2;
+        }
+
+        try {
+            if (!Main.verifyFile(new File(romPath))) {
+                System.err.println("File does not appear to be a clean copy of Wario Land 3. Please choose another file.");
+                return 1;
+            }
+        } catch (IOException e) {
+            System.err.println("Error occurred while opening vanilla ROM: " + e.getMessage());
+            return 1;
+        }
+
+        Randomizer randomizer = new Randomizer(romPath, new Randomizer.Logger() {
+            public void log(String message) {
+                System.out.println(message);
+            }
+        });
+        // let ROMs be written in the background while the next game is generated
+        randomizer.setAsyncOutput(count > 1);
+        int failures = 0;
+        for (int i = 0; i < count; i++) {
+            if (randomizer.generate(seed, new HashMap<>(options), threads) == null) {
+                failures++;
+            }
+        }
+        if (!randomizer.awaitOutput()) {
+            failures++;
+        }
+        if (printMetrics) {
+            System.out.print(GenerationMetrics.processTotal());
+        }
+        return failures == 0 ? 0 : 1;
+    }
+
+    /**
+     * @return the options the GUI starts out with
+     */
+    private static Map<String,String> defaultOptions() {
+        Map<String,String> options = new HashMap<>();
+        for (String key : OPTION_VALUES.keySet()) {
+            options.put(key, "false");
+        }
+        options.put("difficulty", "normal");
+        options.put("restrictedMusicBoxes", "true");
+        options.put("musicShuffle", "on");
+        options.put("hints", "nextitem");
+        options.put("levelColors", "true");
+        options.put("enemyColors", "true");
+        options.put("outputFormat", "gbc");
+        return options;
+    }
+
+    /**
+     * Read options from a properties file into the given map.
+     */
+    private static void readPreset(String path, Map<String,String> options) throws IOException {
+        Properties preset = new Properties();
+        try (Reader reader = new BufferedReader(new FileReader(path))) {
+            preset.load(reader);
+        }
+        for (String key : preset.stringPropertyNames()) {
+            setOption(key, preset.getProperty(key).trim(), options);
+        }
+    }
+
+    private static void setOption(String key, String value, Map<String,String> options) {
+        List<String> allowed = OPTION_VALUES.get(key);
+        if (allowed == null) {
+            throw new IllegalArgumentException("Unknown option: " + key);
+        }
+        if (!allowed.contains(value)) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value + " (expected one of " + allowed + ")");
+        }
+        options.put(key, value);
+    }
+
+    private static String requireValue(String key, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing value for --" + key);
+        }
+        return value;
+    }
+
+    private static int parsePositive(String key, String value) {
+        try {
+            int n = Integer.parseInt(value);
+            if (n > 0) {
+                return n;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("--" + key + " must be a positive number");
+    }
+}
@@ -0,0 +1,36 @@
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event for one difficulty test of a finished placement. The blocker counts are the number of times
+ * the test's playthrough got stuck until it allowed tricks of each difficulty.
+ */
+@Name("wl3.DifficultyTest")
+@Label("Difficulty Test")
+@Category({"WL3 Randomizer", "Placement"})
+@StackTrace(false)
+@Threshold("5 ms")
+class DifficultyTestEvent extends Event {
+    @Label("Seed")
+    long seed;
+
+    @Label("Target Difficulty")
+    int targetDifficulty;
+
+    @Label("Passed")
+    boolean passed;
+
+    @Label("Easy Blockers")
+    int easyBlockers;
+
+    @Label("Normal Blockers")
+    int normalBlockers;
+
+    @Label("Hard Blockers")
+    int hardBlockers;
+
+    @Label("Minor Glitches Blockers")
+    int minorGlitchesBlockers;
+
+    @Label("Merciless Blockers")
+    int mercilessBlockers;
+}
@@ -7,11 +7,15 @@ import java.awt.event.AdjustmentListener;
 import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
-public class GUI extends JPanel implements ActionListener {
+public class GUI extends JPanel implements ActionListener, Randomizer.Logger {
 
-    private JButton openButton, genButton;
+    private static final int PROGRESS_INTERVAL_MS = 5000;
+
+    private JButton openButton, genButton, cancelButton;
     private JFileChooser fileChooser;
     private JTextArea log;
     private JScrollPane logScrollPane;
@@ -36,6 +40,8 @@ public class GUI extends JPanel implements ActionListener {
     private JComboBox<String> hintsComboBox;
     private JComboBox<String> musicComboBox;
 
+    // the generation in progress, or null
+    private GenerationWorker worker;
 
     public GUI() {
         super(new GridLayout(1,1));
@@ -62,6 +68,11 @@ public class GUI extends JPanel implements ActionListener {
         genButton.addActionListener(this);
         genButton.setToolTipText("Once you've loaded up a ROM and chosen all your settings, click here!");
 
+        cancelButton = new JButton("Cancel");
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(this);
+        cancelButton.setToolTipText("Stop generating. Nothing will be saved.");
+
         JLabel seedLabel = new JLabel("Seed:");
         seedField = new JTextField(11);
         seedField.setToolTipText("Input a seed code to generate the same game as someone else. Leave blank if you don't have a code to enter.");
@@ -160,10 +171,16 @@ public class GUI extends JPanel implements ActionListener {
         c.gridy++;
 
         c.gridx = 0;
-        c.gridwidth = 4;
+        c.gridwidth = 3;
         mainPanel.add(genButton, c);
 
+        c.gridx = 3;
+        c.gridwidth = 1;
+        mainPanel.add(cancelButton, c);
+
         c.gridy++;
+        c.gridx = 0;
+        c.gridwidth = 4;
         mainPanel.add(logScrollPane, c);
 
         tabbedPane.addTab("Main", null, mainPanel, "Load your vanilla ROM and generate your game here.");
@@ -310,7 +327,75 @@ public class GUI extends JPanel implements ActionListener {
             options.put("chestColors",chestColorCheck.isSelected() ? "true" : "false");
             options.put("cutsceneSkip",cutsceneSkipCheck.isSelected() ? "true" : "false");
             options.put("revealSecrets",xrayCheck.isSelected() ? "true" : "false");
-            Main.generateGame(seedField.getText(), options);
+            worker = new GenerationWorker(seedField.getText(), options);
+            openButton.setEnabled(false);
+            genButton.setEnabled(false);
+            cancelButton.setEnabled(true);
+            worker.execute();
+        }
+        else if (e.getSource() == cancelButton) {
+            if (worker != null) {
+                log("Cancelling...");
+                cancelButton.setEnabled(false);
+                worker.randomizer.cancel();
+            }
+        }
+    }
+
+    /**
+     * Generates a game in the background, so the window stays responsive. Messages from the randomizer are passed on
+     * to the log, along with a progress report every few seconds while generation is running.
+     */
+    private class GenerationWorker extends SwingWorker<String, String> implements Randomizer.Logger {
+        private final String userSeed;
+        private final Map<String,String> options;
+        private final Randomizer randomizer;
+        private final Timer progressTimer;
+
+        GenerationWorker(String userSeed, Map<String,String> options) {
+            this.userSeed = userSeed;
+            this.options = options;
+            this.randomizer = Main.newRandomizer(this);
+            this.progressTimer = new Timer(PROGRESS_INTERVAL_MS, new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    GUI.this.log(randomizer.getProgress());
+                }
+            });
+            progressTimer.start();
+        }
+
+        @Override
+        protected String doInBackground() {
+            return randomizer.generate(userSeed, options, Runtime.getRuntime().availableProcessors());
+        }
+
+        @Override
+        public void log(String message) {
+            publish(message);
+        }
+
+        @Override
+        protected void process(List<String> messages) {
+            for (String message : messages) {
+                GUI.this.log(message);
+            }
+        }
+
+        @Override
+        protected void done() {
+            progressTimer.stop();
+            try {
+                get();
+            } catch (ExecutionException e) {
+                GUI.this.log("Error occurred while generating randomized game: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+            openButton.setEnabled(true);
+            genButton.setEnabled(true);
+            cancelButton.setEnabled(false);
         }
     }
 
@@ -0,0 +1,74 @@
+import keyshuffle.Level;
+
+import java.util.List;
+
+/**
+ * The outcome of one call to Randomizer.generate: where everything was placed, and the file the randomized game was
+ * saved to. Anything that was left unshuffled is null, just as it is in the spoiler log.
+ */
+public final class GeneratedGame {
+    private final String seed;
+    private final List<Integer> startingItems;
+    private final int[] finalTreasures;
+    private final Level[] finalKeyLocations;
+    private final Integer[] worldMap;
+    private final byte[] playthrough;
+    private final String romFile;
+
+    GeneratedGame(String seed, List<Integer> startingItems, int[] finalTreasures, Level[] finalKeyLocations,
+                  Integer[] worldMap, byte[] playthrough, String romFile) {
+        this.seed = seed;
+        this.startingItems = startingItems;
+        this.finalTreasures = finalTreasures;
+        this.finalKeyLocations = finalKeyLocations;
+        this.worldMap = worldMap;
+        this.playthrough = playthrough;
+        this.romFile = romFile;
+    }
+
+    /**
+     * @return the encoded seed of the game
+     */
+    public String getSeed() {
+        return seed;
+    }
+
+    public List<Integer> getStartingItems() {
+        return startingItems;
+    }
+
+    /**
+     * @return the treasure in each of the 100 locations, including junk
+     */
+    public int[] getFinalTreasures() {
+        return finalTreasures;
+    }
+
+    /**
+     * @return the key locations for each level, or null if keys weren't shuffled
+     */
+    public Level[] getFinalKeyLocations() {
+        return finalKeyLocations;
+    }
+
+    /**
+     * @return the level at each world map position, or null if the map wasn't shuffled
+     */
+    public Integer[] getWorldMap() {
+        return worldMap;
+    }
+
+    /**
+     * @return the playthrough from the spoiler log: every treasure, in the order they can be collected
+     */
+    public byte[] getPlaythrough() {
+        return playthrough;
+    }
+
+    /**
+     * @return the name of the saved ROM or patch file, or null if it was being written asynchronously
+     */
+    public String getRomFile() {
+        return romFile;
+    }
+}
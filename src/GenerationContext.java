@@ -0,0 +1,3467 @@
+import keyshuffle.KeyLocation;
+import keyshuffle.Level;
+
+import jdk.jfr.EventType;
+
+import java.util.*;
+
+/**
+ * A single attempt at placing treasures for one seed. Everything the placement search and the game logic read and
+ * write lives here instead of in static fields, so several attempts can run on different threads at the same time.
+ */
+public class GenerationContext {
+    private static final int NUM_POWERS = 3;
+    private static final List<Integer> BOSS_LOCATIONS = Arrays.asList(
+            3,  // anonster
+            14, // pesce
+            20, // octo
+            27, // helio
+            28, // dollboy
+            34, // kezune
+            37, // shoot
+            48, // wormwould
+            73, // muddee
+            74  // jamano
+    );
+    // which check rejected a seed; see getRejection
+    public static final String REJECTED_PREPARE = "prepareLists";
+    public static final String REJECTED_PLACEMENT = "placement";
+    public static final String REJECTED_DIFFICULTY = "testDifficulty";
+    // marks an empty slot in placedTreasures
+    private static final int NO_TREASURE = -1;
+
+    // kinds of trail entries; see undo
+    private static final int UNDO_ITEM = 0;
+    private static final int UNDO_LOCATION = 1;
+    private static final int UNDO_TREASURE = 2;
+    private static final int UNDO_KEY = 3;
+
+    private final long seed;
+    private final Random rng;
+    private final Level[] allKeyLocations;
+
+    private final boolean keyShuffle;
+    private final boolean enableNewLogic;
+    private final boolean openMode;
+    private final boolean utilityStart;
+    private final boolean itemStart;
+    private final boolean mapShuffle;
+    private final boolean powerfulStart;
+    private final boolean fullPowerStart;
+    private final boolean axeStart;
+    private final boolean bossBoxes;
+
+    private int[] finalTreasures;
+    private Integer[] worldMap;
+    private int[] mapNodes;
+    private Level[] finalKeyLocations;
+    private int difficulty;
+    private List<Integer> startingItems;
+
+    private int fails = 0;
+
+    // placement search state. Moves change these in place and record how to revert themselves on the trail, so
+    // backtracking pops the trail instead of every recursion level copying the lists.
+    private int[] rightItems;
+    private int rightCount;
+    private int[] openLocations;
+    private int openCount;
+    private int[] placedTreasures;
+    private List<Level> levels;
+    private List<List<Integer>> keyIndexes;
+    private int[] trailOps = new int[256];
+    private int[] trailA = new int[256];
+    private int[] trailB = new int[256];
+    private KeyLocation[] trailKeys = new KeyLocation[256];
+    private int trailSize = 0;
+
+    // which locations are reachable under the search's current key placements, per difficulty; see reachability
+    private Reachability[] searchReachability = new Reachability[Difficulty.MERCILESS + 1];
+    // set once another attempt has succeeded, so this one can stop searching
+    private volatile boolean cancelled = false;
+    // set once placement is done and only the difficulty test is left; read by progress reports
+    private volatile boolean testingDifficulty = false;
+
+    // why placeTreasures rejected this seed, or null
+    private String rejection = null;
+    // work done by this attempt, for GenerationMetrics
+    private long canAccessCalls = 0;
+    private int canAccessEvaluations = 0;
+    private int placeKeyCalls = 0;
+    private int searchDepth = 0;
+    private int maxSearchDepth = 0;
+    private int levelListClones = 0;
+    // open flight recorder events, by search depth; only filled in while PlacementBacktrackEvent is enabled
+    private static final EventType BACKTRACK_EVENT_TYPE = EventType.getEventType(PlacementBacktrackEvent.class);
+    private PlacementBacktrackEvent[] backtrackEvents = new PlacementBacktrackEvent[0];
+
+    /**
+     * @param seed             Seed for this attempt
+     * @param options          Options selected by the user
+     * @param allKeyLocations  All potential key locations, per level
+     */
+    public GenerationContext(long seed, Map<String,String> options, Level[] allKeyLocations) {
+        this.seed = seed;
+        this.rng = new Random(seed);
+        this.allKeyLocations = allKeyLocations;
+
+        keyShuffle = options.containsKey("keyShuffle") && "true".equals(options.get("keyShuffle"));
+        mapShuffle = options.containsKey("mapShuffle") && "true".equals(options.get("mapShuffle"));
+        openMode = options.containsKey("openStart") && !options.get("openStart").equals("false");
+        utilityStart = options.containsKey("utilityStart") && !options.get("utilityStart").equals("false");
+        axeStart = !openMode && options.containsKey("axeStart") && options.get("axeStart").equals("true");
+        powerfulStart = options.containsKey("powerStart") && !options.get("powerStart").equals("false");
+        fullPowerStart = options.containsKey("powerStart") && options.get("powerStart").equals("full");
+        enableNewLogic = true;
+        itemStart = openMode || powerfulStart || utilityStart;
+        bossBoxes = options.containsKey("restrictedMusicBoxes") && options.get("restrictedMusicBoxes").equals("true");
+
+        switch (options.get("difficulty")) {
+            case "easy":
+                difficulty = Difficulty.EASY;
+                break;
+            case "normal":
+                difficulty = Difficulty.NORMAL;
+                break;
+            case "hard":
+                difficulty = Difficulty.HARD;
+                break;
+            case "minorglitches":
+                difficulty = Difficulty.S_HARD;
+                break;
+			case "merciless": //added MERCILESS difficulty
+				difficulty = Difficulty.MERCILESS;
+				break;
+        }
+
+        finalTreasures = new int[100];
+        finalKeyLocations = new Level[25];
+    }
+
+    /**
+     * Place all non-junk treasures (and keys and levels, if those are shuffled), then check that the result matches
+     * the requested difficulty.
+     *
+     * @param inventory  All non-junk treasures, in their unshuffled order
+     * @param levelList  Levels with their initial key placements. This attempt works on its own copy.
+     * @return true if this seed produced a valid game
+     */
+    public boolean placeTreasures(List<Integer> inventory, List<Level> levelList) {
+        List<Integer> rightInventory = new ArrayList<>(inventory);
+        List<Integer> leftInventory = new Vector<>();
+        List<Integer> treasures = new ArrayList<>(100);
+        List<Integer> locations = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            locations.add(i);
+            treasures.add(null);
+        }
+        List<Integer> mapList = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            mapList.add(i);
+        }
+        levels = cloneLevelList(levelList);
+        levelListClones++;
+        keyIndexes = new ArrayList<>();
+
+        if (!prepareLists(rightInventory, leftInventory, locations, treasures, mapList, levels, keyIndexes, rng)) {
+            rejection = REJECTED_PREPARE;
+            return false;
+        }
+        searchReachability = new Reachability[Difficulty.MERCILESS + 1];
+        rightItems = new int[rightInventory.size()];
+        rightCount = 0;
+        for (int item : rightInventory) {
+            rightItems[rightCount++] = item;
+        }
+        openLocations = new int[locations.size()];
+        openCount = 0;
+        for (int location : locations) {
+            openLocations[openCount++] = location;
+        }
+        placedTreasures = new int[treasures.size()];
+        for (int i = 0; i < placedTreasures.length; i++) {
+            placedTreasures[i] = treasures.get(i) == null ? NO_TREASURE : treasures.get(i);
+        }
+
+        if (bossBoxes && !placeItemsAssumed(Inventory.of(leftInventory), 5)) {
+            rejection = REJECTED_PLACEMENT;
+            return false;
+        }
+        if (!bossBoxes && !placeItemsLeft(Inventory.of(leftInventory))) {
+            rejection = REJECTED_PLACEMENT;
+            return false;
+        }
+        testingDifficulty = true;
+        if (!testDifficulty(itemStart)) {
+            rejection = REJECTED_DIFFICULTY;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Ask this attempt to give up as soon as possible. Used once another attempt has already found a valid game.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return true if placement is done and the result is being checked against the requested difficulty
+     */
+    public boolean isTestingDifficulty() {
+        return testingDifficulty;
+    }
+
+    /**
+     * @return the number of dead ends the placement search has backed out of so far. Safe to call from other threads
+     *         while the attempt is running, for progress reports, but the count may be slightly out of date.
+     */
+    public int getFails() {
+        return fails;
+    }
+
+    /**
+     * @return which check rejected this seed (REJECTED_PREPARE, REJECTED_PLACEMENT or REJECTED_DIFFICULTY), or null
+     *         if placeTreasures hasn't rejected it
+     */
+    public String getRejection() {
+        return rejection;
+    }
+
+    /**
+     * @return the number of times the logic was asked whether a location is accessible
+     */
+    public long getCanAccessCalls() {
+        return canAccessCalls;
+    }
+
+    /**
+     * @return the number of times a location's rules were actually evaluated; the rest were answered by a tracker that
+     *         already knew the location's rules didn't check anything that had changed
+     */
+    public int getCanAccessEvaluations() {
+        return canAccessEvaluations;
+    }
+
+    public int getPlaceKeyCalls() {
+        return placeKeyCalls;
+    }
+
+    /**
+     * @return the deepest the placement search has recursed
+     */
+    public int getMaxSearchDepth() {
+        return maxSearchDepth;
+    }
+
+    public int getLevelListClones() {
+        return levelListClones;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the random object for this attempt, positioned right after treasure placement
+     */
+    public Random getRng() {
+        return rng;
+    }
+
+    public int[] getFinalTreasures() {
+        return finalTreasures;
+    }
+
+    public Integer[] getWorldMap() {
+        return worldMap;
+    }
+
+    public Level[] getFinalKeyLocations() {
+        return finalKeyLocations;
+    }
+
+    public List<Integer> getStartingItems() {
+        return startingItems;
+    }
+
+    public boolean isItemStart() {
+        return itemStart;
+    }
+
+    /**
+     * Initialize lists in preparation for the game logic to place items.
+     */
+    private boolean prepareLists(List<Integer> inventory,
+                                     List<Integer> leftInventory,
+                                     List<Integer> locations,
+                                     List<Integer> treasures,
+                                     List<Integer> mapList,
+                                     List<Level> levelList,
+                                     List<List<Integer>> keyIndexes,
+                                     Random rng) {
+        Collections.shuffle(inventory, rng);
+        Collections.shuffle(locations, rng);
+        if (itemStart) {
+            startingItems = new LinkedList<>();
+            // determine starting items
+            if (fullPowerStart) {
+                for (int i = Items.SWIM_FINS; i <= Items.SPIKED_HELMET; i++) {
+                    startingItems.add(i);
+                }
+            }
+            else if (powerfulStart) {
+                while (startingItems.size() < NUM_POWERS) {
+                    int power = rng.nextInt(9) + Items.SWIM_FINS;
+                    if (startingItems.contains(power) ||
+                            (power == Items.SWIM_FINS && !startingItems.contains(Items.FROG_GLOVES)) ||
+                            (power == Items.GOLD_GLOVES && !startingItems.contains(Items.RED_GLOVES)) ||
+                            (power == Items.RED_OVERALLS && !startingItems.contains(Items.BLUE_OVERALLS))) {
+                        continue;
+                    }
+                    startingItems.add(power);
+                }
+            }
+
+            if (openMode) {
+                List<Integer> openItems = Arrays.asList(Items.AXE,
+                        Items.KEYSTONE_L, Items.KEYSTONE_R,
+                        Items.COG_WHEEL_A, Items.COG_WHEEL_B,
+                        Items.MIST_FAN, Items.TORCH);
+
+                startingItems.addAll(openItems);
+            }
+
+            if (utilityStart) {
+                startingItems.add(Items.MAGNIFYING_GLASS);
+                startingItems.add(Items.TIME_BUTTON);
+            }
+
+            for (int item : startingItems) {
+                inventory.remove(new Integer(item));
+                leftInventory.add(item);
+                Collections.replaceAll(treasures, item,null);
+            }
+        }
+        else {
+            startingItems = new Vector<>();
+        }
+        if (mapShuffle) {
+            mapList = shuffleMap(mapList,itemStart,rng);
+        }
+
+        setWorldMap(mapList.toArray(new Integer[25]));
+
+        if (keyShuffle) {
+            // prepare key index (ordered list of locations per level where keys will be attempted to be placed)
+            for (int i = 0; i < 25; i++) {
+                List<Integer> subIndex = new ArrayList<>();
+                for (int j = 0; j < 12; j++) {
+                    subIndex.add(j);
+                }
+                Collections.shuffle(subIndex,rng);
+                keyIndexes.add(subIndex);
+            }
+        }
+
+        if (axeStart) {
+            // pre-place the axe in the gray chest of level 0
+            inventory.remove(new Integer(Items.AXE));
+            locations.remove(new Integer(worldMap[0]*4));
+            leftInventory.add(Items.AXE);
+            Collections.replaceAll(treasures,Items.AXE,null);
+            treasures.set(worldMap[0]*4, Items.AXE);
+            if (keyShuffle) {
+                // also place gray key
+                if (!placeKey(levelList.get(worldMap[0]),worldMap[0],0,keyIndexes.get(worldMap[0]),Inventory.EMPTY)) {
+                    return false;
+                }
+            }
+
+            // sanity check - might fail this if a lategame level appears at N1's spot
+            if (!canAccess(worldMap[0]*4, Inventory.EMPTY, levelList)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Place an item from the right inventory somewhere it can be logically acquired.
+     *
+     * @param leftInventory  Items already placed at the beginning of the sequence.
+     * @param bossBoxes      Number of music boxes to give to bosses
+     * @return true if all items were placed successfully, false otherwise
+     */
+    private boolean placeItemsAssumed(Inventory leftInventory, int bossBoxes) {
+        enterSearch();
+        boolean powersRemain = false;
+        if (bossBoxes == 0 && enableNewLogic) {
+            for (int i = 0; i < rightCount; i++) {
+                int item = rightItems[i];
+                if (item >= Items.SWIM_FINS && item <= Items.SPIKED_HELMET) {
+                    powersRemain = true;
+                    break;
+                }
+            }
+        }
+        for (int itemIdx = 0; itemIdx < rightCount; itemIdx++) {
+            int item = rightItems[itemIdx];
+            if (cancelled) {
+                return leaveSearch(false);
+            }
+            if (bossBoxes > 0 && item > Items.MUSIC_BOX_5) {
+                continue;
+            }
+            if (powersRemain && !(item >= Items.SWIM_FINS && item <= Items.SPIKED_HELMET)) {
+                continue;
+            }
+            Inventory curInventory = Inventory.EMPTY;
+            for (int i = 0; i < rightCount; i++) {
+                if (i != itemIdx) {
+                    curInventory = curInventory.with(rightItems[i]);
+                }
+            }
+            if (itemStart) {
+                curInventory = curInventory.withAll(startingItems);
+            }
+            boolean[] candidateLocations = new boolean[100];
+            int numCandidates = 0;
+            boolean[] checkedList = new boolean[100];
+            boolean foundLocation;
+            do {
+                Inventory newItems = Inventory.EMPTY;
+                boolean[] newCandidateLocations = new boolean[100];
+                boolean[] newCheckedList = new boolean[100];
+                foundLocation = false;
+                Reachability reachable = reachability(searchReachability, levels);
+                reachable.update(curInventory);
+                for (int location = reachable.nextAccessible(0); location >= 0; location = reachable.nextAccessible(location + 1)) {
+                    if (checkedList[location] || (bossBoxes > 0 && !BOSS_LOCATIONS.contains(location))) {
+                        continue;
+                    }
+                    foundLocation = true;
+                    newCheckedList[location] = true;
+                    if (placedTreasures[location] == NO_TREASURE) {
+                        // if keys are shuffled, we also need somewhere to put this location's key
+                        if (keyShuffle && findKeyLocation(location / 4, location % 4, curInventory) == null) {
+                            continue;
+                        }
+                        newCandidateLocations[location] = true;
+                    }
+                    else {
+                        newItems = newItems.with(placedTreasures[location]);
+                    }
+                }
+                if (!curInventory.has(Items.AXE)) {
+                    if (newItems.has(Items.TORCH)) {
+                        // without the axe, we must have found the torch in level 0
+                        // take only the torch and restart scan (to avoid softlock potential)
+                        curInventory = curInventory.with(Items.TORCH);
+                        markChecked(checkedList, Items.TORCH);
+                        continue;
+                    }
+                    else if (newItems.has(Items.KEYSTONE_L) && newItems.has(Items.KEYSTONE_R)) {
+                        // similarly, we want to avoid a rare softlock that could occur if we escape from N1 by heading west
+                        curInventory = curInventory.withAll(Items.KEYSTONE_L, Items.KEYSTONE_R);
+                        markChecked(checkedList, Items.KEYSTONE_L);
+                        markChecked(checkedList, Items.KEYSTONE_R);
+                        continue;
+                    }
+                }
+                curInventory = curInventory.withAll(newItems);
+                for (int location = 0; location < 100; location++) {
+                    if (newCandidateLocations[location] && !candidateLocations[location]) {
+                        candidateLocations[location] = true;
+                        numCandidates++;
+                    }
+                    checkedList[location] |= newCheckedList[location];
+                }
+            } while (foundLocation);
+
+            if (numCandidates == 0) {
+                fails++;
+                if (fails >= 500) return leaveSearch(false);
+                continue;
+            }
+
+            for (int locationIdx = 0; locationIdx < openCount; locationIdx++) {
+                int location = openLocations[locationIdx];
+                if (candidateLocations[location]) {
+                    KeyLocation key = null;
+                    if (keyShuffle) {
+                        // place key
+                        key = findKeyLocation(location / 4, location % 4, curInventory);
+                        if (key == null) {
+                            continue;
+                        }
+                    }
+
+                    int mark = trailSize;
+                    if (key != null) {
+                        setKey(location / 4, location % 4, key);
+                    }
+                    removeItem(itemIdx);
+                    removeLocation(locationIdx);
+                    setTreasure(location, item);
+                    if (rightCount == 0) {
+                        return leaveSearch(finishPlacement());
+                    }
+                    else if (bossBoxes > 1 && placeItemsAssumed(leftInventory, bossBoxes-1)) {
+                        return leaveSearch(true);
+                    }
+                    else if (bossBoxes == 1 && placeItemsLeft(leftInventory)) {
+                        return leaveSearch(true);
+                    }
+                    else if (bossBoxes < 1 && placeItemsAssumed(leftInventory, 0)) {
+                        return leaveSearch(true);
+                    }
+                    undo(mark);
+                    fails++;
+                    if (fails >= 500) return leaveSearch(false);
+                }
+            }
+        }
+        return leaveSearch(false);
+    }
+
+    /**
+     * Note that the placement search has gone one level deeper.
+     */
+    private void enterSearch() {
+        searchDepth++;
+        maxSearchDepth = Math.max(maxSearchDepth, searchDepth);
+        if (BACKTRACK_EVENT_TYPE.isEnabled()) {
+            if (searchDepth >= backtrackEvents.length) {
+                backtrackEvents = Arrays.copyOf(backtrackEvents, searchDepth * 2);
+            }
+            PlacementBacktrackEvent event = new PlacementBacktrackEvent();
+            event.itemsRemaining = rightCount;
+            event.begin();
+            backtrackEvents[searchDepth] = event;
+        }
+    }
+
+    /**
+     * Note that the placement search is returning from one level.
+     *
+     * @return the given result, so this can wrap a return value
+     */
+    private boolean leaveSearch(boolean result) {
+        if (searchDepth < backtrackEvents.length && backtrackEvents[searchDepth] != null) {
+            PlacementBacktrackEvent event = backtrackEvents[searchDepth];
+            backtrackEvents[searchDepth] = null;
+            if (!result) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.seed = seed;
+                    event.depth = searchDepth;
+                    event.fails = fails;
+                    event.commit();
+                }
+            }
+        }
+        searchDepth--;
+        return result;
+    }
+
+    /**
+     * Find where to put the requested color key in a given level, so that it can be acquired with the given inventory.
+     *
+     * @param levelNum   Level number from 0-24 representing which in-game level this is.
+     * @param keyNum     Key number from 0-3; 0 = gray, 1 = red, 2 = green, 3 = blue
+     * @param inventory  The items Wario currently has
+     *
+     * @return the key location to use, or null if the key can't be placed
+     */
+    private KeyLocation findKeyLocation(int levelNum, int keyNum, Inventory inventory) {
+        return findKeyLocation(levels.get(levelNum), levelNum, keyNum, keyIndexes.get(levelNum), inventory);
+    }
+
+    /**
+     * Find where to put the requested color key in a given level, so that it can be acquired with the given inventory.
+     *
+     * @param level      Level object representing the current state of the level.
+     * @param levelNum   Level number from 0-24 representing which in-game level this is.
+     * @param keyNum     Key number from 0-3; 0 = gray, 1 = red, 2 = green, 3 = blue
+     * @param subIndexes This level's entry in the key index; the order in which to attempt key locations
+     * @param inventory  The items Wario currently has
+     *
+     * @return the key location to use, or null if the key can't be placed
+     */
+    private KeyLocation findKeyLocation(Level level, int levelNum, int keyNum, List<Integer> subIndexes, Inventory inventory) {
+        for (Integer index : subIndexes) {
+            KeyLocation candidate = allKeyLocations[levelNum].getLocation(index);
+            int region = candidate.getRegion();
+
+            int location = candidate.getSubLocation();
+
+            boolean clash = false;
+            for (int i = 0; i < 4; i++) {
+                if (level.getLocation(i) != null && level.getLocation(i).getRegion() == region) {
+                    clash = true;
+                    break;
+                }
+            }
+
+            if (!clash) {
+                if ((canAccessKeyLocation(levelNum,candidate.getRegion(),location,true, keyNum, inventory) && canAccess(levelNum*4+keyNum,inventory,null,true)) ||
+                        (canAccessKeyLocation(levelNum,candidate.getRegion(),location,false, keyNum, inventory) && canAccess(levelNum*4+keyNum,inventory,null,false))) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Place the requested color key in a given level, so that it can be acquired with the given inventory.
+     *
+     * @param level      Level object representing the current state of the level.
+     * @param levelNum   Level number from 0-24 representing which in-game level this is.
+     * @param keyNum     Key number from 0-3; 0 = gray, 1 = red, 2 = green, 3 = blue
+     * @param subIndexes This level's entry in the key index; the order in which to attempt key locations
+     * @param inventory  The items Wario currently has
+     *
+     * @return true if a key was successfully placed
+     */
+    private boolean placeKey(Level level, int levelNum, int keyNum, List<Integer> subIndexes, Inventory inventory) {
+        placeKeyCalls++;
+        KeyLocation candidate = findKeyLocation(level, levelNum, keyNum, subIndexes, inventory);
+        if (candidate == null) {
+            return false;
+        }
+        level.setLocation(keyNum, candidate);
+        return true;
+    }
+
+    /**
+     * Place an item from the right inventory at the beginning of the sequence (moving it to leftInventory).
+     *
+     * @param leftInventory  Items already placed at the beginning of the sequence.
+     *
+     * @return true if all items were placed successfully, false otherwise
+     */
+    private boolean placeItemsLeft(Inventory leftInventory) {
+        enterSearch();
+        if (cancelled || fails >= (keyShuffle ? 500 : 500)) {
+            return leaveSearch(false);
+        }
+        int cutoff = 55;
+        int numPowers = 0;
+        for (int item = Items.SWIM_FINS; item <= Items.SPIKED_HELMET; item++) {
+            if (leftInventory.has(item)) {
+                numPowers++;
+            }
+        }
+        //boolean forwardGPStart = treasures.get(0) != null && (treasures.get(0).equals(Items.BLUE_OVERALLS) || treasures.get(0).equals(Items.RED_OVERALLS));
+        for (int locationIdx = 0; locationIdx < openCount; locationIdx++) {
+            int location = openLocations[locationIdx];
+            boolean forwardGPStart = !leftInventory.has(Items.AXE) && !leftInventory.has(Items.TORCH) && !(leftInventory.has(Items.KEYSTONE_L) && leftInventory.has(Items.KEYSTONE_R));
+            Reachability reachable = reachability(searchReachability, levels);
+            reachable.update(leftInventory);
+            if (!reachable.isAccessible(location)) {
+                continue;
+            }
+            KeyLocation key = null;
+            if (keyShuffle) {
+                key = findKeyLocation(location / 4, location % 4, leftInventory);
+                if (key == null) {
+                    continue;
+                }
+            }
+
+            boolean forceTorch = false;
+            boolean forceKeys = false;
+            if (forwardGPStart) {
+                // because of the possibility of multiple treasures being available in the first level of map shuffle,
+                // we need to be sure the player can't softlock by warping out with the torch before getting all
+                // treasures.
+                boolean torchFirst = false;
+                // same with the two keystones
+                int keystones = 0;
+                for (int i = 0; i < rightCount; i++) {
+                    int item = rightItems[i];
+                    if (item == Items.AXE) {
+                        break;
+                    }
+                    else if (item == Items.KEYSTONE_L || item == Items.KEYSTONE_R) {
+                        keystones++;
+                        if (keystones == 2) {
+                            break;
+                        }
+                    }
+                    else if (item == Items.TORCH) {
+                        torchFirst = true;
+                        break;
+                    }
+                }
+                if (torchFirst) {
+                    int levelIdx = (location / 4) * 4;
+                    int locationsLeft = 0;
+                    for (int i = levelIdx; i < levelIdx + 4; i++) {
+                        if (placedTreasures[i] == NO_TREASURE && reachable.isAccessible(i)) {
+                            locationsLeft++;
+                        }
+                    }
+                    if (locationsLeft > 1) {
+                        forceTorch = true;
+                    }
+                }
+                else if (keystones == 2) {
+                    int levelIdx = (location / 4) * 4;
+                    int locationsLeft = 0;
+                    for (int i = levelIdx; i < levelIdx + 4; i++) {
+                        if (placedTreasures[i] == NO_TREASURE && reachable.isAccessible(i)) {
+                            locationsLeft++;
+                        }
+                    }
+                    if (locationsLeft > 1) {
+                        forceKeys = true;
+                    }
+                }
+            }
+
+            for (int itemIdx = 0; itemIdx < rightCount; itemIdx++) {
+                int item = rightItems[itemIdx];
+                if (enableNewLogic && numPowers > -1 && item >= Items.SWIM_FINS && item <= Items.SPIKED_HELMET) {
+                    continue;
+                }
+                if (forceTorch && item != Items.TORCH) {
+                    continue;
+                }
+                else if (forceKeys && item != Items.KEYSTONE_R && item != Items.KEYSTONE_L) {
+                    continue;
+                }
+                else if (item == Items.TORCH && location/4 == worldMap[0] && treasureLocation(Items.AXE)/4 == worldMap[0]) {
+                    continue;
+                }
+                Inventory nextLeftInventory = leftInventory.with(item);
+                int mark = trailSize;
+                if (key != null) {
+                    // also place the appropriate key
+                    setKey(location / 4, location % 4, key);
+                }
+                removeItem(itemIdx);
+                removeLocation(locationIdx);
+                setTreasure(location, item);
+
+                int locationsLeft;
+                boolean restartScan;
+                do {
+                    locationsLeft = 0;
+                    restartScan = false;
+                    reachable.update(nextLeftInventory);
+                    for (int checkLocation = reachable.nextAccessible(0); checkLocation >= 0; checkLocation = reachable.nextAccessible(checkLocation + 1)) {
+                        if (checkLocation == location) {
+                            continue;
+                        }
+                        if (placedTreasures[checkLocation] != NO_TREASURE) {
+                            if (!nextLeftInventory.has(placedTreasures[checkLocation])) {
+                                nextLeftInventory = nextLeftInventory.with(placedTreasures[checkLocation]);
+                                restartScan = true;
+                                break;
+                            }
+                        }
+                        else if (keyShuffle && findKeyLocation(checkLocation / 4, checkLocation % 4, nextLeftInventory) == null) {
+                            // do nothing
+                        }
+                        else {
+                            locationsLeft++;
+                        }
+                    }
+                } while (restartScan);
+                if (locationsLeft == 0) {
+                    undo(mark);
+                    continue;
+                }
+                if (rightCount == 0) {
+                    return leaveSearch(finishPlacement());
+                }
+                else if (rightCount < cutoff && placeItemsAssumed(nextLeftInventory, 0)) {
+                    return leaveSearch(true);
+                }
+                else if ((rightCount >= cutoff) && placeItemsLeft(nextLeftInventory)) {
+                    return leaveSearch(true);
+                }
+                undo(mark);
+                if (cancelled || fails >= (keyShuffle ? 500 : 500)) {
+                    return leaveSearch(false);
+                }
+            }
+            fails++;
+        }
+        return leaveSearch(false);
+    }
+
+    /**
+     * Every treasure has been placed; record the final placement and fill in any keys that haven't been placed yet.
+     *
+     * @return true if all keys could be placed
+     */
+    private boolean finishPlacement() {
+        Inventory finalInventory = Inventory.EMPTY;
+        for (int i = 0; i < placedTreasures.length; i++) {
+            if (placedTreasures[i] != NO_TREASURE) {
+                finalTreasures[i] = placedTreasures[i];
+                finalInventory = finalInventory.with(placedTreasures[i]);
+            }
+        }
+        if (itemStart) {
+            finalInventory = finalInventory.withAll(startingItems);
+        }
+        for (int i = 0; i < finalKeyLocations.length; i++) {
+            finalKeyLocations[i] = new Level(levels.get(i));
+            for (int j = 0; j < 4; j++) {
+                if (finalKeyLocations[i].getLocation(j) == null) {
+                    boolean success = placeKey(finalKeyLocations[i],i,j,keyIndexes.get(i),finalInventory);
+                    if (!success) {
+                        return false; // this shouldn't happen!
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mark the location holding the given treasure as checked (if it has been placed).
+     */
+    private void markChecked(boolean[] checkedList, int item) {
+        int location = treasureLocation(item);
+        if (location >= 0) {
+            checkedList[location] = true;
+        }
+    }
+
+    /**
+     * @return the location the given treasure has been placed at, or -1 if it hasn't been placed
+     */
+    private int treasureLocation(int item) {
+        for (int i = 0; i < placedTreasures.length; i++) {
+            if (placedTreasures[i] == item) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Remove the item at the given index from the right inventory, keeping the order of the rest.
+     */
+    private void removeItem(int idx) {
+        pushUndo(UNDO_ITEM, idx, rightItems[idx], null);
+        System.arraycopy(rightItems, idx + 1, rightItems, idx, rightCount - idx - 1);
+        rightCount--;
+    }
+
+    /**
+     * Remove the location at the given index from the list of open locations, keeping the order of the rest.
+     */
+    private void removeLocation(int idx) {
+        pushUndo(UNDO_LOCATION, idx, openLocations[idx], null);
+        System.arraycopy(openLocations, idx + 1, openLocations, idx, openCount - idx - 1);
+        openCount--;
+    }
+
+    private void setTreasure(int location, int item) {
+        pushUndo(UNDO_TREASURE, location, placedTreasures[location], null);
+        placedTreasures[location] = item;
+    }
+
+    private void setKey(int levelNum, int keyNum, KeyLocation key) {
+        Level level = levels.get(levelNum);
+        pushUndo(UNDO_KEY, levelNum, keyNum, level.getLocation(keyNum));
+        level.setLocation(keyNum, key);
+        keyMoved(levelNum * 4 + keyNum);
+    }
+
+    /**
+     * Tell the search's reachability trackers that the key for the given location has moved.
+     */
+    private void keyMoved(int location) {
+        for (Reachability reachability : searchReachability) {
+            if (reachability != null) {
+                reachability.keyMoved(location);
+            }
+        }
+    }
+
+    private void pushUndo(int op, int a, int b, KeyLocation key) {
+        if (trailSize == trailOps.length) {
+            int newLength = trailOps.length * 2;
+            trailOps = Arrays.copyOf(trailOps, newLength);
+            trailA = Arrays.copyOf(trailA, newLength);
+            trailB = Arrays.copyOf(trailB, newLength);
+            trailKeys = Arrays.copyOf(trailKeys, newLength);
+        }
+        trailOps[trailSize] = op;
+        trailA[trailSize] = a;
+        trailB[trailSize] = b;
+        trailKeys[trailSize] = key;
+        trailSize++;
+    }
+
+    /**
+     * Revert every change made to the search state since the trail was at the given size, newest first.
+     */
+    private void undo(int mark) {
+        while (trailSize > mark) {
+            trailSize--;
+            int a = trailA[trailSize];
+            int b = trailB[trailSize];
+            switch (trailOps[trailSize]) {
+                case UNDO_ITEM:
+                    System.arraycopy(rightItems, a, rightItems, a + 1, rightCount - a);
+                    rightItems[a] = b;
+                    rightCount++;
+                    break;
+                case UNDO_LOCATION:
+                    System.arraycopy(openLocations, a, openLocations, a + 1, openCount - a);
+                    openLocations[a] = b;
+                    openCount++;
+                    break;
+                case UNDO_TREASURE:
+                    placedTreasures[a] = b;
+                    break;
+                case UNDO_KEY:
+                    levels.get(a).setLocation(b, trailKeys[trailSize]);
+                    trailKeys[trailSize] = null;
+                    keyMoved(a * 4 + b);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Randomize the game's world map. Ensures that the first level has an item reachable with an empty inventory.
+     *
+     * @param initialMap  initial list of locations to shuffle
+     * @param rng         random object to use
+     * @return A shuffled list of locations
+     */
+    private List<Integer> shuffleMap(List<Integer> initialMap, boolean powerStart, Random rng) {
+        Vector<Integer> shuffledMap = new Vector<>(initialMap);
+        Collections.shuffle(shuffledMap, rng);
+        setWorldMap(shuffledMap.toArray(new Integer[25]));
+        if (!fullPowerStart) {
+            Integer firstLevel = 0;
+            Inventory startInventory = Inventory.of(startingItems);
+//            Integer[] firstLevelsArr = {0, 1, 2, 4, 6, 7, 9, 13, 14, 15, 17, 18, 19, 21, 24};
+//            List<Integer> firstLevels = Arrays.asList(firstLevelsArr);
+
+            for (Integer level : shuffledMap) {
+//                if (firstLevels.contains(level)) {
+                if (axeStart) {
+                    if (canAccess(level*4, startInventory, null)) {
+                        firstLevel = level;
+                        break;
+                    }
+                }
+                else if (canAccess(level*4, startInventory, null) ||
+                        canAccess(level*4+1, startInventory, null) ||
+                        canAccess(level*4+2, startInventory, null) ||
+                        canAccess(level*4+3, startInventory, null)) {
+                    firstLevel = level;
+                    break;
+                }
+            }
+            shuffledMap.remove(firstLevel);
+            shuffledMap.insertElementAt(firstLevel, 0);
+        }
+        return shuffledMap;
+    }
+
+    /**
+     * Tests the difficulty of the seed.
+     *
+     * @param powerStart Whether or not Wario began the game with items
+     * @return true if the difficulty is appropriate for the currently set level
+     */
+    private boolean testDifficulty(boolean powerStart) {
+        DifficultyTestEvent event = new DifficultyTestEvent();
+        event.begin();
+        int targetDifficulty = difficulty;
+        Inventory inventory = Inventory.EMPTY;
+        if (powerStart) {
+            inventory = inventory.withAll(startingItems);
+        }
+        List<Integer> locationsChecked = new Vector<>();
+
+        List<Level> finalKeyLocationList = Arrays.asList(finalKeyLocations);
+        Reachability[] trackers = new Reachability[Difficulty.MERCILESS + 1];
+
+        difficulty = Difficulty.EASY;
+        int[] blockers = {-1, -1, -1, -1, -1};
+        int[] winBlockers = {0, 0, 0, 0, 0};
+        Inventory winItems = Inventory.of(Items.MUSIC_BOX_1,
+                Items.MUSIC_BOX_2,
+                Items.MUSIC_BOX_3,
+                Items.MUSIC_BOX_4,
+                Items.MUSIC_BOX_5,
+                Items.AXE,
+                Items.GOLD_GLOVES);
+        while (difficulty <= Difficulty.MERCILESS) {
+            boolean gotItem;
+            do {
+                List<Integer> newItems = new Vector<>();
+                gotItem = false;
+                for (int i = 0; i < finalTreasures.length; i++) {
+
+                    if (locationsChecked.contains(i)) continue;
+                    // finding an item drops back to EASY partway through the scan, so look up the tracker each time
+                    Reachability reachable = reachability(trackers, finalKeyLocationList);
+                    reachable.update(inventory);
+                    if (reachable.isAccessible(i)) {
+                        locationsChecked.add(i);
+                        gotItem = true;
+                        difficulty = Difficulty.EASY;
+                        newItems.add(finalTreasures[i]);
+                        if (finalTreasures[i] == Items.TORCH) break;
+                    }
+                }
+                inventory = inventory.withAll(newItems);
+            } while (gotItem);
+            blockers[difficulty]++;
+            if (!inventory.containsAll(winItems) ||
+                !canGP(inventory)) {
+                winBlockers[difficulty]++;
+            }
+            difficulty++;
+        }
+        difficulty = targetDifficulty;
+        boolean passed = true;
+        for (int i = 0; i < 4; i++) {
+            if (i == targetDifficulty - 1 && winBlockers[i] < 2 && difficulty > Difficulty.NORMAL) {
+                passed = false;
+                break;
+            }
+            else if (i >= targetDifficulty && blockers[i] > 0) {
+                passed = false;
+                break;
+            }
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.seed = seed;
+            event.targetDifficulty = targetDifficulty;
+            event.passed = passed;
+            event.easyBlockers = blockers[Difficulty.EASY];
+            event.normalBlockers = blockers[Difficulty.NORMAL];
+            event.hardBlockers = blockers[Difficulty.HARD];
+            event.minorGlitchesBlockers = blockers[Difficulty.S_HARD];
+            event.mercilessBlockers = blockers[Difficulty.MERCILESS];
+            event.commit();
+        }
+        return passed;
+    }
+
+    /**
+     * Build a playthrough to set up hints.
+     *
+     * @param rng random object to use
+     * @param strategic true for "strategic" hints
+     * @return An array of treasures, in the order they should be hinted at
+     */
+    public byte[] buildPlaythrough(Random rng, boolean strategic, boolean powerStart) {
+        Inventory inventory = Inventory.EMPTY;
+        if (powerStart) {
+            inventory = inventory.withAll(startingItems);
+        }
+        List<Integer> locationsChecked = new Vector<>();
+        byte[] playthrough = new byte[100];
+        int idx = 0;
+        int stratIdx = 1;
+
+        int sphere = 0;
+
+        if (strategic) {
+            playthrough[0] = Items.AXE;
+            playthrough[6] = Items.GOLD_GLOVES;
+            playthrough[7] = Items.RED_OVERALLS;
+            idx = 8;
+        }
+
+        List<Level> finalKeyLocationList = Arrays.asList(finalKeyLocations);
+        Reachability reachable = new Reachability(finalKeyLocationList);
+
+        boolean gotItem;
+        do {
+            List<Integer> newItems = new Vector<>();
+            gotItem = false;
+            reachable.update(inventory);
+            for (int i = 0; i < finalTreasures.length; i++) {
+
+                if (locationsChecked.contains(i)) continue;
+                if (reachable.isAccessible(i)) {
+                    locationsChecked.add(i);
+                    gotItem = true;
+                    newItems.add(finalTreasures[i]);
+                    if (finalTreasures[i] == Items.TORCH) break;
+                }
+            }
+            if (rng != null) {
+                Collections.shuffle(newItems, rng);
+            }
+            for (int item : newItems) {
+                if (strategic && (item == Items.AXE || item == Items.GOLD_GLOVES || item == Items.RED_OVERALLS || item == Items.EMPTY)) {
+                    // do nothing; this item has already been preset as a strategic hint
+                }
+                else if (strategic && item <= Items.MUSIC_BOX_5) {
+                    playthrough[stratIdx] = (byte)item;
+                    stratIdx++;
+                }
+                else {
+                    playthrough[idx] = (byte) item;
+                    idx++;
+                }
+            }
+            inventory = inventory.withAll(newItems);
+            sphere++;
+        } while (gotItem);
+        return playthrough;
+    }
+
+    /**
+     * Check if the provided inventory allows Wario to swim.
+     */
+    private boolean canSwim(Inventory inventory) {
+        return inventory.has(Items.FROG_GLOVES) || inventory.has(Items.SWIM_FINS);
+    }
+
+    /**
+     * Check if the provided inventory allows Wario to swim against currents.
+     */
+    private boolean canSuperSwim(Inventory inventory) {
+        return inventory.has(Items.SWIM_FINS);
+    }
+
+    /**
+     * Check if the provided inventory allows Wario to ground pound.
+     */
+    private boolean canGP(Inventory inventory) {
+        return inventory.has(Items.BLUE_OVERALLS) || inventory.has(Items.RED_OVERALLS);
+    }
+
+    /**
+     * Check if the provided inventory allows Wario to super ground pound.
+     */
+    private boolean canSuperGP(Inventory inventory) {
+        return inventory.has(Items.RED_OVERALLS);
+    }
+
+    /**
+     * Check if the provided inventory allows Wario to lift small objects.
+     */
+    private boolean canLift(Inventory inventory) {
+        return inventory.has(Items.RED_GLOVES) || inventory.has(Items.GOLD_GLOVES);
+    }
+
+    /**
+     * Check if the provided inventory allows wario to lift large objects.
+     */
+    private boolean canSuperLift(Inventory inventory) {
+        return inventory.has(Items.GOLD_GLOVES);
+    }
+
+    /**
+     * Check if the given level can be entered in the daytime given the provided inventory, assuming it can be entered at all.
+     *
+     * @param level a level id from Locations (e.g. Locations.E2)
+     */
+    private boolean isDaytime(int level, Inventory inventory) {
+        if (inventory.has(Items.SUN_FRAGMENT_L) && inventory.has(Items.SUN_FRAGMENT_R)) {
+            return true;
+        }
+        return mapNodes[level] < 18;
+    }
+
+    /**
+     * Set the world map, and index which map node each level has been placed at so the logic doesn't have to
+     * search the map every time it needs to find a level.
+     *
+     * @param map ordered array of level ids, indexed by map node
+     */
+    private void setWorldMap(Integer[] map) {
+        worldMap = map;
+        searchReachability = new Reachability[Difficulty.MERCILESS + 1];
+        mapNodes = new int[map.length];
+        for (int i = 0; i < map.length; i++) {
+            mapNodes[map[i]] = i;
+        }
+    }
+
+    /**
+     * Check if the provided inventory allows Wario to warp to the given border using NEXT MAP.
+     *
+     * @param border one of Locations.NW, Locations.NE, Locations.SW, or Locations.SE
+     */
+    private boolean canAccessBorder(int border, Inventory inventory) {
+        switch (border) {
+            case Locations.NW:
+                return inventory.has(Items.KEYSTONE_L) && inventory.has(Items.KEYSTONE_R);
+            case Locations.NE:
+                return inventory.has(Items.TORCH);
+            case Locations.SW:
+                return inventory.has(Items.COG_WHEEL_A) && inventory.has(Items.COG_WHEEL_B)
+                        && (canAccessBorder(Locations.NW, inventory) ||
+                            ((canAccessBorder(Locations.NE, inventory) && inventory.has(Items.MIST_FAN))));
+            case Locations.SE:
+                return inventory.has(Items.MIST_FAN)
+                        && (canAccessBorder(Locations.NE, inventory) ||
+                            ((canAccessBorder(Locations.NW, inventory) && (inventory.has(Items.COG_WHEEL_A) && inventory.has(Items.COG_WHEEL_B)))));
+        }
+        return false;
+    }
+
+    /**
+     * Check if the provided inventory allows Wario to reach the given level on the world map, adjusting for the
+     * effects of map shuffle.
+     *
+     * @param level a level id from Locations (e.g. Locations.E2)
+     */
+    private boolean canAccessLevel(int level, Inventory inventory) {
+        return canAccessMapNode(mapNodes[level], inventory);
+    }
+
+    /**
+     * Check if the provided inventory allows Wario to reach the given spot on the world map, regardless of which
+     * level has been placed there.
+     *
+     * @param node a map node, identified by the id of the level that appears there in the vanilla game
+     */
+    private boolean canAccessMapNode(int node, Inventory inventory) {
+        switch (node) {
+            case Locations.N1:
+                return true;
+            case Locations.N2:
+                return inventory.has(Items.AXE) || inventory.has(Items.TORCH);
+            case Locations.N3:
+                return inventory.has(Items.AXE) || (inventory.has(Items.KEYSTONE_L) && inventory.has(Items.KEYSTONE_R));
+            case Locations.N4:
+                return inventory.has(Items.MUSIC_BOX_2) && canAccessMapNode(Locations.N3, inventory);
+            case Locations.N5:
+                return canAccessMapNode(Locations.N4, inventory);
+            case Locations.N6:
+                return inventory.has(Items.GARLIC) && canAccessMapNode(Locations.N5, inventory);
+            case Locations.W5:
+                return inventory.has(Items.MUSIC_BOX_4) && canAccessMapNode(Locations.W3, inventory);
+            case Locations.W6:
+                return inventory.has(Items.RED_ARTIFACT) && inventory.has(Items.GREEN_ARTIFACT) && inventory.has(Items.BLUE_ARTIFACT)
+                        && canAccessMapNode(Locations.W2, inventory);
+            case Locations.S4:
+                return inventory.has(Items.ANGER_HALBERD) && inventory.has(Items.ANGER_SPELL)
+                        && canAccessMapNode(Locations.S2, inventory);
+            case Locations.S5:
+                return inventory.has(Items.MUSIC_BOX_3)
+                        && canAccessMapNode(Locations.S2, inventory);
+            case Locations.S6:
+                return inventory.has(Items.SKY_KEY)
+                        && canAccessMapNode(Locations.S3, inventory);
+            case Locations.E3:
+                return inventory.has(Items.LAMP) && inventory.has(Items.FLAME)
+                        && canAccessMapNode(Locations.E1, inventory);
+            case Locations.E5:
+                return inventory.has(Items.WARP_COMPACT)
+                        && canAccessMapNode(Locations.E7, inventory);
+            case Locations.E6:
+                return inventory.has(Items.CRATER_MAP)
+                        && canAccessMapNode(Locations.E3, inventory);
+        }
+        return canAccessFromWest(node, inventory) || canAccessFromEast(node, inventory);
+    }
+
+    /**
+     * Check if the provided inventory allows Wario to collect the treasure at the given location.
+     *
+     * @param location a treasure location id from Locations (e.g. Locations.N2R)
+     * @param keyLocations list of levels and their current key placements, or null to ignore keys
+     */
+    private boolean canAccess(int location, Inventory inventory, List<Level> keyLocations) {
+        canAccessCalls++;
+        canAccessEvaluations++;
+        return canAccess(location, inventory, keyLocations, true)
+                || canAccess(location, inventory, keyLocations, false);
+    }
+
+    /**
+     * @param trackers one reachability tracker per difficulty, filled in as needed
+     * @param keyLocations list of levels and their key placements for the trackers to use
+     * @return the tracker for the current difficulty
+     */
+    private Reachability reachability(Reachability[] trackers, List<Level> keyLocations) {
+        if (trackers[difficulty] == null) {
+            trackers[difficulty] = new Reachability(keyLocations);
+        }
+        return trackers[difficulty];
+    }
+
+    /**
+     * Check if the provided inventory allows Wario to collect the treasure at the given location.
+     *
+     * Every treasure location has an integer id, so the rule for a location is found with a single switch rather than
+     * by comparing location codes one at a time.
+     *
+     * @param location a treasure location id from Locations (e.g. Locations.N2R)
+     * @param keyLocations list of levels and their current key placements, or null to ignore keys
+     * @param dayOnly if true, Wario must be able to collect the treasure while entering the level in the daytime
+     */
+    private boolean canAccess(int location, Inventory inventory, List<Level> keyLocations, boolean dayOnly) {
+        int level = location / 4;
+
+        // check N1 node accessibility
+        if (inventory.has(Items.TORCH) || (inventory.has(Items.KEYSTONE_L) && inventory.has(Items.KEYSTONE_R))) {
+            if (worldMap[0] == level) {
+                if (!inventory.has(Items.AXE)) {
+                    return false;
+                }
+            }
+        }
+
+        // if we're restricted to daytime, make sure we can actually enter this level in the daytime
+        if (dayOnly && !isDaytime(level,inventory)) {
+            return false;
+        }
+
+        // if a key has been placed, make sure we can get it
+        if (keyLocations != null && !canAccessKey(keyLocations,location,dayOnly,inventory)) {
+            return false;
+        }
+
+        switch (location) {
+            case Locations.N1S:
+                return canAccessLevel(Locations.N1, inventory);
+            case Locations.N1R:
+                return canAccessLevel(Locations.N1, inventory)
+                        && (canGP(inventory)
+                        || (difficulty > Difficulty.EASY && inventory.has(Items.GARLIC)));
+            case Locations.N1G:
+                return canAccessLevel(Locations.N1, inventory)
+                        && ((dayOnly && difficulty >= Difficulty.HARD && inventory.has(Items.JUMP_BOOTS))
+                        || (inventory.has(Items.WIND) && inventory.has(Items.WIND_BAG)));
+            case Locations.N1B:
+                return canAccessLevel(Locations.N1, inventory)
+    			/*
+    			* Added MERCILESS Logic to this chest. With a throw + dashjump wallclip,
+    			* you can skip the need for both Overalls and Garlic by skipping the boss fight outright.
+    			*/
+                        && inventory.has(Items.POWDER)
+                        && inventory.has(Items.JUMP_BOOTS)
+                        && canLift(inventory)
+                        && (canGP(inventory) && (difficulty > Difficulty.EASY || inventory.has(Items.GARLIC))
+    						|| difficulty >= Difficulty.MERCILESS);
+            case Locations.N2S:
+                return canAccessLevel(Locations.N2, inventory);
+            case Locations.N2R:
+                return canAccessLevel(Locations.N2, inventory)
+                        && (inventory.has(Items.FLUTE)
+                        || inventory.has(Items.JUMP_BOOTS)
+                        || (inventory.has(Items.GARLIC) && canSuperGP(inventory))
+                        || (difficulty >= Difficulty.S_HARD));
+            case Locations.N2G:
+                return canAccessLevel(Locations.N2, inventory)
+                        && canGP(inventory)
+                        && (inventory.has(Items.FLUTE)
+                        || inventory.has(Items.JUMP_BOOTS)
+                        || (inventory.has(Items.GARLIC) && canSuperGP(inventory))
+                        || (difficulty >= Difficulty.S_HARD));
+            case Locations.N2B:
+                return canAccessLevel(Locations.N2, inventory)
+                        && canSuperGP(inventory);
+            case Locations.N3S:
+                return canAccessLevel(Locations.N3, inventory);
+            case Locations.N3R:
+                return canAccessLevel(Locations.N3, inventory)
+                        && canGP(inventory);
+            case Locations.N3G:
+    			/*
+    			* Added MERCILESS logic for this chest.
+    			* 1. Have a Teruteru land on Wario and take it to the area under Mad Scienstein.
+    			* 2. Walk to the left of the Seeing Eye Door to release the Teruteru.
+    			* 3. Align with the proper pixel and do a dashjump wallclip up to near Mad Scienstein. 
+    			*		=> This is the last point where you can make a suspend save before committing to an attempt at this.
+    			* 4. Have the Teruteru land on Wario again.
+    			* 5. Jump repeatedly to reach the top of the level while the Teruteru is still on Wario.
+    			* 6. Walk off the right side and continue holding Left to release the Teruteru and reach the Overhang with the pipe.
+    			*		=> This execution skips the need for any powerups for this chest.
+    			*/
+                return canAccessLevel(Locations.N3, inventory)
+                        && (inventory.has(Items.BEANSTALK_SEEDS)
+                        || (difficulty >= Difficulty.HARD && canLift(inventory) && inventory.has(Items.JUMP_BOOTS))
+    					|| (difficulty >= Difficulty.MERCILESS));
+            case Locations.N3B:
+                return canAccessLevel(Locations.N3, inventory)
+                        && inventory.has(Items.BLUE_CHEMICAL)
+                        && inventory.has(Items.RED_CHEMICAL);
+            case Locations.N4S:
+                return canAccessLevel(Locations.N4, inventory);
+            case Locations.N4R:
+                return canAccessLevel(Locations.N4, inventory)
+                        && inventory.has(Items.GARLIC);
+            case Locations.N4G:
+                return canAccessLevel(Locations.N4, inventory)
+                        && canSuperSwim(inventory);
+            case Locations.N4B:
+    			/*
+    			* Added MINOR GLITCHES logic to this chest.
+    			* Perform a well-timed highjump waterclip to reach the room.
+    			*/
+                return canAccessLevel(Locations.N4, inventory)
+                        && ((difficulty >= Difficulty.S_HARD && canSwim(inventory) && inventory.has(Items.JUMP_BOOTS)) || inventory.has(Items.PUMP))
+                        && (difficulty >= Difficulty.HARD || canLift(inventory));
+            case Locations.N5S:
+                return canAccessLevel(Locations.N5, inventory);
+            case Locations.N5R:
+                return canAccessLevel(Locations.N5, inventory)
+                        && canLift(inventory)
+                        && canSwim(inventory);
+            case Locations.N5G:
+                return canAccessLevel(Locations.N5, inventory)
+                        && (difficulty >= Difficulty.S_HARD || inventory.has(Items.WIRE_WIZARD))
+                        && !dayOnly;
+            case Locations.N5B:
+                return canAccessLevel(Locations.N5, inventory)
+                        && inventory.has(Items.GROWTH_SEED)
+                        && inventory.has(Items.GARLIC)
+                        && canSwim(inventory);
+            case Locations.N6S:
+    			/*
+    			* New logic addition for this chest for MINOR GLITCHES. 
+    			* You can skip the need for Boots using a Walljump when compared to HARD.
+    			*/
+                return canAccessLevel(Locations.N6, inventory)
+                        && inventory.has(Items.GARLIC)
+                        && inventory.has(Items.SPIKED_HELMET)
+                        && ((difficulty >= Difficulty.HARD && inventory.has(Items.JUMP_BOOTS) || difficulty >= Difficulty.S_HARD)
+                            || canSwim(inventory))
+                        && canGP(inventory);
+            case Locations.N6R:
+                return canAccessLevel(Locations.N6, inventory)
+                        && inventory.has(Items.GARLIC)
+                        && inventory.has(Items.PURITY_STAFF)
+                        && (difficulty >= Difficulty.HARD || canSwim(inventory))
+                        && canGP(inventory);
+            case Locations.N6G:
+                return canAccessLevel(Locations.N6, inventory)
+                        && canSuperGP(inventory);
+            case Locations.N6B:
+                return canAccessLevel(Locations.N6, inventory)
+                        && canSuperGP(inventory)
+                        && (difficulty >= Difficulty.HARD
+                            || inventory.has(Items.JUMP_BOOTS))
+                        && inventory.has(Items.NIGHT_VISION_GOGGLES);
+            case Locations.W1S:
+                return canAccessLevel(Locations.W1, inventory) && (dayOnly || inventory.has(Items.GARLIC));
+            case Locations.W1R:
+                return canAccessLevel(Locations.W1, inventory) && (!dayOnly || inventory.has(Items.GARLIC));
+            case Locations.W1G:
+                return canAccessLevel(Locations.W1, inventory)
+                        && inventory.has(Items.SPIKED_HELMET)
+                        && (!dayOnly || inventory.has(Items.GARLIC));
+            case Locations.W1B:
+                return canAccessLevel(Locations.W1, inventory)
+                        && canSuperGP(inventory)
+                        && (canLift(inventory) || (difficulty > Difficulty.EASY && inventory.has(Items.JUMP_BOOTS)))
+                        && (!dayOnly || inventory.has(Items.GARLIC));
+            case Locations.W2S:
+                return canAccessLevel(Locations.W2, inventory);
+            case Locations.W2R:
+                /*
+                 * The MINOR GLITCHES execution added involves performing a big dashjump wallclip from the deactivated Trolley.
+                 * Then do a midair enemy bounce to reach the platforms leading to the Golf.
+                 * Finally, navigate rightwards while avoiding any other hazards on the way to reach the Red Chest.
+                 */
+                return canAccessLevel(Locations.W2, inventory)
+                    && (inventory.has(Items.WHEELS)
+    			        || (difficulty >= Difficulty.S_HARD && canLift(inventory) && inventory.has(Items.JUMP_BOOTS)));
+            case Locations.W2G:
+    			/*
+    			* Added MERCILESS logic to W2G.
+    			* Use Ladder Scrolling. Once screen wrapped, jump on the bottom trolley, and high bounce off the first Firebot.
+    			* This skips the need for a Glove when compared to HARD.
+    			* The MINOR GLITCHES execution added involves performing a big dashjump wallclip from the deactivated Trolley.
+    			* The same enemy bounce from HARD can then be used to reach the Golf that leads to the chest.
+    			*/
+                return canAccessLevel(Locations.W2, inventory)
+                    && ((inventory.has(Items.WHEELS) && inventory.has(Items.FLUTE))
+    			    || (difficulty >= Difficulty.HARD && inventory.has(Items.WHEELS) && inventory.has(Items.JUMP_BOOTS) && canLift(inventory))
+    			    || (difficulty >= Difficulty.S_HARD && inventory.has(Items.JUMP_BOOTS) && canLift(inventory))
+                    || (difficulty >= Difficulty.MERCILESS && inventory.has(Items.WHEELS) && inventory.has(Items.JUMP_BOOTS)));
+            case Locations.W2B:
+                return canAccessLevel(Locations.W2, inventory)
+                        && inventory.has(Items.STONE_FOOT);
+            case Locations.W3S:
+    		/*
+    		* Additional HARD Logic added for this check.
+    		* With Flippers or Beanstalk Seeds, Glove, and Boots, you can access this without Overalls.
+    		* If no Beanstalk Seeds, Swim beyond the first two sets of pipes in the main area,
+    		* then do a midair enemy bounce using the Paragoom.
+    		* If you have Beanstalk Seeds, climb the beanstalk, then immediately fall down.
+    		* Go across the 2nd set of pipes, then do the same midair enemy bounce using the Paragoom.
+    		* Added MINOR GLITCHES logic for this chest as well.
+    		* With a dashjump wallclip, it's possible to reach this chest without needing a Glove when compared to HARD.
+    		*/
+                return canAccessLevel(Locations.W3, inventory)
+                    && (canGP(inventory)
+    			|| (difficulty >= Difficulty.HARD
+    				&& (canSwim(inventory) || inventory.has(Items.BEANSTALK_SEEDS))
+    				&& inventory.has(Items.JUMP_BOOTS)
+                            	&& (difficulty >= Difficulty.S_HARD || canLift(inventory))));
+            case Locations.W3R:
+                return canAccessLevel(Locations.W3, inventory)
+                        && inventory.has(Items.BEANSTALK_SEEDS);
+            case Locations.W3G:
+                return canAccessLevel(Locations.W3, inventory)
+                        && canSwim(inventory);
+            case Locations.W3B:
+    			/*
+    			* Added MERCILESS logic to this chest.
+    			* From Main Area - Top Center, use a Throw + Dashjump wallclip to reach the top of the area on the left side. 
+    			* Next, do a charge to the right and jump. You should screen scroll down and land on the 4th pipe. 
+    			* Do a High Jump from the 4th pipe over to the 6th pipe, then do another High Jump from the 6th pipe to the 5th pipe. 
+    			* If done right, walk off the left side of the 5th pipe, then Press Up. 
+    			* If you are placed at the door that is underwater, press up again to enter this region, which is the Jellyfish Room.
+    			* Note, a Soft Reset is required. Do this soft reset after making a suspend save before the Throw + Dashjump wallclip. 
+    			* This execution skips the need for the Air Pump.
+    			*/
+                return canAccessLevel(Locations.W3, inventory)
+            		&& ((inventory.has(Items.PUMP) && canSwim(inventory))
+    				|| (difficulty >= Difficulty.MERCILESS && canGP(inventory) && canLift(inventory) && inventory.has(Items.JUMP_BOOTS)));
+            case Locations.W4S:
+                return canAccessLevel(Locations.W4, inventory);
+            case Locations.W4R:
+    			/*
+    			* Additional MINOR GLITCHES Logic added for this chest.
+    			* You can access this chest without a Glove or Helmet by using just Boots.
+    			* Jump off 1 Firebot to get up the Ledge that leads to the Zombie Room - Below Third Platform check,
+    			* then do a High Walljump to reach the Zombies section.
+    			*/
+                return canAccessLevel(Locations.W4, inventory)
+                        && (inventory.has(Items.SPIKED_HELMET) 
+    			|| (difficulty > Difficulty.EASY && canLift(inventory) && inventory.has(Items.JUMP_BOOTS))
+    			|| (difficulty >= Difficulty.S_HARD && inventory.has(Items.JUMP_BOOTS)));
+            case Locations.W4G:
+    			/*
+    			* Added MERCILESS Logic for this Chest.
+    			* You can use Ladder Scrolling to skip the need for the Golden Glove and the Boots 
+    			* when compared to MINOR GLITCHES.
+    			*/
+                return canAccessLevel(Locations.W4, inventory)
+                    && (difficulty >= Difficulty.MERCILESS || canSuperLift(inventory))
+                    && (difficulty >= Difficulty.S_HARD || inventory.has(Items.JUMP_BOOTS))
+                    && canSuperGP(inventory);
+            case Locations.W4B:
+                return canAccessLevel(Locations.W4, inventory);
+            case Locations.W5S:
+                return canAccessLevel(Locations.W5, inventory)
+                        && canSwim(inventory);
+            case Locations.W5R:
+                return canAccessLevel(Locations.W5, inventory)
+                        && canSwim(inventory)
+                        && (difficulty > Difficulty.EASY || inventory.has(Items.JUMP_BOOTS));
+            case Locations.W5G:
+                return canAccessLevel(Locations.W5, inventory)
+                        && canSwim(inventory)
+                        && canLift(inventory)
+                        && (difficulty > Difficulty.EASY || inventory.has(Items.JUMP_BOOTS));
+            case Locations.W5B:
+    			// New HARD Logic for W5 Blue Chest: Dismount from the ladder while the Donuteer prepares to throw its Donut to the right.
+    			// Timed properly, you can get up the ledge to eat the donut and break the donut blocks without needing a Glove.
+                return canAccessLevel(Locations.W5, inventory)
+                        && canSwim(inventory)
+                        && (difficulty >= Difficulty.HARD || canLift(inventory))
+                        && (difficulty > Difficulty.EASY || inventory.has(Items.JUMP_BOOTS));
+            case Locations.W6S:
+                return canAccessLevel(Locations.W6, inventory)
+                        && canGP(inventory);
+            case Locations.W6R:
+                return canAccessLevel(Locations.W6, inventory)
+                        && canSuperGP(inventory);
+            case Locations.W6G:
+    			/* 
+    			* Added a check for MERCILESS difficulty for reaching the Green Chest Area (Platforming Challenge) without the Fire Extinguisher.
+    			* This area is reached on MERCILESS difficulty via Ladder Scrolling after using I-Frames to pass the first 2 fires.
+    			*/ 
+                return canAccessLevel(Locations.W6, inventory)
+                        && (difficulty >= Difficulty.S_HARD || inventory.has(Items.JUMP_BOOTS))
+                        && (difficulty >= Difficulty.MERCILESS || inventory.has(Items.FIRE_EXTINGUISHER));
+            case Locations.W6B:
+    			/*
+    			* Added a check for MERCILESS difficulty for reaching the Blue Chest without the Rust Spray.
+    			* Perform the MINOR GLITCHES execution for reaching Main Area - Excavate Right.
+    			* Afterwards, do a single tile High Walljump to reach the area.
+    			*/
+                return canAccessLevel(Locations.W6, inventory)
+                        && (inventory.has(Items.RUST_SPRAY)
+    						|| (difficulty >= Difficulty.MERCILESS && inventory.has(Items.SPIKED_HELMET) && inventory.has(Items.JUMP_BOOTS)));
+            case Locations.S1S:
+                return canAccessLevel(Locations.S1, inventory)
+                        && canGP(inventory);
+            case Locations.S1R:
+                return canAccessLevel(Locations.S1, inventory)
+                        && inventory.has(Items.BEANSTALK_SEEDS)
+                        && canGP(inventory);
+            case Locations.S1G:
+                return canAccessLevel(Locations.S1, inventory)
+                        && canSwim(inventory)
+                        && (inventory.has(Items.FLUTE) || inventory.has(Items.JUMP_BOOTS) || difficulty >= Difficulty.S_HARD);
+            case Locations.S1B:
+                return canAccessLevel(Locations.S1, inventory)
+                        && (difficulty >= Difficulty.S_HARD || inventory.has(Items.JUMP_BOOTS));
+            case Locations.S2S:
+                return canAccessLevel(Locations.S2, inventory);
+            case Locations.S2R:
+                return canAccessLevel(Locations.S2, inventory)
+                        && canSwim(inventory)
+                        && canGP(inventory);
+            case Locations.S2G:
+                return canAccessLevel(Locations.S2, inventory)
+                        && canLift(inventory);
+            case Locations.S2B:
+                return canAccessLevel(Locations.S2, inventory)
+                        && inventory.has(Items.PURITY_STAFF)
+                        && (difficulty >= Difficulty.S_HARD ||
+                        (inventory.has(Items.GARLIC) && inventory.has(Items.SPIKED_HELMET)))
+                        && canSwim(inventory);
+            case Locations.S3S:
+                return canAccessLevel(Locations.S3, inventory);
+            case Locations.S3R:
+                return canAccessLevel(Locations.S3, inventory)
+                        && inventory.has(Items.BLUE_EYE_L)
+                        && inventory.has(Items.BLUE_EYE_R);
+            case Locations.S3G:
+                return canAccessLevel(Locations.S3, inventory)
+                        && inventory.has(Items.WIRE_WIZARD);
+            case Locations.S3B:
+                return canAccessLevel(Locations.S3, inventory)
+                        && inventory.has(Items.WIRE_WIZARD)
+                        && inventory.has(Items.GOLD_EYE_L)
+                        && inventory.has(Items.GOLD_EYE_R)
+                        && inventory.has(Items.SPIKED_HELMET)
+                        && inventory.has(Items.GARLIC)
+                        && (difficulty >= Difficulty.S_HARD || inventory.has(Items.JUMP_BOOTS))
+                        && canSuperLift(inventory);
+            case Locations.S4S:
+                return canAccessLevel(Locations.S4, inventory);
+            case Locations.S4R:
+                return canAccessLevel(Locations.S4, inventory)
+                        && inventory.has(Items.STONE_FOOT);
+            case Locations.S4G:
+    		/*
+    		* Added MINOR GLITCHES logic for reaching the Green Chest.
+    		* Perform Dashjump wallclips to get through the Green Chest Room without lifting up the Togēbas.
+    		*/
+                return canAccessLevel(Locations.S4, inventory)
+                    && inventory.has(Items.STONE_FOOT) && canSuperSwim(inventory)
+                    && (canSuperGP(inventory) || (difficulty >= Difficulty.S_HARD && inventory.has(Items.JUMP_BOOTS)));
+            case Locations.S4B:
+                return canAccessLevel(Locations.S4, inventory)
+                        && inventory.has(Items.RUST_SPRAY)
+                        && canGP(inventory);
+            case Locations.S5S:
+                return canAccessLevel(Locations.S5, inventory);
+            case Locations.S5R:
+                return canAccessLevel(Locations.S5, inventory)
+                        && inventory.has(Items.JUMP_BOOTS)
+                        && canLift(inventory)
+                        && (difficulty >= Difficulty.HARD || canSuperGP(inventory));
+            case Locations.S5G:
+                return canAccessLevel(Locations.S5, inventory)
+                        && inventory.has(Items.DETONATOR);
+            case Locations.S5B:
+    		/*
+    		* Added MINOR GLITCHES logic for reaching the Blue Chest.
+    		* Do a regular high enemy bounce after entering the room.
+    		* Next, charge towards the platform that contains the Throw Blocks.
+    		* Then, charge to the left to reach the next high bounce platform.
+    		* Finally, do a High Walljump to pass through the final high bounce platform.
+    		* One last regular Highjump will then reach Blue Chest Room - Upper Left.
+    		* To reach the Blue Chest from there, perform a high walljump from the upper left Spearbot platform.
+    		*/
+                return canAccessLevel(Locations.S5, inventory)
+                        && inventory.has(Items.RUST_SPRAY)
+                        && inventory.has(Items.JUMP_BOOTS)
+                        && canGP(inventory)
+                        && (difficulty >= Difficulty.S_HARD || canLift(inventory));
+            case Locations.S6S:
+                return canAccessLevel(Locations.S6, inventory);
+            case Locations.S6R:
+                return canAccessLevel(Locations.S6, inventory)
+    			/*
+    			* Downgraded S6R logic without a Glove from MINOR GLITCHES to NORMAL.
+    			* You just need to break the block, exit the room, then use the other entrance to reach the chest without needing a High Walljump.
+    			*/
+                        && inventory.has(Items.JUMP_BOOTS)
+                        && ((difficulty > Difficulty.EASY && inventory.has(Items.SPIKED_HELMET)) || canLift(inventory))
+                        && (difficulty >= Difficulty.HARD || inventory.has(Items.SPIKED_HELMET));
+            case Locations.S6G:
+                return canAccessLevel(Locations.S6, inventory)
+                        && inventory.has(Items.SCISSORS)
+                        && inventory.has(Items.JUMP_BOOTS);
+            case Locations.S6B:
+    			/*
+    			* Added a check for MERCILESS difficulty on this chest.
+    			* Wrong Warp from the bottom outside area to enter the Blue Chest Room.
+    			* Note, a soft reset is required for this to work, and this wrong warp only works during the day.
+    			* The soft reset can occur either immediately before entering the stage or after a suspend save.
+    			*/
+                return canAccessLevel(Locations.S6, inventory)
+    		        && inventory.has(Items.JUMP_BOOTS)
+                    && ((inventory.has(Items.GONG) && inventory.has(Items.SCISSORS) && canSuperGP(inventory) && canLift(inventory))
+    			        || (dayOnly && difficulty >= Difficulty.MERCILESS));
+            case Locations.E1S:
+                return canAccessLevel(Locations.E1, inventory);
+            case Locations.E1R:
+                return canAccessLevel(Locations.E1, inventory)
+    				/*
+    				* HARD logic added to the E1 Red Chest. It can be obtained without the Super Flippers with just regular Flippers.
+    				* Pedal upwards repeatedly while in the water and time jumps in a rhythm. 
+    				* A bit of headway will be gained each time rhythm is kept, and this will also skip the boss fight.
+    				*/
+                        && inventory.has(Items.STONE_FOOT)
+                        && (canGP(inventory) 
+    				        || (inventory.has(Items.JUMP_BOOTS) && (canSuperSwim(inventory) || (difficulty >= Difficulty.HARD && canSwim(inventory)))));
+            case Locations.E1G:
+    		// Added MINOR GLITCHES execution for this chest. Perform a walljump to reach the pipe that leads to Jamano.
+                return canAccessLevel(Locations.E1, inventory)
+                        && inventory.has(Items.STONE_FOOT)
+    			&& (inventory.has(Items.JUMP_BOOTS) || difficulty >= Difficulty.S_HARD);
+            case Locations.E1B:
+    			/*
+    			* Added MERCILESS logic for this chest. 
+    			* Have a Spearhead get clipped into the wall opposite the spike near the Blue Chest.
+    			* Once it gets unstunned, hit it such that it doesn't clip out of the wall.
+    			* Lift the other Spearhead and then do a Midair Enemy Bounce into the Spearhead that is clipped while it's facing right.
+    			* This will damage boost you and allow you to get enough height to reach the Blue Chest.
+    			*/
+                return canAccessLevel(Locations.E1, inventory)
+                    && (inventory.has(Items.DETONATOR)
+    			        || (difficulty >= Difficulty.MERCILESS && canLift(inventory) && inventory.has(Items.JUMP_BOOTS) && inventory.has(Items.SPIKED_HELMET)));
+            case Locations.E2S:
+                return canAccessLevel(Locations.E2, inventory);
+            case Locations.E2R:
+                return canAccessLevel(Locations.E2, inventory)
+                        && canLift(inventory);
+            case Locations.E2G:
+                return canAccessLevel(Locations.E2, inventory)
+                        && inventory.has(Items.PURITY_STAFF)
+                        && canSwim(inventory);
+            case Locations.E2B:
+    			/*
+    				* Added MERCILESS logic to this chest.
+    				* Use Water Scrolling to screen wrap upwards, then use the terrain to collect Main Area - Above Rock. 
+    				* Next, get hit by the Polar Bear closest to the rock and have it send you to the right. 
+    				* Go just left to the wall you hit without crouching. 
+    				* Then, do a suspend save to set your position to the bottom of the pool. 
+    				* Charge and immediately crouch to get past the crouch space. Make sure you're holding neutral when the crouch charge ends.
+    				* Finally, jump up to get past the current and climb the ladder to reach this area without dayTime or Super Flippers.
+    			*/
+                return canAccessLevel(Locations.E2, inventory)
+                    && (dayOnly || canSuperSwim(inventory)
+    			        || (difficulty >= Difficulty.MERCILESS && canSwim(inventory) && inventory.has(Items.GARLIC)));
+            case Locations.E3S:
+                return canAccessLevel(Locations.E3, inventory)
+                        && (difficulty >= Difficulty.S_HARD || canGP(inventory));
+            case Locations.E3R:
+                return canAccessLevel(Locations.E3, inventory)
+                        && canLift(inventory);
+            case Locations.E3G:
+                return canAccessLevel(Locations.E3, inventory)
+                        && (difficulty >= Difficulty.S_HARD || canLift(inventory));
+            case Locations.E3B:
+                return canAccessLevel(Locations.E3, inventory)
+                        && (difficulty >= Difficulty.S_HARD || canLift(inventory));
+            case Locations.E4S:
+                return canAccessLevel(Locations.E4, inventory);
+            case Locations.E4R:
+                return canAccessLevel(Locations.E4, inventory)
+                        && inventory.has(Items.GARLIC);
+            case Locations.E4G:
+                return canAccessLevel(Locations.E4, inventory)
+                        && (difficulty >= Difficulty.S_HARD
+                        || dayOnly
+                        || (inventory.has(Items.JUMP_BOOTS)));
+            case Locations.E4B:
+                return canAccessLevel(Locations.E4, inventory)
+                        && inventory.has(Items.DETONATOR)
+                        && inventory.has(Items.JUMP_BOOTS);
+            case Locations.E5S:
+                return canAccessLevel(Locations.E5, inventory);
+            case Locations.E5R:
+                return canAccessLevel(Locations.E5, inventory)
+                        && inventory.has(Items.WARP_REMOTE);
+            case Locations.E5G:
+    			/* 
+    			* Added MERCILESS Logic for this chest.
+    			* This is reached by doing a single-tile walljump to scale the bottom set of throw blocks after entering the area.
+    			* A Glove check has been added specifically for the Key Cards option since that option strictly requires having a Glove.
+    			*/ 
+                return canAccessLevel(Locations.E5, inventory)
+                    && ((inventory.has(Items.BLUE_KEY_CARD) && inventory.has(Items.RED_KEY_CARD) && canLift(inventory))
+    			        || (inventory.has(Items.WARP_REMOTE) && (difficulty >= Difficulty.MERCILESS || canLift(inventory))));
+            case Locations.E5B:
+            	/*
+    		* Added MERCILESS logic for this chest. 
+    		* You can do a Double Bear Bounce from the starting area to reach this region. 
+    		* This requires the Remote Control to gain access, but skips needing the Blue + Red Keycards.
+    		* The Boots and Golden Glove are both required to perform this execution.
+    		*/ 
+    		return canAccessLevel(Locations.E5, inventory)
+    			&& ((inventory.has(Items.BLUE_KEY_CARD) && inventory.has(Items.RED_KEY_CARD) && canLift(inventory))
+    			    || (difficulty >= Difficulty.MERCILESS && inventory.has(Items.WARP_REMOTE)
+    				    && canSuperGP(inventory) && canSuperLift(inventory) && inventory.has(Items.JUMP_BOOTS)));
+            case Locations.E6S:
+                return canAccessLevel(Locations.E6, inventory)
+                        && (difficulty >= Difficulty.S_HARD || canLift(inventory));
+            case Locations.E6R:
+                // can manip pneumo to get past the fire
+    			// In addition, you can damage boost using the 2nd Paragoom to get through and reach this chest without needing Overalls.
+                return canAccessLevel(Locations.E6, inventory)
+                        && (difficulty >= Difficulty.HARD || inventory.has(Items.FIRE_EXTINGUISHER))
+                        && canLift(inventory)
+                        && (difficulty >= Difficulty.HARD || canGP(inventory));
+            case Locations.E6G:
+                return canAccessLevel(Locations.E6, inventory)
+                        && inventory.has(Items.JACKHAMMER)
+                        && canLift(inventory);
+            case Locations.E6B:
+    			// To reach the Blue Chest without Boots, use a Pneumo to turn Wario allergic in the main area and float upwards into this room.
+                return canAccessLevel(Locations.E6, inventory)
+                        && inventory.has(Items.PICKAXE)
+                        && canLift(inventory)
+    					&& (difficulty > Difficulty.EASY || inventory.has(Items.JUMP_BOOTS));
+            case Locations.E7S:
+                return canAccessLevel(Locations.E7, inventory);
+            case Locations.E7R:
+                return canAccessLevel(Locations.E7, inventory)
+                        && inventory.has(Items.VALVE)
+                        && canSuperLift(inventory);
+            case Locations.E7G:
+                return canAccessLevel(Locations.E7, inventory)
+                        && inventory.has(Items.VALVE)
+                        && canLift(inventory);
+            case Locations.E7B:
+                return canAccessLevel(Locations.E7, inventory)
+                        && inventory.has(Items.DEMON_BLOOD);
+        }
+        return false;
+    }
+
+    /**
+     * Check if Wario can get a given key with his current inventory.
+     *
+     * @param keyLocations  List of levels with their placed keys
+     * @param location      Treasure location id of the key to check (e.g. Locations.E3R)
+     * @param daytime       True if it's daytime
+     * @param inventory     Wario's inventory
+     * @return true if the key can be acquired
+     */
+    private boolean canAccessKey(List<Level> keyLocations, int location, boolean daytime, Inventory inventory) {
+        if (keyLocations == null) {
+            return true;
+        }
+        int lvl = location / 4;
+        int idx = location % 4;
+        Level level = keyLocations.get(lvl);
+        KeyLocation keyLoc = level.getLocation(idx);
+        if (keyLoc == null) {
+            return true;
+        }
+
+        return canAccessKeyLocation(lvl,keyLoc.getRegion(),keyLoc.getSubLocation(),daytime,idx,inventory);
+    }
+
+    /**
+     * Check if Wario can access a potential key location with his current inventory.
+     *
+     * @param level     Level id from Locations (e.g. Locations.E3)
+     * @param region    Which region the location exists in (identified by the number of its top-left sector
+     * @param location  In a region, which sub-location points to the key
+     * @param daytime   True if it's daytime
+     * @param keyColor  0-3, representing the color of the key Wario is looking for
+     * @param inventory Wario's current inventory
+     * @return True if the key location can be reached
+     */
+    private boolean canAccessKeyLocation(int level, int region, int location, boolean daytime, int keyColor, Inventory inventory) {
+        switch (level) {
+            case Locations.N1:
+                if (region == 0x2) {
+                    return inventory.has(Items.POWDER) && inventory.has(Items.JUMP_BOOTS);
+                }
+                else if (region == 0x3) {
+                    if (location == 2) {
+                        return true;
+                    }
+                    else if (location == 0){
+                        return inventory.has(Items.JUMP_BOOTS);
+                    }
+                    else {
+                        return difficulty >= Difficulty.S_HARD
+                                || inventory.has(Items.JUMP_BOOTS);
+                    }
+                }
+                else if (region == 0x6) {
+                    return inventory.has(Items.POWDER) && inventory.has(Items.JUMP_BOOTS);
+                }
+                else if (region == 0x7) {
+                    if (location == 0) {
+                        return canSuperGP(inventory) ||
+                                (difficulty >= Difficulty.HARD &&
+                                        canLift(inventory) &&
+                                        inventory.has(Items.JUMP_BOOTS));
+                    }
+                    else {
+                        return true;
+                    }
+                }
+                else if (region == 0xd) {
+                    return canGP(inventory) ||
+                            (difficulty > Difficulty.EASY && inventory.has(Items.GARLIC));
+                }
+                else if (region == 0x14) {
+    				// Added a check for MINOR GLITCHES to reach Starting Area - Treetops without a Glove, using just Boots.
+    				// Done by either doing a Reverse high walljump after breaking the top set of blocks below, or with a dashjump wallclip.
+                    return (canLift(inventory) && inventory.has(Items.JUMP_BOOTS))
+    					|| (difficulty >= Difficulty.S_HARD && (canLift(inventory) || inventory.has(Items.JUMP_BOOTS)));
+                }
+                else if (region == 0x17) {
+                    return canSwim(inventory);
+                }
+                break;
+            case Locations.N2:
+                if (region == 0x1) {
+                    if (location == 2) {
+    					// Main Area - Excavate Lower Right is obtainable without the Helmet or Red Overalls.
+    					// This is done by ladder scrolling at the ladder closest to the snake pot and navigating the terrain.
+    					// A walljump is also required if you don't have Boots, but this won't check for Boots as MINOR GLITCHES is lower than MERCILESS on the difficulty scale.
+                        return (canSuperGP(inventory) && inventory.has(Items.SPIKED_HELMET)) || difficulty >= Difficulty.MERCILESS;
+                    }
+                    else if (location == 0) {
+    					// Main Area - Behind Wall Right of Start is obtainable without Garlic.
+    					// This is done by ladder scrolling at the ladder closest to the snake pot and navigating the terrain.
+                        return !daytime || inventory.has(Items.GARLIC) || difficulty >= Difficulty.MERCILESS;
+                    }
+                    else {
+                        return true;
+                    }
+                }
+                else if (region == 0x5) {
+                    return true;
+                }
+                else if (region == 0x6) {
+                    if (location == 0) {
+                        return difficulty >= Difficulty.S_HARD
+                                || inventory.has(Items.JUMP_BOOTS)
+                                || inventory.has(Items.FLUTE);
+                    }
+                    else {
+                        return difficulty > Difficulty.EASY
+                                || inventory.has(Items.JUMP_BOOTS)
+                                || inventory.has(Items.FLUTE)
+                                || canSuperGP(inventory);
+                    }
+                }
+                else if (region == 0x8) {
+                    return canSuperGP(inventory) && inventory.has(Items.GARLIC);
+                }
+                else if (region == 0x14) {
+                    return canSuperGP(inventory);
+                }
+                else if (region == 0x1c) {
+                    if (location == 0) {
+                        return canGP(inventory)
+                                && ((!daytime && (difficulty >= Difficulty.S_HARD || inventory.has(Items.JUMP_BOOTS) || inventory.has(Items.FLUTE)))
+                                    || (canSuperGP(inventory) && inventory.has(Items.GARLIC)));
+                    }
+                    else {
+                        return ((!daytime && (difficulty >= Difficulty.S_HARD || inventory.has(Items.JUMP_BOOTS) || inventory.has(Items.FLUTE)))
+                                || (canSuperGP(inventory) && inventory.has(Items.GARLIC)));
+                    }
+                }
+                break;
+            case Locations.N3:
+                if (region == 0x1) {
+                    if (location == 0) {
+                        return inventory.has(Items.BEANSTALK_SEEDS);
+                    }
+                    else if (location == 2) {
+                        return difficulty >= Difficulty.HARD || (inventory.has(Items.BLUE_CHEMICAL) && inventory.has(Items.RED_CHEMICAL));
+                    }
+                    else {
+                        return true;
+                    }
+                }
+                else if (region == 0x6) {
+                    if (location == 0) {
+                        // this location doesn't spawn until the seeds are planted
+                        return inventory.has(Items.BEANSTALK_SEEDS);
+                    }
+                    else {
+    					/*
+    					* Added MERCILESS logic for this check.
+    					* 1. Have a Teruteru land on Wario and take it to the area under Mad Scienstein.
+    					* 2. Walk to the left of the Seeing Eye Door to release the Teruteru.
+    					* 3. Align with the proper pixel and do a dashjump wallclip up to near Mad Scienstein. 
+    					*		=> This is the last point where you can make a suspend save before committing to an attempt at this.
+    					* 4. Have the Teruteru land on Wario again.
+    					* 5. Jump repeatedly to reach the top of the level while the Teruteru is still on Wario.
+    					* 6. Walk off the right side and continue holding Left to release the Teruteru and reach the Overhang with the pipe.
+    					*		=> This execution skips the need for any powerups for this check.
+    					*/
+                        return inventory.has(Items.BEANSTALK_SEEDS)
+                            || ((difficulty >= Difficulty.HARD && canLift(inventory) && inventory.has(Items.JUMP_BOOTS))
+    						|| (difficulty >= Difficulty.MERCILESS));
+                    }
+                }
+                else if (region == 0x14) {
+    				/*
+    				* Added MERCILESS logic for this check.
+    				* 1. Have a Teruteru land on Wario and take it to the area under Mad Scienstein.
+    				* 2. Walk to the left of the Seeing Eye Door to release the Teruteru.
+    				* 3. Align with the proper pixel and do a dashjump wallclip up to near Mad Scienstein. 
+    				*		=> This is the last point where you can make a suspend save before committing to an attempt at this.
+    				* 4. Have the Teruteru land on Wario again.
+    				* 5. Jump repeatedly to reach the top of the level while the Teruteru is still on Wario.
+    				* 6. Walk off the right side and continue holding Left to release the Teruteru and reach the Overhang with the pipe.
+    				*		=> This execution skips the need for any powerups for this check.
+    				*/
+                    return inventory.has(Items.BEANSTALK_SEEDS)
+                            || ((difficulty >= Difficulty.HARD && canLift(inventory) && inventory.has(Items.JUMP_BOOTS))
+    						|| (difficulty >= Difficulty.MERCILESS));
+                }
+                else if (region == 0x16) {
+                    return canGP(inventory);
+                }
+                else if (region == 0x19) {
+                    return canSwim(inventory);
+                }
+                else if (region == 0x1a) {
+                    return inventory.has(Items.BLUE_CHEMICAL) && inventory.has(Items.RED_CHEMICAL);
+                }
+                break;
+            case Locations.N4:
+                if (region == 0x1) {
+                    if (location == 0) {
+                        return canSwim(inventory)
+                                || (difficulty >= Difficulty.HARD && canLift(inventory) && inventory.has(Items.JUMP_BOOTS));
+                    }
+                    else {
+    					// Added MERCILESS LOGIC to Main Area - Right. Do Single tile walljumps to do the backtracking without Flippers or Boots.
+                        return canSwim(inventory) || inventory.has(Items.JUMP_BOOTS) || difficulty >= Difficulty.MERCILESS;
+                    }
+                }
+                else if (region == 0xa) {
+                    return canSuperSwim(inventory);
+                }
+                else if (region == 0x12) {
+    		/*
+    		* Added NORMAL and MINOR GLITCHES logic to the Torch Room - Above Rock Check.
+    		* NORMAL: Do a charge and then a well timed jump from the middle platform at the bottom to reach this.
+    		* MINOR GLITCHES: Do a well timed highjump waterclip to reach the Bat room without the Air Pump.
+    		* This can be reached by extension as long as you have access to the Bat Room.
+    		*/
+                    return ((difficulty >= Difficulty.S_HARD && canSwim(inventory) && inventory.has(Items.JUMP_BOOTS)) || inventory.has(Items.PUMP)) 
+    			&& (difficulty > Difficulty.EASY || inventory.has(Items.JUMP_BOOTS));
+                }
+                else if (region == 0x15) {
+    				// New MINOR GLITCHES Logic for Inside 2nd Hill.
+    				// You can skip needing Boots if you have Red Overalls by breaking the blocks in a specific way, and then doing a walljump after obtaining this check.
+    				// If this check contains the Grey or Blue Keys, you need to break the blocks of the 1st Hill in the same manner to prevent a single-tile walljump.
+                    return inventory.has(Items.GARLIC) && canLift(inventory)
+                            && (canSwim(inventory) 
+    							|| ((difficulty >= Difficulty.HARD && inventory.has(Items.JUMP_BOOTS)) 
+    							|| (difficulty >= Difficulty.S_HARD && canSuperGP(inventory))));
+                }
+                else if (region == 0x16) {
+    				// New MERCILESS Logic for Inside 4th Hill.
+    				// You can skip needing Boots if you have Red Overalls by breaking the blocks in a specific way, and then doing a reverse walljump after obtaining this check.
+    				// The required single-tile walljump takes place at the 3rd hill, which is why this trick is Merciless without Boots.
+                    return inventory.has(Items.GARLIC) 
+    						&& (canSwim(inventory) || ((difficulty >= Difficulty.S_HARD && (inventory.has(Items.JUMP_BOOTS))) || (difficulty >= Difficulty.MERCILESS && canSuperGP(inventory))));
+                }
+                else if (region == 0x17) {
+    		/*
+    		* Added MINOR GLITCHES logic to the Bat Room region.
+    		* Do a well timed highjump waterclip from the starting area to reach this region without the Air Pump.
+    		* This requires Flippers and Boots to be able to execute.
+    		*/
+                    return (difficulty >= Difficulty.S_HARD && canSwim(inventory) && inventory.has(Items.JUMP_BOOTS)) || inventory.has(Items.PUMP);
+                }
+                else if (region == 0x1d) {
+    		/*
+    		* Added MINOR GLITCHES logic to the Inside Third Hill check.
+    		* The Glove can be skipped by using a High Walljump, when compared to the HARD Logic execution.
+    		*/
+                    return canSwim(inventory) 
+    			        || (difficulty >= Difficulty.HARD && inventory.has(Items.JUMP_BOOTS)
+    				        && (difficulty >= Difficulty.S_HARD || canLift(inventory)));
+                }
+                break;
+            case Locations.N5:
+                if (region == 0x1) {
+                    if (location == 1) {
+    		/*
+    		* Added MERCILESS logic to this check. Use Water Scrolling to screen wrap upwards.
+    		* You can then go across the top to reach this check without Garlic.
+    		* This only works at night since the water level is higher at night.
+    		*/
+                        return (inventory.has(Items.GARLIC)
+    						|| (difficulty >= Difficulty.MERCILESS && !daytime && canSwim(inventory)));
+                    }
+                    else if (location == 3) {
+                        if (daytime) {
+                            return canSwim(inventory) || inventory.has(Items.JUMP_BOOTS);
+                        }
+                        else {
+                            return canSwim(inventory);
+                        }
+                    }
+                    else {
+                        return true;
+                    }
+                }
+                else if (region == 0x6) {
+                    return canSwim(inventory) && inventory.has(Items.GARLIC) && inventory.has(Items.GROWTH_SEED);
+                }
+                else if (region == 0x9) {
+                    if (location == 0) {
+                        return canLift(inventory) && canSwim(inventory)
+                                && (canSuperSwim(inventory)
+                                || inventory.has(Items.SPIKED_HELMET)
+                                || difficulty >= Difficulty.HARD);
+                    }
+                    else {
+                        return canLift(inventory) && canSwim(inventory)
+                                && (canSuperSwim(inventory) || inventory.has(Items.SPIKED_HELMET));
+                    }
+                }
+                else if (region == 0xa) {
+                    return canLift(inventory) && canSwim(inventory);
+                }
+                else if (region == 0x1b) {
+                    return inventory.has(Items.GARLIC);
+                }
+                break;
+            case Locations.N6:
+                if (region == 0x1) {
+                    if (location == 0) {
+                        return inventory.has(Items.GARLIC) && canGP(inventory)
+                                && (canSwim(inventory) || (difficulty > Difficulty.EASY && inventory.has(Items.JUMP_BOOTS)));
+                    }
+                    else if (location == 1) {
+                        return inventory.has(Items.GARLIC) && inventory.has(Items.SPIKED_HELMET) && canGP(inventory);
+                    }
+                    else if (location == 2) {
+                        return inventory.has(Items.GARLIC)
+                                && inventory.has(Items.SPIKED_HELMET)
+                                && canGP(inventory)
+                                && (canSwim(inventory) || (difficulty > Difficulty.HARD && inventory.has(Items.JUMP_BOOTS)));
+                    }
+                    else if (location == 3) {
+                        return inventory.has(Items.GARLIC) && inventory.has(Items.SPIKED_HELMET) && canGP(inventory)
+                                && (canSwim(inventory) || inventory.has(Items.JUMP_BOOTS));
+                    }
+                    else {
+                        return inventory.has(Items.GARLIC) && inventory.has(Items.SPIKED_HELMET) && canGP(inventory) && canSwim(inventory);
+                    }
+                }
+                else if (region == 0x5) {
+    		/*
+    		* New addition for this check for MINOR GLITCHES. 
+    		* You can skip the need for Boots using a Walljump when compared to HARD.
+    		* This is for the Boss Room - Above Silver Chest check.
+    		*/
+                    return inventory.has(Items.GARLIC) && inventory.has(Items.SPIKED_HELMET) && canGP(inventory)
+                            && (canSwim(inventory) 
+    				|| (difficulty >= Difficulty.HARD
+                                    && (inventory.has(Items.JUMP_BOOTS) || difficulty >= Difficulty.S_HARD)));
+                }
+                else if (region == 0x6) {
+                    return canSuperGP(inventory) && inventory.has(Items.NIGHT_VISION_GOGGLES)
+                            && (difficulty >= Difficulty.HARD || inventory.has(Items.JUMP_BOOTS));
+                }
+                else if (region == 0x14) {
+                    return canSuperGP(inventory);
+                }
+                else if (region == 0x19) {
+                    return canSuperGP(inventory) && inventory.has(Items.GARLIC);
+                }
+                else if (region == 0x1c) {
+                    return inventory.has(Items.GARLIC) && canGP(inventory) && inventory.has(Items.PURITY_STAFF)
+                            && (canSwim(inventory) || (difficulty >= Difficulty.HARD && keyColor == 1));
+                }
+                break;
+            case Locations.W1:
+                if (region == 0x1) {
+                    if (location == 0) {
+    					// New MERCILESS Logic for Main Area - By Underground Ladder.
+    					// This can be obtained during the day by Ladder Scrolling at the start to screen wrap downwards.
+                        return (!daytime || (daytime && difficulty >= Difficulty.MERCILESS)) || (inventory.has(Items.GARLIC) && canSuperGP(inventory));
+                    }
+                    else {
+                        if (daytime) {
+    						// New MERCILESS Logic for Main Area - Above Underground Quicksand Pool.
+    						// This can be obtained during the day by Ladder Scrolling at the start to screen wrap downwards.
+    						// It can be reached at night without any powerups in the same manner as well.
+                            return (inventory.has(Items.GARLIC) && canSuperGP(inventory)) || difficulty >= Difficulty.MERCILESS;
+                        }
+                        else {
+                            return inventory.has(Items.GARLIC) || canGP(inventory) || difficulty >= Difficulty.MERCILESS;
+                        }
+                    }
+                }
+                else if (region == 0x5) {
+                    return canSuperGP(inventory)
+                            && ((difficulty > Difficulty.EASY && inventory.has(Items.JUMP_BOOTS))
+                                || canLift(inventory))
+                            && (!daytime || inventory.has(Items.GARLIC));
+                }
+                else if (region == 0x6) {
+                    if (location == 0) {
+                        return inventory.has(Items.GARLIC)
+                                || (!daytime && inventory.has(Items.SPIKED_HELMET) && canGP(inventory));
+                    }
+                    else {
+                        return canSuperGP(inventory) && canLift(inventory) && (!daytime || inventory.has(Items.GARLIC));
+                    }
+                }
+                else if (region == 0x8) {
+                    if (!daytime && !inventory.has(Items.GARLIC)) {
+                        return false;
+                    }
+                    else if (location == 0) {
+                        return ((difficulty >= Difficulty.S_HARD && canGP(inventory)) || inventory.has(Items.SPIKED_HELMET)) && canLift(inventory);
+                    }
+                    else if (location == 2) {
+    					// Day Ruins Basement can be obtainable in MERCILESS without Overalls by Ladder Scrolling.
+                        return canGP(inventory) || difficulty >= Difficulty.MERCILESS;
+                    }
+                    else {
+                        return true;
+                    }
+                }
+                else if (region == 0xa) {
+                    return true;
+                }
+                else if (region == 0x14) {
+                    return true;
+                }
+                else if (region == 0x18) {
+                    return canSuperGP(inventory)
+                            && (canLift(inventory)
+                                || (difficulty > Difficulty.EASY && inventory.has(Items.JUMP_BOOTS)))
+                            && (!daytime || inventory.has(Items.GARLIC));
+                }
+                break;
+            case Locations.W2:
+                if (region == 0x1) {
+    				if (location == 0) {
+    					/*
+    					* The MINOR GLITCHES execution for Sky - Near Snake Pot involves performing a big dashjump wallclip from the deactivated Trolley.
+    					* Then do a midair enemy bounce to reach the platforms leading to the Golf.
+    					* Finally, navigate rightwards and reach the check as normal.
+    					*/
+    					return inventory.has(Items.WHEELS)
+    						|| (difficulty >= Difficulty.S_HARD && inventory.has(Items.JUMP_BOOTS) && canLift(inventory));
+    				}
+    				else if (location == 2) {
+    					/*
+    					* For Sky - Below Center Ledge, perform a big dashjump wallclip from the deactivated trolley to reach 
+    					* the platform containing the first Firebot. From there, navigate rightwards
+    					* to the lower ledge and perform a precise dashjump to reach this check.
+    					*/
+    					return inventory.has(Items.WHEELS)
+    						|| (difficulty >= Difficulty.S_HARD && inventory.has(Items.JUMP_BOOTS));
+    				}
+                    else if (location == 1 && difficulty > Difficulty.EASY) {
+                        return true;
+                    }
+                    else {
+                        return inventory.has(Items.WHEELS);
+                    }
+                }
+                else if (region == 0x5) {
+                    return true;
+                }
+                else if (region == 0x7) {
+                    return canGP(inventory);
+                }
+                else if (region == 0x8) {
+                    return inventory.has(Items.STONE_FOOT) && canSwim(inventory)
+                            && (inventory.has(Items.SPIKED_HELMET) || canSuperSwim(inventory));
+                }
+                else if (region == 0x9) {
+                    return inventory.has(Items.STONE_FOOT) && canSwim(inventory);
+                }
+                else if (region == 0xa) {
+    		/*
+    		* The MINOR GLITCHES for the Flooded Vampire Room checks involves performing a big dashjump wallclip from the deactivated Trolley.
+    		* Then do a midair enemy bounce to reach the platforms leading to the Golf.
+    		* Finally, navigate rightwards and reach the check as normal.
+    		*/
+                    if (location == 0) {
+                        return inventory.has(Items.WHEELS)
+    			|| (difficulty >= Difficulty.S_HARD && inventory.has(Items.JUMP_BOOTS) && canLift(inventory));
+                    }
+                    else {
+                        return canSwim(inventory) 
+    			&& (inventory.has(Items.WHEELS) 
+    				|| (difficulty >= Difficulty.S_HARD && inventory.has(Items.JUMP_BOOTS) && canLift(inventory)));
+                    }
+                }
+                else if (region == 0x14) {
+                    return true;
+                }
+                break;
+            case Locations.W3:
+                if (region == 0x1) {
+                    if (location == 0) {
+                        return inventory.has(Items.BEANSTALK_SEEDS)
+                                || (difficulty >= Difficulty.HARD && canGP(inventory) && canLift(inventory) && inventory.has(Items.JUMP_BOOTS));
+                    }
+                    else if (location == 1) {
+    			/*
+    			* Additional HARD Logic added for this check, which is Main Area - Top Center.
+    			* With Flippers or Beanstalk Seeds, Glove, and Boots, you can access this without Overalls.
+    			* If no Beanstalk Seeds, Swim beyond the first two sets of pipes in the main area,
+    			* then do a midair enemy bounce using the Paragoom.
+    			* If you have Beanstalk Seeds, climb the beanstalk, then immediately fall down.
+    			* Then go across the 2nd set of pipes and do the same midair enemy bounce using the Paragoom.
+    			*/
+                        return canGP(inventory)
+    			            || (difficulty >= Difficulty.HARD
+    				            && ((canSwim(inventory) || (inventory.has(Items.BEANSTALK_SEEDS)))
+                    		        && canLift(inventory)
+                            	    && inventory.has(Items.JUMP_BOOTS)));
+                    }
+                    else if (location == 2) {
+                        return canSwim(inventory);
+                    }
+                    else if (location == 3) {
+    					// HARD logic for Main Area - Underwater Right: Outswim the current by Holding up+right and 
+    					// pressing the dash button in a specific rhythm. You'll gain a bit of headway each time you keep rhythm.
+    					// The fish will only hit you once at worst if executed right, and you can recover as long as you keep your inputs precise.
+                        return canSuperSwim(inventory)
+    						|| (difficulty >= Difficulty.HARD && canSwim(inventory));
+                    }
+                }
+                else if (region == 0x7) {
+                    if (!canSwim(inventory)) {
+                        return false;
+                    }
+                    else if (location == 1 || location == 2) {
+                        return inventory.has(Items.SPIKED_HELMET);
+                    }
+                    else {
+                        return true;
+                    }
+                }
+                else if (region == 0x14) {
+                    return inventory.has(Items.BEANSTALK_SEEDS);
+                }
+                else if (region == 0x1a) {
+    		/*
+    		* Added MERCILESS logic to this region.
+    		* From Main Area - Top Center, use a Throw + Dashjump wallclip to reach the top of the area on the left side. 
+    		* Next, do a charge to the right and jump. You should screen scroll down and land on the 4th pipe. 
+    		* Do a High Jump from the 4th pipe over to the 6th pipe, then do another High Jump from the 6th pipe to the 5th pipe. 
+    		* If done right, walk off the left side of the 5th pipe, then Press Up. 
+    		* If you are placed at the door that is underwater, press up again to enter this region, which is the Jellyfish Room.
+    		* Note, a Soft Reset is required. Do this soft reset after making a suspend save before the Throw + Dashjump wallclip. 
+    		* This execution skips the need for the Air Pump.
+    		*/
+                    return (inventory.has(Items.PUMP) && canSwim(inventory))
+    			        || (difficulty >= Difficulty.MERCILESS && canGP(inventory) && canLift(inventory) && inventory.has(Items.JUMP_BOOTS)
+    				        && (canSwim(inventory) || keyColor == 3));
+                }
+                break;
+            case Locations.W4:
+                if (region == 0x1) {
+                    return true;
+                }
+                else if (region == 0x5) {
+    		if (location == 1) {
+    		/*
+    		* Added MERCILESS Logic for this region, which is Switch Puzzle Main.
+    		* You can use Ladder Scrolling to skip the need for the Golden Glove and the Boots 
+    		* when compared to MINOR GLITCHES.
+    		*/
+    			return ((difficulty >= Difficulty.MERCILESS || canSuperLift(inventory))
+    				&& (difficulty >= Difficulty.S_HARD || inventory.has(Items.JUMP_BOOTS))
+    				&& canSuperGP(inventory))
+    				/*
+    				* Alternative execution for MINOR GLITCHES, which can be done without Red Overalls.
+    				* Line up with the proper pixel, then do a Reverse High Walljump
+    				* to break the blocks that lead to this check, which is Switch Puzzle Main - Lower Left.
+    				*/
+    					|| (difficulty >= Difficulty.S_HARD 
+    						&& inventory.has(Items.JUMP_BOOTS) 
+    						&& inventory.has(Items.SPIKED_HELMET)
+    						&& (difficulty >= Difficulty.MERCILESS || canSuperLift(inventory)));
+    		}
+                    return (difficulty >= Difficulty.MERCILESS || canSuperLift(inventory))
+    						&& (difficulty >= Difficulty.S_HARD || inventory.has(Items.JUMP_BOOTS))
+    						&& canSuperGP(inventory);
+                }
+                else if (region == 0x7) {
+                    return canLift(inventory) && inventory.has(Items.PROPELLOR);
+                }
+                else if (region == 0x9) {
+                    if (location == 0) {
+                        return true;
+                    }
+                    else {
+    				/*
+    				* This was not originally checking for Boots, which is required for HARD logic. I fixed this issue.
+    				* I also added a MINOR GLITCHES alternative for this check. 
+    				* Break a small alcove in the right wall 1 block up, and leave the bottom left block able to be jumped on. 
+    				* Then use a high walljump to escape out of the pit. 
+    				* This MINOR GLITCHES alternative Skips needing the Helmet and Glove when compared to HARD Logic.
+    				* Additional HARD Logic to skip needing Red Overalls involves going down the ladder and breaking the edge blocks from below.
+    				*/
+                        return (canSuperGP(inventory)
+    						&& (inventory.has(Items.SPIKED_HELMET)
+    							|| (difficulty >= Difficulty.HARD && canLift(inventory) && inventory.has(Items.JUMP_BOOTS))
+    								|| (difficulty >= Difficulty.S_HARD && inventory.has(Items.JUMP_BOOTS))))
+    						|| (difficulty >= Difficulty.HARD && canGP(inventory) && inventory.has(Items.SPIKED_HELMET));
+                    }
+                }
+                else if (region == 0x16) {
+    			/*
+    			* Added MERCILESS logic for this check, which is Switch Puzzle Side Room 1 - Upper Right.
+    			* If you use Ladder Scrolling to reach the region, only a regular glove is needed to get this check.
+    			*/
+                    return canSuperLift(inventory)
+    					|| (difficulty >= Difficulty.MERCILESS && canLift(inventory));
+                }
+                else if (region == 0x17) {
+                    if (location == 0) {
+                        return canLift(inventory);
+                    }
+                    else {
+                        return true;
+                    }
+                }
+                else if (region == 0x19) {
+    			/*
+    			* Added MINOR GLITCHES logic for this check, which is Zombie Room - Below Third Platform.
+    			* With a Reverse Walljump, it's possible to obtain this check without either the Helmet or Boots.
+    			*/
+                    return inventory.has(Items.SPIKED_HELMET) || inventory.has(Items.JUMP_BOOTS)
+    			        || difficulty >= Difficulty.S_HARD;
+                }
+                else if (region == 0x1c) {
+    			/*
+    			* Added MERCILESS logic for this check, which is Switch Puzzle Side Room 2 - Upper Right.
+    			* If you use Ladder Scrolling to reach the region, only the Red Overalls are needed to get this check.
+    			*/
+                    return canSuperGP(inventory)
+    			&& (canSuperLift(inventory) || difficulty >= Difficulty.MERCILESS);
+                }
+                break;
+            case Locations.W5:
+                if (region == 0xc) {
+                    if (location == 0) {
+                        return inventory.has(Items.JUMP_BOOTS);
+                    }
+                    else {
+                        return inventory.has(Items.JUMP_BOOTS) && canLift(inventory);
+                    }
+                }
+                else if (!canSwim(inventory)) {
+                    return false;
+                }
+                else if (region == 0x1) {
+                    if (location == 0) {
+                        return inventory.has(Items.GROWTH_SEED) && canSuperSwim(inventory);
+                    }
+                    else {
+                        return inventory.has(Items.GROWTH_SEED);
+                    }
+                }
+                else if (region == 0x4) {
+                    return difficulty > Difficulty.EASY;
+                }
+                else if (region == 0xa) {
+                    return canSuperSwim(inventory);
+                }
+                else if (region == 0x16) {
+                    if (!canSuperSwim(inventory)) {
+                        return false;
+                    }
+                    else if (location == 0) {
+                        return canSuperLift(inventory) && inventory.has(Items.SPIKED_HELMET);
+                    }
+                    else if (location == 2) {
+                        return inventory.has(Items.SPIKED_HELMET);
+                    }
+                    else {
+                        return true;
+                    }
+                }
+                else if (region == 0x18) {
+                    return inventory.has(Items.JUMP_BOOTS) || difficulty >= Difficulty.S_HARD;
+                }
+                else if (region == 0x1B) {
+                    return inventory.has(Items.RED_CHEMICAL) && inventory.has(Items.BLUE_CHEMICAL);
+                }
+                break;
+            case Locations.W6:
+                if (region == 0x1) {
+                    if (location == 1) {
+                        return (difficulty >= Difficulty.S_HARD || inventory.has(Items.RUST_SPRAY))
+                                && canGP(inventory);
+                    }
+                    else {
+                        return true;
+                    }
+                }
+                else if (region == 0x4) {
+    		/* 
+    		* Added a check for MERCILESS difficulty for reaching the Green Chest Area (Platforming Challenge) without the Fire Extinguisher.
+    		* This area is reached on MERCILESS difficulty via Ladder Scrolling after using I-Frames to pass the first 2 fires.
+    		*/ 
+                    if (!inventory.has(Items.FIRE_EXTINGUISHER) && difficulty < Difficulty.MERCILESS) {
+                        return false;
+                    }
+                    if (difficulty < Difficulty.S_HARD) {
+                        return inventory.has(Items.JUMP_BOOTS);
+                    }
+                    else {
+    			if (location == 1) {
+    			// MERCILESS Logic added for Platforming Challenge - Left.
+    			// This is done with walljumps, but there is a single tile walljump required to reach this check.
+    			return (inventory.has(Items.JUMP_BOOTS) || inventory.has(Items.SPIKED_HELMET))
+    				|| difficulty >= Difficulty.MERCILESS;
+    			}
+            	else if (location == 2) {
+    			// MERCILESS Logic added for Platforming Challenge - Right. 
+    			// This is done with walljumps, but there is a single tile walljump along the way to reach this check.
+                            return inventory.has(Items.JUMP_BOOTS) || difficulty >= Difficulty.MERCILESS;
+                        }
+                        else {
+                            return inventory.has(Items.JUMP_BOOTS)
+                                    || inventory.has(Items.SPIKED_HELMET);
+                        }
+                    }
+                }
+                else if (region == 0x8) {
+    		/*
+    		* Added MERCILESS Logic to the checks in the Vent Room.
+    		* Perform the MINOR GLITCHES logic to reach Main Area - Excavate Right.
+    		* Afterwards, do a single tile High Walljump. Requires the Helmet and Boots, skips the need for the Rust Spray.
+    		* If you have the Rust Spray, this is reachable without Boots on MERCILESS Difficulty as well, using a single-tile walljump.
+    		*/
+                    if (location == 2) {
+                        return (inventory.has(Items.RUST_SPRAY) && (difficulty >= Difficulty.MERCILESS || inventory.has(Items.JUMP_BOOTS)))
+    			|| (difficulty >= Difficulty.MERCILESS && inventory.has(Items.JUMP_BOOTS) && inventory.has(Items.SPIKED_HELMET));
+                    }
+                    else {
+    		// The NORMAL logic added for the Throw Block checks is to use Fat Wario to reach the Golf required as opposed to Overalls.
+                        return canLift(inventory)
+    			&& (difficulty > Difficulty.EASY || canGP(inventory))
+    			&& (inventory.has(Items.RUST_SPRAY)
+    				|| (difficulty >= Difficulty.MERCILESS && inventory.has(Items.SPIKED_HELMET) && inventory.has(Items.JUMP_BOOTS)));
+                    }
+                }
+                else if (region == 0xa) {
+                    return canLift(inventory) && canGP(inventory);
+                }
+                else if (region == 0x18) {
+                    return canSuperGP(inventory);
+                }
+                break;
+            case Locations.S1:
+                if (region == 0x1) {
+                    if (location == 0) {
+    			// The MINOR GLITCHES Logic for the Tree Interior Region can also apply to Main Area - Left Tree.
+    	                return inventory.has(Items.JUMP_BOOTS) || inventory.has(Items.FLUTE) || difficulty >= Difficulty.S_HARD;
+                    }
+                    else if (location == 2) {
+                        return inventory.has(Items.BEANSTALK_SEEDS);
+                    }
+                    else {
+                        return true;
+                    }
+                }
+                else if (region == 0x9) {
+    		/*
+    		* Added MINOR GLITCHES Logic for the Tree Interior Region.
+    		* Use a dashjump wallclip to reach the ledge leading to the doors.
+    		*/
+                    return inventory.has(Items.JUMP_BOOTS) || inventory.has(Items.FLUTE) || difficulty >= Difficulty.S_HARD;
+                }
+                else if (region == 0x15) {
+                    return true;
+                }
+                else if (region == 0x17) {
+                    return inventory.has(Items.BEANSTALK_SEEDS);
+                }
+                else if (region == 0x19) {
+                    return difficulty >= Difficulty.S_HARD || inventory.has(Items.JUMP_BOOTS);
+                }
+                else if (region == 0x1a) {
+                    if (location == 0) {
+                        return difficulty >= Difficulty.S_HARD || inventory.has(Items.JUMP_BOOTS);
+                    }
+                    else {
+    		/*
+    		* Additional HARD Logic added for this check.
+    		* Bonk off enemies just as they are becoming unstunned near a block.
+    		* If done right, this will cause the enemy to gain 1 block of height.
+    		* Do this twice with the rightmost Spearhead so that it reaches the area above the Blue Chest. 
+    		* From there, High Jump off of the Spearhead to reach the area as normal.
+    		*/
+                return difficulty > Difficulty.EASY 
+    		&& inventory.has(Items.JUMP_BOOTS) 
+    			&& (canLift(inventory) || (difficulty >= Difficulty.HARD));
+    		// Secret Attic will never be required on Easy. Hard may require you to nudge enemies up to the top
+    		// without a glove
+                    }
+                }
+                break;
+            case Locations.S2:
+                if (region == 0x1) {
+                    if (location == 0) {
+                        return canLift(inventory);
+                    }
+                    else if (location == 2) {
+                        return canGP(inventory);
+                    }
+                    else {
+                        return true;
+                    }
+                }
+                else if (region == 0x6) {
+                    if (location == 0) {
+                        return inventory.has(Items.PURITY_STAFF) && canSwim(inventory);
+                    }
+                    else {
+                        return inventory.has(Items.PURITY_STAFF) && canSwim(inventory)
+                    	&& (difficulty >= Difficulty.S_HARD ||
+                    	(inventory.has(Items.SPIKED_HELMET) && inventory.has(Items.GARLIC)));
+                    }
+                }
+                else if (region == 0xa) {
+                    if (location == 0) {
+                        return canSwim(inventory)
+                                && canGP(inventory)
+                                && (canSuperGP(inventory)
+                                    || (difficulty >= Difficulty.HARD
+                                        && canLift(inventory)
+                                        && inventory.has(Items.JUMP_BOOTS)));
+                    }
+                    else {
+                        return canSwim(inventory) && canGP(inventory)
+                                && (canSuperGP(inventory) || canLift(inventory));
+                    }
+                }
+                else if (region == 0x14) {
+                    return canGP(inventory) && canSwim(inventory);
+                }
+                else if (region == 0x19) {
+
+                    if (location == 0) { // S2 Spiders Upper Right
+                        return (canSwim(inventory) || (difficulty >= Difficulty.S_HARD && canLift(inventory) && inventory.has(Items.JUMP_BOOTS)))
+                            && (inventory.has(Items.GARLIC) || (difficulty >= Difficulty.S_HARD && inventory.has(Items.JUMP_BOOTS)))
+    		            && (canSuperGP(inventory) || (difficulty >= Difficulty.HARD && inventory.has(Items.JUMP_BOOTS)));
+                    }
+                    else { // S2 Spiders Lower Right
+                        return (canSwim(inventory) || (difficulty >= Difficulty.S_HARD && inventory.has(Items.JUMP_BOOTS) && canLift(inventory)))
+    		            && (inventory.has(Items.GARLIC) || (difficulty >= Difficulty.S_HARD && inventory.has(Items.JUMP_BOOTS)));
+                    }
+                }
+                break;
+            case Locations.S3:
+                if (region == 0x1) {
+                    return inventory.has(Items.WIRE_WIZARD)
+                            && inventory.has(Items.GOLD_EYE_L)
+                            && inventory.has(Items.GOLD_EYE_R);
+                }
+                else if (region == 0x2) {
+                    if (location == 0) {
+                        return inventory.has(Items.WIRE_WIZARD);
+                    }
+                    else if (location == 1) {
+                        return inventory.has(Items.WIRE_WIZARD)
+                                && (difficulty >= Difficulty.S_HARD || inventory.has(Items.JUMP_BOOTS));
+                    }
+                    else if (location == 2) {
+                        return inventory.has(Items.WIRE_WIZARD)
+                                && (difficulty >= Difficulty.S_HARD || inventory.has(Items.JUMP_BOOTS))
+                                && inventory.has(Items.GARLIC);
+                    }
+                }
+                else if (region == 0x4 || region == 0x18 || region == 0x1a) {
+                    return inventory.has(Items.BLUE_EYE_L) && inventory.has(Items.BLUE_EYE_R);
+                }
+                else if (region == 0x8) {
+                    return true;
+                }
+                else if (region == 0xa) {
+                    return inventory.has(Items.WIRE_WIZARD)
+                            && inventory.has(Items.GOLD_EYE_L)
+                            && inventory.has(Items.GOLD_EYE_R)
+                            && inventory.has(Items.SPIKED_HELMET)
+                            && inventory.has(Items.GARLIC)
+                            && (difficulty >= Difficulty.S_HARD || inventory.has(Items.JUMP_BOOTS))
+                            && canSuperLift(inventory);
+                }
+                break;
+            case Locations.S4:
+                if (region == 0x1) {
+                    return true;
+                }
+                else if (region == 0xa || region == 0x19) {
+    		/* 
+    		* Consolidated the Green Chest Room and Spike Maze regions.
+    		* Added MINOR GLITCHES logic for the Green Chest Room and Spike Maze regions as well.
+    		* Perform Dashjump wallclips to get through the Green Chest Room without lifting up the Togēbas.
+    		*/
+                    return inventory.has(Items.STONE_FOOT) && canSuperSwim(inventory) 
+    					&& (canSuperGP(inventory) || (difficulty >= Difficulty.S_HARD && inventory.has(Items.JUMP_BOOTS)));
+                }
+                else if (region == 0x11 || region == 0x1c) {
+    				// Consolidated the 2 Blue Chest Area regions
+                    return inventory.has(Items.RUST_SPRAY) && canGP(inventory);
+                }
+                else if (region == 0x15) {
+                    return inventory.has(Items.STONE_FOOT);
+                }
+                break;
+            case Locations.S5:
+                if (region == 0x1) {
+    		/*
+    		* Added MINOR GLITCHES logic for Blue Chest Room - Upper Left.
+    		* Do a regular high enemy bounce after entering the room.
+    		* Next, charge towards the platform that contains the Throw Blocks.
+    		* Then, charge to the left to reach the next high bounce platform.
+    		* Finally, do a High Walljump to pass through the final high bounce platform.
+    		* One last regular Highjump will then reach this check.
+    		*/
+    		if (location == 0) {
+    			return inventory.has(Items.RUST_SPRAY) && inventory.has(Items.JUMP_BOOTS) && canGP(inventory)
+                    	        && (canLift(inventory) || difficulty >= Difficulty.S_HARD);
+    		}
+    		else {
+    			return inventory.has(Items.RUST_SPRAY) 
+    				&& inventory.has(Items.JUMP_BOOTS)
+    				&& canGP(inventory)
+    				&& canLift(inventory);
+    			}
+    		}
+    		else if (region == 0x3) {
+                    	return inventory.has(Items.RUST_SPRAY)
+    				&& canGP (inventory)
+    				&& canLift(inventory)
+    				&& inventory.has(Items.JUMP_BOOTS);
+                }
+                else if (region == 0x6) {
+    		/*
+    		* Added MINOR GLITCHES logic for the Smasher Room.
+    		* 1. Do a regular high enemy bounce after entering the room.
+    		* 2. Charge towards the platform that contains the Throw Blocks.
+    		* 3. Charge to the left to reach the next high bounce platform.
+    		* 4. Do a High Walljump to pass through the final high bounce platform.
+    		* 5. A regular Highjump will then reach Blue Chest Room - Upper Left.
+    		* 6. Jump across the gap, then do another walljump to reach the platform leading to the Smasher Room.
+    		* 7. Execute the Smasher Room as normal to reach the check.
+    		*/
+                    return inventory.has(Items.RUST_SPRAY) 
+    			&& inventory.has(Items.JUMP_BOOTS) 
+    			&& canGP(inventory)
+    			&& (difficulty >= Difficulty.S_HARD || canLift(inventory));
+                }
+                else if (region == 0x7) {
+    				// New MERCILESS Logic for Main Area - Center Left Ledge.
+    				// Using Ladder Scrolling at the start and a walljump, this check can be reached without needing Boots.
+                    if (location == 0) {
+                        return inventory.has(Items.JUMP_BOOTS) || difficulty >= Difficulty.MERCILESS;
+                    }
+                    else {
+    		/*
+    		* Added MERCILESS logic for this check, which is Main Area - Lower Right.
+    		* Using Ladder Scrolling at the start, this check can be reached without a Glove.
+    		*/
+                        return (canLift(inventory) || difficulty >= Difficulty.MERCILESS);
+                    }
+                }
+                else if (region == 0xa) {
+                    return inventory.has(Items.JUMP_BOOTS) && canLift(inventory)
+                            && (difficulty >= Difficulty.HARD || canSuperGP(inventory));
+                }
+                else if (region == 0xe) {
+                    return difficulty >= Difficulty.S_HARD || inventory.has(Items.SPIKED_HELMET);
+                }
+                else if (region == 0x15) {
+    		// Added MINOR GLITCHES logic to reach the Water Current Room. Do a walljump to reach this region.
+                    return (inventory.has(Items.JUMP_BOOTS)
+    			|| difficulty >= Difficulty.S_HARD);
+                }
+                else if (region == 0x18) {
+    		// Added MINOR GLITCHES logic for the Invisibility Room. You can use a dashjump wallclip to reach the platform that has the pipe.
+                    return inventory.has(Items.DETONATOR)
+                            && (inventory.has(Items.JUMP_BOOTS) || keyColor == 2 || difficulty >= Difficulty.S_HARD);
+                }
+                break;
+            case Locations.S6:
+                if (region == 0x1) {
+                    return true;
+                }
+                else if (region == 0x3) {
+                    return difficulty > Difficulty.EASY || canSuperGP(inventory);
+                }
+                else if (!inventory.has(Items.JUMP_BOOTS)) {
+                    return false;
+                }
+                else if (region == 0x5) {
+                    if (location == 0) {
+                        return true;
+                    }
+                    else {
+    			/*
+    			* Added a check for MERCILESS difficulty for Outside Upper - Near Moon Door.
+    			* Wrong Warp from the bottom outside area into the moon, then exit through the doors to reach this check.
+    			* Note, a soft reset is required for this to work, and this wrong warp only works during the day.
+    			* The soft reset can occur either immediately before entering the stage or after a suspend save.
+    			*/
+                    	return (inventory.has(Items.SCISSORS) || (daytime && difficulty >= Difficulty.MERCILESS));
+                    }
+                }
+                else if (region == 0x1c) {
+                    if (location == 0) {
+                        return true;
+                    }
+                    else {
+                        return (difficulty >= Difficulty.HARD || inventory.has(Items.SPIKED_HELMET)) && canLift(inventory);
+                    }
+                }
+                else if (!inventory.has(Items.SCISSORS)) {
+                    return false;
+                }
+                else if (region == 0x7) {
+                    if (location == 2) {
+                        return inventory.has(Items.SPIKED_HELMET);
+                    }
+                    else {
+                        return true;
+                    }
+                }
+                else if (region == 0x17) {
+                    return inventory.has(Items.GONG) && canLift(inventory) && canSuperGP(inventory);
+                }
+                break;
+            case Locations.E1:
+                if (region == 0x1) {
+                    return true;
+                }
+                else if (region == 0x6) {
+                    return inventory.has(Items.STONE_FOOT) && inventory.has(Items.JUMP_BOOTS) && canLift(inventory);
+                }
+                else if (region == 0x7) {
+                    if (location == 0) {
+                        return inventory.has(Items.DETONATOR)
+                                || (difficulty >= Difficulty.HARD
+                                    && canLift(inventory)
+                                    && inventory.has(Items.JUMP_BOOTS));
+                    }
+                    else if (location == 1) {
+                        return difficulty >= Difficulty.S_HARD || inventory.has(Items.SPIKED_HELMET);
+                    }
+                    else {
+                        return inventory.has(Items.DETONATOR);
+                    }
+                }
+                else if (region == 0x14 || region == 0x16) {
+                    return inventory.has(Items.STONE_FOOT);
+                }
+                break;
+            case Locations.E2:
+                if (region == 0x1) {
+                    if (location == 0) {
+                        return true;
+                    }
+                    else if (location == 1) {
+    			/*
+    			* Added MERCILESS logic to this check, which is Main Area - Above Rock.
+    			* Use Water Scrolling to screen wrap upwards. The terrain available will let you reach this check.
+    			*/
+            		return inventory.has(Items.JUMP_BOOTS)
+    				|| (difficulty >= Difficulty.MERCILESS && canSwim(inventory));
+                    }
+                    else {
+    			/*
+    			* Added MERCILESS logic to this check, which is Main Area - Lower Right.
+    			* Use Water Scrolling to screen wrap upwards, then use the terrain to collect Main Area - Above Rock. 
+    			* Next, get hit by the Polar Bear closest to the rock and have it send you to the right. 
+    			* Go just left to the wall you hit without crouching. 
+    			* Then, do an in-map save to set your position to the bottom of the pool. 
+    			* Charge and immediately crouch to get past the crouch space to reach this check without dayTime or Super Flippers. 
+    			* Note, make sure you're holding neutral when the crouch charge ends.
+    			*/
+            		return daytime || canSuperSwim(inventory)
+    				|| (difficulty >= Difficulty.MERCILESS && canSwim(inventory) && inventory.has(Items.GARLIC));
+                    }
+                }
+                else if (region == 0x6 || region == 0x17) {
+                    return inventory.has(Items.PURITY_STAFF) && canSwim(inventory);
+                }
+                else if (region == 0x8) {
+                    return canLift(inventory);
+                }
+                else if (region == 0x14) {
+                    return canLift(inventory);
+                }
+                else if (region == 0x15) {
+                    return inventory.has(Items.PURITY_STAFF) && canSwim(inventory) && inventory.has(Items.SPIKED_HELMET);
+                }
+                else if (region == 0x1A) {
+    		/*
+    		* Added MERCILESS logic to this region, which is the Blue Chest Area.
+    		* Use Water Scrolling to screen wrap upwards, then use the terrain to collect Main Area - Above Rock. 
+    		* Next, get hit by the Polar Bear closest to the rock and have it send you to the right. 
+    		* Go just left to the wall you hit without crouching. 
+    		* Then, do a suspend save to set your position to the bottom of the pool. 
+    		* Charge and immediately crouch to get past the crouch space. Make sure you're holding neutral when the crouch charge ends.
+    		* Finally, jump up to get past the current and climb the ladder to reach this region without dayTime or Super Flippers.
+    		*/
+                    return daytime || canSuperSwim(inventory)
+    			|| (difficulty >= Difficulty.MERCILESS && canSwim(inventory) && inventory.has(Items.GARLIC));
+                }
+                break;
+            case Locations.E3:
+                if (region == 0x1) {
+                    if (location == 1) {
+                        return true;
+                    }
+                    else {
+                        return canLift(inventory) || difficulty >= Difficulty.S_HARD;
+                    }
+                }
+                else if (!canLift(inventory) && difficulty < Difficulty.S_HARD) {
+                    return false;
+                }
+                else if (region == 0x4 || region == 0x9) {
+                    return canSuperLift(inventory);
+                }
+                else if (region == 0x7) {
+    		/*
+    		* Added MINOR GLITCHES logic to this region, the E3 Spike Maze.
+    		* These checks can be accessed without a Glove by grabbing the right-side owl and dismounting while clipped into the platforms.
+    		* You can then use the spikes to damage boost to the other owl and then reach the checks as normal.
+    		* In essence, this is an extension of the MINOR GLITCHES execution for the starting room.
+    		*/
+                    if (location < 2) {
+                        return inventory.has(Items.BRICK) && (difficulty >= Difficulty.S_HARD || canLift(inventory));
+                    }
+                    else {
+                        return inventory.has(Items.BRICK) && canGP(inventory) && (difficulty >= Difficulty.S_HARD || canLift(inventory));
+                    }
+                }
+                else if (region == 0x1a) {
+                    if (!daytime && !canSuperLift(inventory) && difficulty < Difficulty.S_HARD) {
+                        return false;
+                    }
+                    else if (location == 0) {
+                        return inventory.has(Items.JUMP_BOOTS);
+                    }
+                    else {
+                        if (difficulty >= Difficulty.HARD) {
+                            return true;
+                        }
+                        else {
+                            return canSuperGP(inventory) || inventory.has(Items.JUMP_BOOTS);
+                        }
+                    }
+                }
+                break;
+            case Locations.E4:
+                if (region == 0x1) {
+                    if (location == 1) {
+                        return daytime || inventory.has(Items.JUMP_BOOTS) || difficulty >= Difficulty.S_HARD;
+                    }
+                    else {
+                        return true;
+                    }
+                }
+                else if (region == 0x4) {
+                    return true;
+                }
+                else if (region == 0x7) {
+                    return inventory.has(Items.DETONATOR) && inventory.has(Items.JUMP_BOOTS);
+                }
+                else if (region == 0xa) {
+    				// To get Red Chest Room - Upper Right without needing the Helmet in MINOR GLITCHES, perform the Rolling Glitch in the previous room.
+    				// From there, break the blocks in a specific manner to get enough height to reach the check. A Reverse walljump is required to do this. 
+    				// Additionally, a quick directional input change is required to break an additional block to allow you to properly stand in the foothold without being crouched.
+                    return inventory.has(Items.GARLIC)
+                            && (inventory.has(Items.SPIKED_HELMET)
+                                || (difficulty > Difficulty.EASY && inventory.has(Items.JUMP_BOOTS))
+    							|| difficulty >= Difficulty.S_HARD);
+                }
+                else if (region == 0x14) {
+                    return inventory.has(Items.GARLIC) && canLift(inventory);
+                }
+                else if (region == 0x1B) {
+                    if (location == 1) {
+                        return daytime || inventory.has(Items.JUMP_BOOTS) || difficulty >= Difficulty.S_HARD;
+                    }
+                    else {
+                        return (daytime && canSuperLift(inventory))
+                                || (!daytime
+                                    && (inventory.has(Items.JUMP_BOOTS) || difficulty >= Difficulty.S_HARD)
+                                    && canLift(inventory));
+                    }
+                }
+                break;
+            case Locations.E5:
+                if (region == 0x3) {
+    		/*
+    		* Added MERCILESS logic for this region, which is the Blue Hub Room (0x3). 
+    		* You can do a Double Bear Bounce from the starting area to reach this region. 
+    		* This requires the Remote Control to gain access, but skips needing the Blue + Red Keycards.
+    		* The Boots and Golden Glove are both required to perform this execution.
+    		* Added HARD logic to the Blue Hub Room as well. 
+    		* These checks can be reached without the Helmet by performing very precise dashes to create footholds in the middle set of blocks.
+    		& This also puts the MERCILESS execution in logic without the Helmet as well.
+    		*/ 
+                    return ((inventory.has(Items.BLUE_KEY_CARD) && inventory.has(Items.RED_KEY_CARD) && canLift(inventory))
+    					&& (inventory.has(Items.SPIKED_HELMET) || (difficulty >= Difficulty.HARD && inventory.has(Items.JUMP_BOOTS))))
+    						|| (difficulty >= Difficulty.MERCILESS && inventory.has(Items.WARP_REMOTE)
+    							&& canSuperGP(inventory) && canSuperLift(inventory) && inventory.has(Items.JUMP_BOOTS));
+                }
+                else if (region == 0x6) {
+    		/* 
+    		* Added MERCILESS Logic to the Green Falling Warp Room - Bottom Center check.
+    		* This is reached by doing a single-tile walljump to scale the bottom set of throw blocks after entering the area.
+    		* A Glove check has been added specifically for the Key Cards option since that option strictly requires having a Glove.
+    		*/ 
+                    return (inventory.has(Items.BLUE_KEY_CARD) && inventory.has(Items.RED_KEY_CARD) && canLift(inventory))
+    			|| (inventory.has(Items.WARP_REMOTE) && (difficulty >= Difficulty.MERCILESS || canLift(inventory)));
+    			}
+    			else if (region == 0x7) {
+    				return canLift(inventory)
+                        && ((inventory.has(Items.BLUE_KEY_CARD) && inventory.has(Items.RED_KEY_CARD))
+                            || inventory.has(Items.WARP_REMOTE));
+                }
+                else if (region == 0x9) {
+                    return inventory.has(Items.WARP_REMOTE);
+                }
+                else if (region == 0xa || region == 0xc) {
+    		/*
+    		* Added MERCILESS logic for these regions, which are the Blue Unstable Platforms Room (0xa) and the Starting Area (0xc). 
+    		* You can do a Double Bear Bounce from the starting area to reach this region. 
+    		* This requires the Remote Control to gain access, but skips needing the Blue + Red Keycards.
+    		* The Boots and Golden Glove are both required to perform this execution.
+    		*/ 
+                    return (inventory.has(Items.BLUE_KEY_CARD) && inventory.has(Items.RED_KEY_CARD) && canLift(inventory))
+    			|| (difficulty >= Difficulty.MERCILESS && inventory.has(Items.WARP_REMOTE)
+    				&& canSuperGP(inventory) && canSuperLift(inventory) && inventory.has(Items.JUMP_BOOTS));
+                }
+                else if (region == 0x18) {
+    		if (location == 2) {
+    			// NORMAL logic added for Hammerbot Room - Upper Right.
+    			// You still need to get hit by the Hammerbot, but you have to sneak under a spike while springing and can't lift the Hammerbot.
+    			return canSuperLift(inventory)
+    				|| (difficulty > Difficulty.EASY && canLift(inventory));
+    		}
+    		else {
+    			return canLift(inventory);
+    		}
+                }
+                break;
+            case Locations.E6:
+                if (region == 0x1) {
+                    if (location == 0) {
+                        return true;
+                    }
+                    else if (location == 1) {
+                        if (difficulty <= Difficulty.NORMAL) {
+                            return canLift(inventory) && canSuperGP(inventory);
+                        }
+                        else if (difficulty <= Difficulty.HARD) {
+                            // require lift to get through walls but allow jellybob manip
+                            return canLift(inventory) &&
+                                (canGP(inventory) || inventory.has(Items.SPIKED_HELMET));
+                        }
+                        else {
+                            return canGP(inventory) || inventory.has(Items.SPIKED_HELMET);
+                        }
+                    }
+                    else {
+                        return canLift(inventory);
+                    }
+                }
+                else if (region == 0x4) {
+                    return canLift(inventory) && inventory.has(Items.JACKHAMMER);
+                }
+                else if (region == 0x7) {
+                    if (location == 0) {
+                        return canLift(inventory) && canGP(inventory)
+                                && (difficulty >= Difficulty.HARD || inventory.has(Items.FIRE_EXTINGUISHER));
+                    }
+                    else {
+                        return canLift(inventory)
+                                && (difficulty >= Difficulty.HARD || inventory.has(Items.FIRE_EXTINGUISHER));
+                    }
+                }
+                else if (region == 0x11) {
+    		// MINOR GLITCHES logic added for Smasher Room.
+    		// Wallclip to climb over the barriers that you'd need to throw barrels at.
+                    return (difficulty >= Difficulty.HARD || inventory.has(Items.FIRE_EXTINGUISHER))
+    					&& (canLift(inventory) || difficulty >= Difficulty.S_HARD);
+                }
+                else if (region == 0x14) {
+                    return (difficulty >= Difficulty.S_HARD || canLift(inventory))
+                            && (keyColor == 0 || canSuperGP(inventory));
+                }
+                else if (region == 0x18) {
+    		/* 
+    		/ Added MERCILESS logic to Barrel Puzzle Room - Upper Floor Near Start.
+    		/ You can use a Single Tile Walljump to escape the spot without needing Boots.
+    		/ The NORMAL logic that was added is to use the Pneumo to float into the room without Boots.
+    		/ A Glove check has been added here to EASY Difficulty, which is to break the Throw Blocks traditionally.
+    		*/
+                    if (location == 0) {
+                        return inventory.has(Items.PICKAXE) 
+    						&& (difficulty > Difficulty.EASY || canLift(inventory))
+    						&& (difficulty >= Difficulty.MERCILESS || inventory.has(Items.JUMP_BOOTS));
+                    }
+                    else {
+    		// The NORMAL logic that was added is to use the Pneumo to float into the room without Boots.
+                        return inventory.has(Items.PICKAXE) && canLift(inventory)
+    						&& (difficulty > Difficulty.EASY || inventory.has(Items.JUMP_BOOTS));
+                    }
+                }
+                break;
+            case Locations.E7:
+                if (region == 0x1) {
+                    if (location == 0) {
+                        return inventory.has(Items.JUMP_BOOTS);
+                    }
+                    else {
+                        return true;
+                    }
+                }
+                else if (region == 0x4) {
+                    if (location == 0) {
+                        return inventory.has(Items.VALVE) && canLift(inventory);
+                    }
+                    else {
+    		/* 
+    		* Added MINOR GLITCHES logic for the Vampire Area - Center Left check.
+    		* This check can be obtained without a Glove, using just Boots.
+    		* Perform a High Walljump to reach the Spearhead located in the upper right corner.
+    		* Stun it, then walk into it towards the left and knock it down the ledges necessary.
+    		* Once it's off the ledge that the door leading to the Hammerbot room is on, do the jumps across like normal to reach the check.
+    		*/
+                    return difficulty > Difficulty.EASY 
+    			&& inventory.has(Items.VALVE) 
+    			&& inventory.has(Items.JUMP_BOOTS)
+    			&& (difficulty >= Difficulty.S_HARD || canLift(inventory));
+                    }
+                }
+                else if (region == 0x7) {
+                    if (location == 0) {
+                        return inventory.has(Items.VALVE);
+                    }
+                    else {
+                        return inventory.has(Items.VALVE) && canSuperLift(inventory);
+                    }
+                }
+                else if (region == 0xa) {
+                    return true;
+                }
+                else if (region == 0x15) {
+                    if (location == 0) {
+                        return true;
+                    }
+                    else {
+                        return inventory.has(Items.DEMON_BLOOD) || difficulty >= Difficulty.S_HARD;
+                    }
+                }
+                else if (region == 0x18) {
+                    return inventory.has(Items.VALVE) && (difficulty >= Difficulty.S_HARD || inventory.has(Items.JUMP_BOOTS)) && canSuperLift(inventory);
+                }
+                break;
+        }
+        return false;
+    }
+
+    /**
+     * Helper function for canAccess() - checks if Wario can access the given level by approaching from the west.
+     * This was implemented to avoid circular dependencies.
+     */
+    private boolean canAccessFromWest(int node, Inventory inventory) {
+        switch (node) {
+            case Locations.W1:
+                return canAccessBorder(Locations.NW, inventory);
+            case Locations.W2:
+                return inventory.has(Items.DOCUMENT_A) && inventory.has(Items.DOCUMENT_B)
+                        && canAccessFromWest(Locations.W1, inventory);
+            case Locations.W3:
+                return inventory.has(Items.RAINCLOUD_JAR)
+                        && canAccessFromWest(Locations.W2, inventory);
+            case Locations.W4:
+                return inventory.has(Items.RAINCLOUD_JAR)
+                        && canAccessFromWest(Locations.W3, inventory);
+            case Locations.S1:
+                return canAccessBorder(Locations.SW, inventory);
+            case Locations.S2:
+                return inventory.has(Items.MUSIC_BOX_1)
+                        && canAccessFromWest(Locations.S1, inventory);
+            case Locations.S3:
+                return ((inventory.has(Items.BLUE_RING) && inventory.has(Items.RED_RING))
+                        || (inventory.has(Items.ANGER_HALBERD) && inventory.has(Items.ANGER_SPELL)))
+                        && canAccessFromWest(Locations.S2, inventory);
+            case Locations.E1:
+                return canAccessBorder(Locations.SE, inventory);
+            case Locations.E2:
+                return inventory.has(Items.FREEZE_CANE) && inventory.has(Items.FREEZE_SPELL)
+                        && canAccessFromWest(Locations.E1, inventory);
+            case Locations.E4:
+                return inventory.has(Items.RED_ARTIFACT) && inventory.has(Items.GREEN_ARTIFACT) && inventory.has(Items.BLUE_ARTIFACT)
+                        && canAccessFromWest(Locations.E2, inventory);
+            case Locations.E7:
+                return inventory.has(Items.TORCH)
+                        && canAccessFromWest(Locations.E4, inventory);
+        }
+        return false;
+    }
+
+    /**
+     * Helper function for canAccess() - checks if Wario can access the given level by approaching from the east.
+     * This was implemented to avoid circular dependencies.
+     */
+    private boolean canAccessFromEast(int node, Inventory inventory) {
+        switch (node) {
+            case Locations.W1:
+                return inventory.has(Items.DOCUMENT_A) && inventory.has(Items.DOCUMENT_B)
+                        && canAccessFromEast(Locations.W2, inventory);
+            case Locations.W2:
+                return inventory.has(Items.RAINCLOUD_JAR)
+                        && canAccessFromEast(Locations.W3, inventory);
+            case Locations.W3:
+                return inventory.has(Items.RAINCLOUD_JAR)
+                        && canAccessFromEast(Locations.W4, inventory);
+            case Locations.W4:
+                return canAccessBorder(Locations.SW, inventory);
+            case Locations.S1:
+                return inventory.has(Items.MUSIC_BOX_1)
+                        && canAccessFromEast(Locations.S2, inventory);
+            case Locations.S2:
+                return inventory.has(Items.BLUE_RING) && inventory.has(Items.RED_RING)
+                        && canAccessFromEast(Locations.S3, inventory);
+            case Locations.S3:
+                return canAccessBorder(Locations.SE, inventory);
+            case Locations.E1:
+                return inventory.has(Items.FREEZE_CANE) && inventory.has(Items.FREEZE_SPELL)
+                        && canAccessFromEast(Locations.E2, inventory);
+            case Locations.E2:
+                return inventory.has(Items.RED_ARTIFACT) && inventory.has(Items.GREEN_ARTIFACT) && inventory.has(Items.BLUE_ARTIFACT)
+                        && canAccessFromEast(Locations.E4, inventory);
+            case Locations.E4:
+                return inventory.has(Items.TORCH);
+            case Locations.E7:
+                return inventory.has(Items.TORCH);
+        }
+        return false;
+    }
+
+    /**
+     * Deep copy a level list
+     *
+     * @param levelList list to copy
+     */
+    static List<Level> cloneLevelList(List<Level> levelList) {
+        List<Level> ret = new ArrayList<>(levelList);
+        for (int i = 0; i < ret.size(); i++) {
+            ret.set(i,new Level(ret.get(i)));
+        }
+        return ret;
+    }
+
+    /**
+     * Which locations Wario can reach for one difficulty and one list of key placements, kept up to date as his
+     * inventory changes. This is shared by the placement search, the difficulty test and the playthrough.
+     *
+     * While a location's rules are evaluated, a tracked inventory records every item they check, and the location is
+     * added to each of those items' dependents. When the inventory changes, only the dependents of the items that were
+     * gained or lost are looked at again; every other location's rules didn't check what changed, so their answer
+     * stands. The rules aren't monotonic (gaining the torch without the axe locks Wario out of the first level), so a
+     * location that is looked at again can become inaccessible as well as accessible. Moving a key invalidates its
+     * location.
+     *
+     * The placement search backtracks, so it keeps coming back to inventories it has already seen. Each location also
+     * remembers its last few results, and reuses one if the inventory agrees with it on every item it checked.
+     *
+     * The rules also depend on the difficulty, so callers that change it keep one of these per difficulty; see
+     * reachability().
+     */
+    private final class Reachability {
+        private static final int RECENT_RESULTS = 8;
+
+        private final List<Level> keyLocations;
+        private Inventory inventory = null;
+        // the accessible locations, as bitmasks over locations 0-63 and 64-99
+        private long accessibleLow = 0;
+        private long accessibleHigh = 0;
+        // for each item, the locations whose current result checked it
+        private final long[] dependentsLow = new long[128];
+        private final long[] dependentsHigh = new long[128];
+        // locations whose key has moved since their current result
+        private long staleLow = 0;
+        private long staleHigh = 0;
+        private final AccessResult[] current = new AccessResult[100];
+        private final AccessResult[][] recent = new AccessResult[100][RECENT_RESULTS];
+        private final int[] recentNext = new int[100];
+
+        private Reachability(List<Level> keyLocations) {
+            this.keyLocations = keyLocations;
+        }
+
+        /**
+         * Bring the accessible locations up to date for the given inventory.
+         */
+        private void update(Inventory newInventory) {
+            long low;
+            long high;
+            if (inventory == null) {
+                low = -1L;
+                high = (1L << (100 - 64)) - 1;
+            }
+            else {
+                low = staleLow;
+                high = staleHigh;
+                Inventory changed = newInventory.differences(inventory);
+                for (int item = changed.nextItem(0); item >= 0; item = changed.nextItem(item + 1)) {
+                    low |= dependentsLow[item];
+                    high |= dependentsHigh[item];
+                }
+            }
+            staleLow = 0;
+            staleHigh = 0;
+            inventory = newInventory;
+            for (; low != 0; low &= low - 1) {
+                evaluate(Long.numberOfTrailingZeros(low));
+            }
+            for (; high != 0; high &= high - 1) {
+                evaluate(64 + Long.numberOfTrailingZeros(high));
+            }
+        }
+
+        /**
+         * @return true if the given location was accessible with the inventory last passed to update()
+         */
+        private boolean isAccessible(int location) {
+            canAccessCalls++;
+            long bits = location < 64 ? accessibleLow : accessibleHigh;
+            return ((bits >>> location) & 1L) != 0;
+        }
+
+        /**
+         * Find the next accessible location, for scanning them in order:
+         * {@code for (int i = r.nextAccessible(0); i >= 0; i = r.nextAccessible(i + 1))}
+         *
+         * @return the lowest location that is at least the given one and was accessible with the inventory last passed
+         *         to update(), or -1 if there isn't one
+         */
+        private int nextAccessible(int from) {
+            int location = -1;
+            if (from < 64) {
+                long bits = accessibleLow & (-1L << from);
+                location = bits != 0 ? Long.numberOfTrailingZeros(bits) : -1;
+                from = 64;
+            }
+            if (location < 0 && from < 100) {
+                long bits = accessibleHigh & (-1L << from);
+                location = bits != 0 ? 64 + Long.numberOfTrailingZeros(bits) : -1;
+            }
+            if (location >= 0) {
+                canAccessCalls++;
+            }
+            return location;
+        }
+
+        /**
+         * Note that the key for the given location has moved, so its result must be found again.
+         */
+        private void keyMoved(int location) {
+            if (location < 64) {
+                staleLow |= 1L << location;
+            }
+            else {
+                staleHigh |= 1L << location;
+            }
+        }
+
+        private void evaluate(int location) {
+            long bit = 1L << location;
+            boolean lowWord = location < 64;
+            AccessResult old = current[location];
+            if (old != null) {
+                for (int item = old.itemsRead.nextItem(0); item >= 0; item = old.itemsRead.nextItem(item + 1)) {
+                    if (lowWord) {
+                        dependentsLow[item] &= ~bit;
+                    }
+                    else {
+                        dependentsHigh[item] &= ~bit;
+                    }
+                }
+            }
+
+            KeyLocation key = keyLocations.get(location / 4).getLocation(location % 4);
+            AccessResult result = null;
+            for (AccessResult entry : recent[location]) {
+                if (entry != null && entry.key == key && inventory.agreesWith(entry.inventory, entry.itemsRead)) {
+                    result = entry;
+                    break;
+                }
+            }
+            if (result == null) {
+                canAccessEvaluations++;
+                Inventory tracked = inventory.tracked();
+                boolean accessible = canAccess(location, tracked, keyLocations, true)
+                        || canAccess(location, tracked, keyLocations, false);
+                result = new AccessResult(inventory, tracked.itemsRead(), key, accessible);
+                recent[location][recentNext[location]] = result;
+                recentNext[location] = (recentNext[location] + 1) % RECENT_RESULTS;
+            }
+            current[location] = result;
+
+            if (lowWord) {
+                accessibleLow = result.accessible ? accessibleLow | bit : accessibleLow & ~bit;
+            }
+            else {
+                accessibleHigh = result.accessible ? accessibleHigh | bit : accessibleHigh & ~bit;
+            }
+            for (int item = result.itemsRead.nextItem(0); item >= 0; item = result.itemsRead.nextItem(item + 1)) {
+                if (lowWord) {
+                    dependentsLow[item] |= bit;
+                }
+                else {
+                    dependentsHigh[item] |= bit;
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether a location was accessible with some inventory, along with everything that depended on.
+     */
+    private static class AccessResult {
+        private final Inventory inventory;
+        private final Inventory itemsRead;
+        private final KeyLocation key;
+        private final boolean accessible;
+
+        private AccessResult(Inventory inventory, Inventory itemsRead, KeyLocation key, boolean accessible) {
+            this.inventory = inventory;
+            this.itemsRead = itemsRead;
+            this.key = key;
+            this.accessible = accessible;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event for one call to Randomizer.generate, summarizing its GenerationMetrics.
+ */
+@Name("wl3.Generation")
+@Label("Generation")
+@Category("WL3 Randomizer")
+@StackTrace(false)
+class GenerationEvent extends Event {
+    @Label("Seed")
+    String seed;
+
+    @Label("Seeds Tried")
+    int attempts;
+
+    @Label("Rejected by prepareLists")
+    int rejectedByPrepare;
+
+    @Label("Rejected by Placement")
+    int rejectedByPlacement;
+
+    @Label("Rejected by testDifficulty")
+    int rejectedByDifficulty;
+
+    @Label("canAccess Calls")
+    long canAccessCalls;
+}
@@ -0,0 +1,188 @@
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What one generation (or, for processTotal, every generation so far) cost: how many seeds were tried and why they
+ * were rejected, how much work the placement search did, and how long each stage took.
+ *
+ * Search counters only include attempts that ran to completion; in a parallel seed search, the attempts still running
+ * when a valid game is found are left out.
+ */
+public final class GenerationMetrics {
+    private static final GenerationMetrics processTotal = new GenerationMetrics(0);
+
+    private int generations;
+    private int attempts = 0;
+    private final Map<String, Integer> rejections = new LinkedHashMap<>();
+    private long canAccessCalls = 0;
+    private long canAccessEvaluations = 0;
+    private long placeKeyCalls = 0;
+    private int maxSearchDepth = 0;
+    private long levelListClones = 0;
+    private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+
+    /**
+     * Start the metrics for a single generation.
+     */
+    GenerationMetrics() {
+        this(1);
+    }
+
+    private GenerationMetrics(int generations) {
+        this.generations = generations;
+        rejections.put(GenerationContext.REJECTED_PREPARE, 0);
+        rejections.put(GenerationContext.REJECTED_PLACEMENT, 0);
+        rejections.put(GenerationContext.REJECTED_DIFFICULTY, 0);
+    }
+
+    /**
+     * Count a placement attempt that has finished running.
+     */
+    void addAttempt(GenerationContext attempt) {
+        attempts++;
+        if (attempt.getRejection() != null) {
+            rejections.put(attempt.getRejection(), rejections.get(attempt.getRejection()) + 1);
+        }
+        canAccessCalls += attempt.getCanAccessCalls();
+        canAccessEvaluations += attempt.getCanAccessEvaluations();
+        placeKeyCalls += attempt.getPlaceKeyCalls();
+        maxSearchDepth = Math.max(maxSearchDepth, attempt.getMaxSearchDepth());
+        levelListClones += attempt.getLevelListClones();
+    }
+
+    /**
+     * Add to the time spent in the given stage.
+     */
+    void addStageTime(String stage, long nanos) {
+        Long total = stageNanos.get(stage);
+        stageNanos.put(stage, total == null ? nanos : total + nanos);
+    }
+
+    /**
+     * Add a finished generation to the totals for the whole process.
+     */
+    static void record(GenerationMetrics metrics) {
+        synchronized (processTotal) {
+            processTotal.generations += metrics.generations;
+            processTotal.attempts += metrics.attempts;
+            for (Map.Entry<String, Integer> rejection : metrics.rejections.entrySet()) {
+                processTotal.rejections.put(rejection.getKey(),
+                        processTotal.rejections.get(rejection.getKey()) + rejection.getValue());
+            }
+            processTotal.canAccessCalls += metrics.canAccessCalls;
+            processTotal.canAccessEvaluations += metrics.canAccessEvaluations;
+            processTotal.placeKeyCalls += metrics.placeKeyCalls;
+            processTotal.maxSearchDepth = Math.max(processTotal.maxSearchDepth, metrics.maxSearchDepth);
+            processTotal.levelListClones += metrics.levelListClones;
+            for (Map.Entry<String, Long> stage : metrics.stageNanos.entrySet()) {
+                processTotal.addStageTime(stage.getKey(), stage.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return the totals over every generation this process has run so far. The result is a copy; it doesn't change
+     *         as more games are generated.
+     */
+    public static GenerationMetrics processTotal() {
+        synchronized (processTotal) {
+            GenerationMetrics copy = new GenerationMetrics(processTotal.generations);
+            copy.attempts = processTotal.attempts;
+            copy.rejections.putAll(processTotal.rejections);
+            copy.canAccessCalls = processTotal.canAccessCalls;
+            copy.canAccessEvaluations = processTotal.canAccessEvaluations;
+            copy.placeKeyCalls = processTotal.placeKeyCalls;
+            copy.maxSearchDepth = processTotal.maxSearchDepth;
+            copy.levelListClones = processTotal.levelListClones;
+            copy.stageNanos.putAll(processTotal.stageNanos);
+            return copy;
+        }
+    }
+
+    /**
+     * @return the number of generations these metrics cover
+     */
+    public int getGenerations() {
+        return generations;
+    }
+
+    /**
+     * @return the number of seeds tried
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return the number of rejected seeds, by the check that rejected them: GenerationContext.REJECTED_PREPARE,
+     *         REJECTED_PLACEMENT or REJECTED_DIFFICULTY
+     */
+    public Map<String, Integer> getRejections() {
+        return Collections.unmodifiableMap(rejections);
+    }
+
+    /**
+     * @return the number of times the logic was asked whether a location is accessible
+     */
+    public long getCanAccessCalls() {
+        return canAccessCalls;
+    }
+
+    /**
+     * @return the number of times a location's rules were actually evaluated, rather than answered by a reachability
+     *         tracker
+     */
+    public long getCanAccessEvaluations() {
+        return canAccessEvaluations;
+    }
+
+    /**
+     * @return the number of times the search tried to place a key
+     */
+    public long getPlaceKeyCalls() {
+        return placeKeyCalls;
+    }
+
+    /**
+     * @return the deepest the placement search recursed, in any attempt
+     */
+    public int getMaxSearchDepth() {
+        return maxSearchDepth;
+    }
+
+    /**
+     * @return the number of times a level list was deep copied
+     */
+    public long getLevelListClones() {
+        return levelListClones;
+    }
+
+    /**
+     * @return wall time spent in each stage, in nanoseconds, in the order the stages first ran. Patch stages are named
+     *         "patching/" followed by the stage name; they can run at the same time, so they may add up to more than
+     *         "patching".
+     */
+    public Map<String, Long> getStageNanos() {
+        return Collections.unmodifiableMap(stageNanos);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Games generated: ").append(generations).append('\n');
+        sb.append("Seeds tried: ").append(attempts).append('\n');
+        for (Map.Entry<String, Integer> rejection : rejections.entrySet()) {
+            sb.append("  rejected by ").append(rejection.getKey()).append(": ").append(rejection.getValue()).append('\n');
+        }
+        sb.append("canAccess calls: ").append(canAccessCalls)
+                .append(" (").append(canAccessEvaluations).append(" evaluated)\n");
+        sb.append("placeKey calls: ").append(placeKeyCalls).append('\n');
+        sb.append("Deepest search: ").append(maxSearchDepth).append('\n');
+        sb.append("Level list copies: ").append(levelListClones).append('\n');
+        for (Map.Entry<String, Long> stage : stageNanos.entrySet()) {
+            sb.append(String.format("%-28s %10.1f ms\n", stage.getKey(), stage.getValue() / 1000000.0));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,193 @@
+import java.util.Collection;
+
+/**
+ * An immutable set of treasures, stored as a 128-bit mask indexed by the treasure ids in Items.
+ * Checking for a treasure is a single bit test, and adding one creates a new 16-byte value.
+ */
+public final class Inventory {
+    public static final Inventory EMPTY = new Inventory(0L, 0L);
+
+    // treasures 0x00-0x3f
+    private final long low;
+    // treasures 0x40-0x7f
+    private final long high;
+    // if non-null, every treasure checked with has() is recorded here (low word, high word)
+    private final long[] reads;
+
+    private Inventory(long low, long high) {
+        this(low, high, null);
+    }
+
+    private Inventory(long low, long high, long[] reads) {
+        this.low = low;
+        this.high = high;
+        this.reads = reads;
+    }
+
+    /**
+     * Create an inventory containing the given treasures.
+     */
+    public static Inventory of(int... items) {
+        return EMPTY.withAll(items);
+    }
+
+    /**
+     * Create an inventory containing the given treasures. Null entries are ignored, so a list of placed treasures
+     * (using null to represent still-empty locations) can be passed as-is.
+     */
+    public static Inventory of(Collection<Integer> items) {
+        return EMPTY.withAll(items);
+    }
+
+    /**
+     * Check if this inventory contains the given treasure.
+     */
+    public boolean has(int item) {
+        if (reads != null) {
+            reads[item < 64 ? 0 : 1] |= 1L << item;
+        }
+        // shift distances are taken mod 64, so this also works for treasures stored in the high word
+        return (((item < 64 ? low : high) >>> item) & 1L) != 0;
+    }
+
+    /**
+     * Check if this inventory and the given one agree on every treasure in the given mask, i.e. each of those
+     * treasures is either in both inventories or in neither.
+     */
+    public boolean agreesWith(Inventory other, Inventory mask) {
+        return ((low ^ other.low) & mask.low) == 0 && ((high ^ other.high) & mask.high) == 0;
+    }
+
+    /**
+     * @return a copy of this inventory that records every treasure checked with has(); see itemsRead()
+     */
+    public Inventory tracked() {
+        return new Inventory(low, high, new long[2]);
+    }
+
+    /**
+     * @return the treasures checked with has() so far, if this inventory was created by tracked(); otherwise empty
+     */
+    public Inventory itemsRead() {
+        return reads == null ? EMPTY : new Inventory(reads[0], reads[1]);
+    }
+
+    /**
+     * @return the treasures that are in exactly one of this inventory and the given one
+     */
+    public Inventory differences(Inventory other) {
+        return new Inventory(low ^ other.low, high ^ other.high);
+    }
+
+    /**
+     * Find the next treasure in this inventory, for iterating over it:
+     * {@code for (int item = inv.nextItem(0); item >= 0; item = inv.nextItem(item + 1))}
+     *
+     * @return the lowest treasure id in this inventory that is at least the given one, or -1 if there isn't one
+     */
+    public int nextItem(int from) {
+        if (from < 64) {
+            long bits = low & (-1L << from);
+            if (bits != 0) {
+                return Long.numberOfTrailingZeros(bits);
+            }
+            from = 64;
+        }
+        if (from < 128) {
+            long bits = high & (-1L << from);
+            if (bits != 0) {
+                return 64 + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Check if this inventory contains every treasure in the given inventory.
+     */
+    public boolean containsAll(Inventory other) {
+        return (low & other.low) == other.low && (high & other.high) == other.high;
+    }
+
+    /**
+     * @return an inventory containing every treasure in this one, plus the given treasure
+     */
+    public Inventory with(int item) {
+        if (item < 64) {
+            return new Inventory(low | (1L << item), high);
+        }
+        return new Inventory(low, high | (1L << item));
+    }
+
+    /**
+     * @return an inventory containing every treasure in this one, plus the given treasures
+     */
+    public Inventory withAll(int... items) {
+        long newLow = low;
+        long newHigh = high;
+        for (int item : items) {
+            if (item < 64) {
+                newLow |= 1L << item;
+            }
+            else {
+                newHigh |= 1L << item;
+            }
+        }
+        return new Inventory(newLow, newHigh);
+    }
+
+    /**
+     * @return an inventory containing every treasure in this one, plus the given treasures (ignoring nulls)
+     */
+    public Inventory withAll(Collection<Integer> items) {
+        long newLow = low;
+        long newHigh = high;
+        for (Integer item : items) {
+            if (item == null) {
+                continue;
+            }
+            if (item < 64) {
+                newLow |= 1L << item;
+            }
+            else {
+                newHigh |= 1L << item;
+            }
+        }
+        return new Inventory(newLow, newHigh);
+    }
+
+    /**
+     * @return an inventory containing every treasure in this one and every treasure in the given one
+     */
+    public Inventory withAll(Inventory other) {
+        return new Inventory(low | other.low, high | other.high);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Inventory)) {
+            return false;
+        }
+        Inventory other = (Inventory) o;
+        return low == other.low && high == other.high;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(low * 31 + high);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int item = 0; item < 128; item++) {
+            if (has(item)) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(item);
+            }
+        }
+        return sb.append("]").toString();
+    }
+}
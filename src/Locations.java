@@ -0,0 +1,162 @@
+public class Locations {
+    // For code readability, a list of constants representing every level and treasure location in the game.
+    // Levels are numbered by their spot on the vanilla world map. Treasure locations are numbered four per level,
+    // in the order gray (S), red (R), green (G), blue (B), so a treasure location's level is always location / 4.
+
+    public static final int N1 = 0;
+    public static final int N2 = 1;
+    public static final int N3 = 2;
+    public static final int N4 = 3;
+    public static final int N5 = 4;
+    public static final int N6 = 5;
+    public static final int W1 = 6;
+    public static final int W2 = 7;
+    public static final int W3 = 8;
+    public static final int W4 = 9;
+    public static final int W5 = 10;
+    public static final int W6 = 11;
+    public static final int S1 = 12;
+    public static final int S2 = 13;
+    public static final int S3 = 14;
+    public static final int S4 = 15;
+    public static final int S5 = 16;
+    public static final int S6 = 17;
+    public static final int E1 = 18;
+    public static final int E2 = 19;
+    public static final int E3 = 20;
+    public static final int E4 = 21;
+    public static final int E5 = 22;
+    public static final int E6 = 23;
+    public static final int E7 = 24;
+
+    // NEXT MAP borders between the four quadrants of the world map
+    public static final int NW = 25;
+    public static final int NE = 26;
+    public static final int SW = 27;
+    public static final int SE = 28;
+
+    public static final int N1S = 0x00;
+    public static final int N1R = 0x01;
+    public static final int N1G = 0x02;
+    public static final int N1B = 0x03;
+
+    public static final int N2S = 0x04;
+    public static final int N2R = 0x05;
+    public static final int N2G = 0x06;
+    public static final int N2B = 0x07;
+
+    public static final int N3S = 0x08;
+    public static final int N3R = 0x09;
+    public static final int N3G = 0x0a;
+    public static final int N3B = 0x0b;
+
+    public static final int N4S = 0x0c;
+    public static final int N4R = 0x0d;
+    public static final int N4G = 0x0e;
+    public static final int N4B = 0x0f;
+
+    public static final int N5S = 0x10;
+    public static final int N5R = 0x11;
+    public static final int N5G = 0x12;
+    public static final int N5B = 0x13;
+
+    public static final int N6S = 0x14;
+    public static final int N6R = 0x15;
+    public static final int N6G = 0x16;
+    public static final int N6B = 0x17;
+
+    public static final int W1S = 0x18;
+    public static final int W1R = 0x19;
+    public static final int W1G = 0x1a;
+    public static final int W1B = 0x1b;
+
+    public static final int W2S = 0x1c;
+    public static final int W2R = 0x1d;
+    public static final int W2G = 0x1e;
+    public static final int W2B = 0x1f;
+
+    public static final int W3S = 0x20;
+    public static final int W3R = 0x21;
+    public static final int W3G = 0x22;
+    public static final int W3B = 0x23;
+
+    public static final int W4S = 0x24;
+    public static final int W4R = 0x25;
+    public static final int W4G = 0x26;
+    public static final int W4B = 0x27;
+
+    public static final int W5S = 0x28;
+    public static final int W5R = 0x29;
+    public static final int W5G = 0x2a;
+    public static final int W5B = 0x2b;
+
+    public static final int W6S = 0x2c;
+    public static final int W6R = 0x2d;
+    public static final int W6G = 0x2e;
+    public static final int W6B = 0x2f;
+
+    public static final int S1S = 0x30;
+    public static final int S1R = 0x31;
+    public static final int S1G = 0x32;
+    public static final int S1B = 0x33;
+
+    public static final int S2S = 0x34;
+    public static final int S2R = 0x35;
+    public static final int S2G = 0x36;
+    public static final int S2B = 0x37;
+
+    public static final int S3S = 0x38;
+    public static final int S3R = 0x39;
+    public static final int S3G = 0x3a;
+    public static final int S3B = 0x3b;
+
+    public static final int S4S = 0x3c;
+    public static final int S4R = 0x3d;
+    public static final int S4G = 0x3e;
+    public static final int S4B = 0x3f;
+
+    public static final int S5S = 0x40;
+    public static final int S5R = 0x41;
+    public static final int S5G = 0x42;
+    public static final int S5B = 0x43;
+
+    public static final int S6S = 0x44;
+    public static final int S6R = 0x45;
+    public static final int S6G = 0x46;
+    public static final int S6B = 0x47;
+
+    public static final int E1S = 0x48;
+    public static final int E1R = 0x49;
+    public static final int E1G = 0x4a;
+    public static final int E1B = 0x4b;
+
+    public static final int E2S = 0x4c;
+    public static final int E2R = 0x4d;
+    public static final int E2G = 0x4e;
+    public static final int E2B = 0x4f;
+
+    public static final int E3S = 0x50;
+    public static final int E3R = 0x51;
+    public static final int E3G = 0x52;
+    public static final int E3B = 0x53;
+
+    public static final int E4S = 0x54;
+    public static final int E4R = 0x55;
+    public static final int E4G = 0x56;
+    public static final int E4B = 0x57;
+
+    public static final int E5S = 0x58;
+    public static final int E5R = 0x59;
+    public static final int E5G = 0x5a;
+    public static final int E5B = 0x5b;
+
+    public static final int E6S = 0x5c;
+    public static final int E6R = 0x5d;
+    public static final int E6G = 0x5e;
+    public static final int E6B = 0x5f;
+
+    public static final int E7S = 0x60;
+    public static final int E7R = 0x61;
+    public static final int E7G = 0x62;
+    public static final int E7B = 0x63;
+}
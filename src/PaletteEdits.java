@@ -0,0 +1,64 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch of sprite palette edits, each changing one palette number (0-7) to another over a range of sprite data.
+ *
+ * Applying the batch gives the same bytes as applying the edits one at a time, in the order they were added, because
+ * that is what it does: each edit walks its range of the ROM as the earlier edits left it. The walks can't be merged
+ * into one per bank. The record separators (0x80) and end markers (0xff) they look for are compared as whole bytes, so
+ * an earlier edit can change where a later walk finds them, and overlapping edits that start at different offsets can
+ * walk the same bytes with different record alignments.
+ */
+final class PaletteEdits {
+    private static final int BANK_SIZE = 0x4000;
+
+    private final List<int[]> edits = new ArrayList<>();
+
+    /**
+     * Add an edit of sprite palette assignments in the given range.
+     *
+     * @param bank  which ROM bank to examine
+     * @param start starting address of palettes to edit
+     * @param end   end address of palettes to edit (should point to a 0x80 byte)
+     * @param from  palette number (0-7) to change from
+     * @param to    palette number (0-7) to change to
+     * @return this batch, for chaining
+     */
+    PaletteEdits add(int bank, int start, int end, int from, int to) {
+        edits.add(new int[]{bank, start, end, from, to});
+        return this;
+    }
+
+    /**
+     * Apply every edit in this batch to the given ROM, in the order they were added.
+     */
+    void apply(RomImage rom) {
+        byte[] romBytes = rom.bytes();
+        for (int[] edit : edits) {
+            int idx = edit[0] * BANK_SIZE;
+            int from = edit[3];
+            int to = edit[4];
+            int offset = edit[1];
+            while (offset < edit[2]) {
+                if ((romBytes[idx+offset] & 0xff) == 0x80) {
+                    offset++;
+                    if ((romBytes[idx+offset] & 0xff) == 0xff &&
+                            (romBytes[idx+offset+1] & 0xff) == 0xff &&
+                            (romBytes[idx+offset+2] & 0xff) == 0xff &&
+                            (romBytes[idx+offset+3] & 0xff) == 0xff) {
+                        break;
+                    }
+                    while ((romBytes[idx+offset+1] & 0xf0) >= 0x40 && (romBytes[idx+offset+1] & 0xf0) <= 0x70) {
+                        offset += 2;
+                    }
+                }
+                offset += 3;
+                if ((romBytes[idx+offset] & 0x07) == from) {
+                    rom.set(idx+offset, (romBytes[idx+offset] & 0xf8) + to);
+                }
+                offset++;
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+import com.google.gson.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * An immutable, preparsed patch file: a list of records, each one a ROM offset and the bytes to write there.
+ * Records are applied in the order they appear in the file.
+ *
+ * Patches are written as JSON (an object mapping decimal offsets to arrays of signed bytes), which is the source of
+ * truth. PatchCompiler converts them to a binary format that loads without any parsing:
+ *
+ *   "WL3P"         magic
+ *   version        1 byte
+ *   source         4-byte CRC32 of the JSON file it was compiled from; see isCompiledFrom
+ *   record count   4 bytes
+ *   records        4-byte offset, 4-byte length, then that many bytes; sorted by offset and never overlapping
+ *   checksum       4-byte CRC32 of everything before it
+ *
+ * All numbers are big-endian.
+ */
+public final class Patch {
+    private static final byte[] MAGIC = {'W', 'L', '3', 'P'};
+    private static final int VERSION = 2;
+
+    private final int[] offsets;
+    private final byte[][] payloads;
+
+    private Patch(int[] offsets, byte[][] payloads) {
+        this.offsets = offsets;
+        this.payloads = payloads;
+    }
+
+    /**
+     * Parse a JSON patch, an object mapping decimal ROM offsets to arrays of bytes.
+     */
+    public static Patch fromJson(String json) {
+        JsonObject jobj = new GsonBuilder().create().fromJson(json, JsonElement.class).getAsJsonObject();
+        List<Integer> offsets = new ArrayList<>();
+        List<byte[]> payloads = new ArrayList<>();
+        for (Map.Entry<String, JsonElement> entry : jobj.entrySet()) {
+            JsonArray array = entry.getValue().getAsJsonArray();
+            byte[] payload = new byte[array.size()];
+            for (int i = 0; i < payload.length; i++) {
+                payload[i] = array.get(i).getAsByte();
+            }
+            offsets.add(Integer.parseInt(entry.getKey()));
+            payloads.add(payload);
+        }
+        int[] offsetArray = new int[offsets.size()];
+        for (int i = 0; i < offsetArray.length; i++) {
+            offsetArray[i] = offsets.get(i);
+        }
+        return new Patch(offsetArray, payloads.toArray(new byte[0][]));
+    }
+
+    /**
+     * Copy the bytes at the given positions of a ROM into a patch, with one record per run of consecutive positions.
+     */
+    public static Patch capture(byte[] romBytes, BitSet positions) {
+        List<Integer> offsets = new ArrayList<>();
+        List<byte[]> payloads = new ArrayList<>();
+        for (int start = positions.nextSetBit(0); start >= 0; ) {
+            int end = positions.nextClearBit(start);
+            offsets.add(start);
+            payloads.add(Arrays.copyOfRange(romBytes, start, end));
+            start = positions.nextSetBit(end);
+        }
+        int[] offsetArray = new int[offsets.size()];
+        for (int i = 0; i < offsetArray.length; i++) {
+            offsetArray[i] = offsets.get(i);
+        }
+        return new Patch(offsetArray, payloads.toArray(new byte[0][]));
+    }
+
+    /**
+     * Read a patch in the binary format.
+     *
+     * @throws IOException if the data isn't a valid binary patch
+     */
+    public static Patch fromBinary(byte[] data) throws IOException {
+        if (data.length < MAGIC.length + 13) {
+            throw new IOException("Binary patch is truncated");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC) || in.readUnsignedByte() != VERSION) {
+            throw new IOException("Not a version " + VERSION + " binary patch");
+        }
+        in.readInt(); // source checksum, checked by isCompiledFrom
+        int count = in.readInt();
+        int[] offsets = new int[count];
+        byte[][] payloads = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = in.readInt();
+            payloads[i] = new byte[in.readInt()];
+            in.readFully(payloads[i]);
+        }
+        if (in.readInt() != (int) crc.getValue() || in.available() != 0) {
+            throw new IOException("Binary patch is corrupt");
+        }
+        return new Patch(offsets, payloads);
+    }
+
+    /**
+     * Check if a binary patch was compiled from the given JSON file, as it is now. A binary patch that is out of date
+     * (or in an older format) fails this, and the JSON should be used instead.
+     *
+     * @param data the binary patch
+     * @param json the raw contents of the JSON patch file
+     */
+    public static boolean isCompiledFrom(byte[] data, byte[] json) {
+        if (data.length < MAGIC.length + 5 || data[MAGIC.length] != VERSION) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        int stored = ((data[MAGIC.length+1] & 0xff) << 24) | ((data[MAGIC.length+2] & 0xff) << 16)
+                | ((data[MAGIC.length+3] & 0xff) << 8) | (data[MAGIC.length+4] & 0xff);
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        return stored == (int) crc.getValue();
+    }
+
+    /**
+     * @param json the raw contents of the JSON file this patch was parsed from, to be identified in the header
+     * @return this patch in the binary format, with its records sorted by offset
+     * @throws IllegalStateException if two records overlap, since sorting them would change which one wins
+     */
+    public byte[] toBinary(byte[] json) {
+        Integer[] order = new Integer[offsets.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return Integer.compare(offsets[o1], offsets[o2]);
+            }
+        });
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            CRC32 source = new CRC32();
+            source.update(json);
+            out.writeInt((int) source.getValue());
+            out.writeInt(order.length);
+            int end = 0;
+            for (int i : order) {
+                if (offsets[i] < end) {
+                    throw new IllegalStateException("Patch records overlap at offset " + offsets[i]);
+                }
+                end = offsets[i] + payloads[i].length;
+                out.writeInt(offsets[i]);
+                out.writeInt(payloads[i].length);
+                out.write(payloads[i]);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // writing to memory can't fail
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Check if the given ROM already contains every byte of this patch.
+     */
+    public boolean isAppliedTo(byte[] romBytes) {
+        for (int i = 0; i < offsets.length; i++) {
+            byte[] payload = payloads[i];
+            int offset = offsets[i];
+            if (offset + payload.length > romBytes.length) {
+                return false;
+            }
+            for (int j = 0; j < payload.length; j++) {
+                if (romBytes[offset + j] != payload[j]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the ROM bytes this patch writes
+     */
+    public ByteRanges ranges() {
+        ByteRanges ranges = new ByteRanges();
+        for (int i = 0; i < offsets.length; i++) {
+            ranges.add(offsets[i], offsets[i] + payloads[i].length);
+        }
+        return ranges;
+    }
+
+    /**
+     * Write this patch's bytes into the given ROM.
+     *
+     * @param romBytes  byte array representing a ROM; modified in place
+     */
+    public void apply(byte[] romBytes) {
+        for (int i = 0; i < offsets.length; i++) {
+            System.arraycopy(payloads[i], 0, romBytes, offsets[i], payloads[i].length);
+        }
+    }
+
+    /**
+     * Write this patch's bytes into the given ROM.
+     */
+    public void apply(RomImage rom) {
+        for (int i = 0; i < offsets.length; i++) {
+            rom.write(offsets[i], payloads[i], 0, payloads[i].length);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Build tool that converts the JSON patch files into the binary format described in Patch. Each foo.json is written
+ * next to itself as foo.bin, which Resources loads in place of the JSON. The .bin records a checksum of the JSON it
+ * came from, and Resources ignores it once the JSON has changed, so rerun this whenever a JSON patch changes:
+ *
+ *   java PatchCompiler src/baseDiff.json src/cutSkipPatch.json src/hintsPatch.json src/mapShufflePatch.json
+ *                      src/powerPatch.json src/keyshuffle/keyShufflePatch.json
+ */
+public class PatchCompiler {
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: java PatchCompiler <patch.json>...");
+            System.exit(2);
+        }
+        for (String arg : args) {
+            Path jsonPath = Paths.get(arg);
+            if (!jsonPath.toString().endsWith(".json")) {
+                System.err.println("Not a JSON patch: " + arg);
+                System.exit(2);
+            }
+            byte[] json = Files.readAllBytes(jsonPath);
+            Patch patch = Patch.fromJson(new String(json, StandardCharsets.UTF_8));
+            byte[] binary = patch.toBinary(json);
+            Path binPath = Paths.get(Resources.binaryPatchName(jsonPath.toString()));
+            Files.write(binPath, binary);
+            System.out.println(binPath + ": " + binary.length + " bytes");
+        }
+    }
+}
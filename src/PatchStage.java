@@ -0,0 +1,59 @@
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One named step of patching a ROM. Stages are run in order with runAll, which times each one.
+ */
+public abstract class PatchStage {
+    private final String name;
+
+    /**
+     * @param name  name of this stage, for timings and flight recorder events
+     */
+    protected PatchStage(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Apply this stage to the given ROM, in place.
+     */
+    protected abstract void apply(RomImage rom) throws IOException;
+
+    /**
+     * Apply the given stages to a ROM, one at a time, in order.
+     *
+     * @param rom     the ROM to patch; modified in place
+     * @param stages  stages to apply, in order
+     * @return how long each stage took, in nanoseconds, by name in stage order
+     */
+    public static Map<String, Long> runAll(RomImage rom, List<PatchStage> stages) throws IOException {
+        Map<String, Long> times = new LinkedHashMap<>();
+        for (PatchStage stage : stages) {
+            times.put(stage.name, stage.run(rom));
+        }
+        return times;
+    }
+
+    /**
+     * Apply this stage, recording a PatchStageEvent if the flight recorder wants one.
+     *
+     * @return how long the stage took, in nanoseconds
+     */
+    private long run(RomImage rom) throws IOException {
+        PatchStageEvent event = new PatchStageEvent();
+        int dirtyBefore = event.isEnabled() ? rom.dirtyBlockCount() : 0;
+        event.begin();
+        long start = System.nanoTime();
+        apply(rom);
+        long nanos = System.nanoTime() - start;
+        event.end();
+        if (event.shouldCommit()) {
+            event.stage = name;
+            event.bytesTouched = (long) (rom.dirtyBlockCount() - dirtyBefore) * RomImage.BLOCK_SIZE;
+            event.commit();
+        }
+        return nanos;
+    }
+}
@@ -0,0 +1,19 @@
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event for one patch stage. Bytes touched are counted in RomImage blocks: it is the size of the blocks
+ * that were first written during the stage, so blocks an earlier stage already wrote to aren't counted again.
+ */
+@Name("wl3.PatchStage")
+@Label("Patch Stage")
+@Category({"WL3 Randomizer", "Patching"})
+@StackTrace(false)
+@Threshold("10 ms")
+class PatchStageEvent extends Event {
+    @Label("Stage")
+    String stage;
+
+    @Label("Bytes Touched")
+    @DataAmount
+    long bytesTouched;
+}
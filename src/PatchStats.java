@@ -0,0 +1,60 @@
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Statistics about one ROM patched by Patcher.patchInPlace.
+ */
+public final class PatchStats {
+    private final int stages;
+    private final ByteRanges changedRanges;
+    private final Map<String, Long> stageNanos;
+    private final long nanos;
+
+    PatchStats(int stages, ByteRanges changedRanges, Map<String, Long> stageNanos, long nanos) {
+        this.stages = stages;
+        this.changedRanges = changedRanges;
+        this.stageNanos = stageNanos;
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return the number of patch stages that were applied
+     */
+    public int getStages() {
+        return stages;
+    }
+
+    /**
+     * @return the parts of the ROM that may have been changed, in ascending order. Changes are tracked in small
+     *         blocks, so unchanged bytes near a changed one may be included.
+     */
+    public ByteRanges getChangedRanges() {
+        return changedRanges;
+    }
+
+    /**
+     * @return the number of bytes in getChangedRanges
+     */
+    public int getChangedBytes() {
+        int bytes = 0;
+        for (int i = 0; i < changedRanges.size(); i++) {
+            bytes += changedRanges.end(i) - changedRanges.start(i);
+        }
+        return bytes;
+    }
+
+    /**
+     * @return how long each patch stage took, in nanoseconds, by name in the order the stages were listed. Stages can
+     *         run at the same time, so these may add up to more than getNanos.
+     */
+    public Map<String, Long> getStageNanos() {
+        return Collections.unmodifiableMap(stageNanos);
+    }
+
+    /**
+     * @return how long patching took, in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+}
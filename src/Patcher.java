@@ -1,19 +1,47 @@
-import com.google.gson.*;
-
-import java.awt.*;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
-import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.*;
 import keyshuffle.KeyLocation;
 import keyshuffle.Level;
 
 public class Patcher {
+    // vanilla ROM with baseDiff applied, keyed by the vanilla ROM's MD5. None of it depends on the seed or options.
+    private static final Map<String, RomImage> baseTemplates = new HashMap<>();
+    // unmodified vanilla ROMs, keyed by MD5, for diffing against when writing patches
+    private static final Map<String, byte[]> vanillaRoms = new HashMap<>();
+    // vanilla ROM files read so far, keyed by path, so an unchanged file doesn't need to be read and hashed again
+    private static final Map<String, VanillaFile> vanillaFiles = new HashMap<>();
+    // the most recent results of revealSecrets, newest first; see revealSecrets. Other options can change the bytes
+    // it reads, so a few are kept for batches that alternate between option sets.
+    private static final int MAX_REVEAL_SECRETS_DELTAS = 4;
+    private static final List<RomDelta> revealSecretsDeltas = new LinkedList<>();
+    // writes finished ROMs to disk, so generation threads don't wait on I/O. A full queue makes the caller write its
+    // own ROM, which keeps batches from piling up finished ROMs in memory.
+    private static final int MAX_PENDING_WRITES = 4;
+    private static final ExecutorService outputWriter = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(MAX_PENDING_WRITES), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "ROM writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+    // copies of non-array ROM buffers passed to patchInPlace, one per thread
+    private static final ThreadLocal<byte[]> scratchRom = new ThreadLocal<>();
 
     /**
      * Create a patched, randomized ROM and write it to disk. Any NULL options will not be shuffled.
      *
+     * The ROM is written in the background; the returned Future completes once it is on disk.
+     *
      * @param vanillaPathStr  path to a vanilla ROM
      * @param treasures       ordered list of randomized treasures
      * @param seed            encoded String representation of the seed used to generate treasures
@@ -28,10 +56,13 @@ public class Patcher {
      * @param keyLocations    list of levels and their key placements
      * @param golfOrder       ordered array of golf course ids
      * @param cutsceneSkip    true if the cutscene skip patch should be applied
+     * @param bpsOutput       true to write a BPS patch against the vanilla ROM instead of a full ROM
      * @param version         String representing current app version
-     * @throws IOException    if something goes wrong reading from or writing to a ROM
+     * @param metrics         where to record how long each patch stage took, or null
+     * @return the pending write, which yields the name of the written file
+     * @throws IOException    if something goes wrong reading from or patching a ROM
      */
-    public static void patch(String vanillaPathStr,
+    public static Future<String> patch(String vanillaPathStr,
                              int[] treasures,
                              String seed,
                              byte[] playthrough,
@@ -47,87 +78,313 @@ public class Patcher {
                              boolean cutsceneSkip,
                              boolean revealSecrets,
                              List<Integer> startingPowers,
-                             String version) throws IOException {
-        Path vanillaPath = new File(vanillaPathStr).toPath();
-        byte[] romBytes = Files.readAllBytes(vanillaPath);
-        romBytes = applyPatch(romBytes, "baseDiff.json");
-        romBytes = treasuresPatch(romBytes, treasures, worldMap);
+                             boolean bpsOutput,
+                             String version,
+                             GenerationMetrics metrics) throws IOException {
+        RomImage rom = baseTemplate(new File(vanillaPathStr)).copy();
+        Map<String, Long> stageNanos = PatchStage.runAll(rom, stages(treasures, playthrough, music, worldMap, levelColors,
+                titleBGColors, otherBGColors, objColors, chestColors, keyLocations, golfOrder, cutsceneSkip, revealSecrets,
+                startingPowers));
+        if (metrics != null) {
+            for (Map.Entry<String, Long> stage : stageNanos.entrySet()) {
+                metrics.addStageTime("patching/" + stage.getKey(), stage.getValue());
+            }
+        }
+        final byte[] vanillaBytes = bpsOutput ? vanillaRom(new File(vanillaPathStr)) : null;
+        return outputWriter.submit(new Callable<String>() {
+            @Override
+            public String call() throws IOException {
+                if (vanillaBytes != null) {
+                    return savePatchFile(vanillaBytes, rom, seed, version);
+                }
+                return savePatchedFile(rom.bytes(), seed, version);
+            }
+        });
+    }
+
+    /**
+     * Patch a vanilla ROM in place, without reading or writing any files. Any NULL options will not be shuffled.
+     *
+     * This is meant for callers that generate many ROMs and want to reuse their own buffers: apart from bookkeeping,
+     * nothing ROM-sized is allocated.
+     *
+     * @param romBytes        an unmodified vanilla ROM, which is patched in place
+     * @return statistics about the patch
+     * @throws IOException    if something goes wrong patching the ROM
+     * @see #patch for the other parameters
+     */
+    public static PatchStats patchInPlace(byte[] romBytes,
+                                          int[] treasures,
+                                          byte[] playthrough,
+                                          Integer[] music,
+                                          Integer[] worldMap,
+                                          int[] levelColors,
+                                          int[] titleBGColors,
+                                          int[] otherBGColors,
+                                          int[] objColors,
+                                          int[] chestColors,
+                                          Level[] keyLocations,
+                                          Integer[] golfOrder,
+                                          boolean cutsceneSkip,
+                                          boolean revealSecrets,
+                                          List<Integer> startingPowers) throws IOException {
+        long start = System.nanoTime();
+        RomImage rom = new RomImage(romBytes);
+        // through the image, so baseDiff's writes are in the returned changed ranges too
+        Resources.getPatch("baseDiff.json").apply(rom);
+        List<PatchStage> stages = stages(treasures, playthrough, music, worldMap, levelColors, titleBGColors, otherBGColors,
+                objColors, chestColors, keyLocations, golfOrder, cutsceneSkip, revealSecrets, startingPowers);
+        Map<String, Long> stageNanos = PatchStage.runAll(rom, stages);
+        return new PatchStats(stages.size(), rom.dirtyRanges(), stageNanos, System.nanoTime() - start);
+    }
+
+    /**
+     * Patch a vanilla ROM in place, without reading or writing any files. Any NULL options will not be shuffled.
+     *
+     * The ROM is the buffer's remaining bytes, which are patched in place; the buffer's position and limit are left
+     * alone. A heap buffer that wraps exactly one whole array is patched directly. Any other buffer (e.g. a direct
+     * buffer) is copied through a scratch array that is kept per thread, so it is only allocated once per thread.
+     *
+     * @param romBuffer       an unmodified vanilla ROM, which is patched in place
+     * @return statistics about the patch
+     * @throws IOException    if something goes wrong patching the ROM
+     * @see #patch for the other parameters
+     */
+    public static PatchStats patchInPlace(ByteBuffer romBuffer,
+                                          int[] treasures,
+                                          byte[] playthrough,
+                                          Integer[] music,
+                                          Integer[] worldMap,
+                                          int[] levelColors,
+                                          int[] titleBGColors,
+                                          int[] otherBGColors,
+                                          int[] objColors,
+                                          int[] chestColors,
+                                          Level[] keyLocations,
+                                          Integer[] golfOrder,
+                                          boolean cutsceneSkip,
+                                          boolean revealSecrets,
+                                          List<Integer> startingPowers) throws IOException {
+        if (romBuffer.hasArray() && romBuffer.arrayOffset() + romBuffer.position() == 0
+                && romBuffer.remaining() == romBuffer.array().length) {
+            return patchInPlace(romBuffer.array(), treasures, playthrough, music, worldMap, levelColors, titleBGColors, otherBGColors,
+                    objColors, chestColors, keyLocations, golfOrder, cutsceneSkip, revealSecrets, startingPowers);
+        }
+        byte[] romBytes = scratchRom.get();
+        if (romBytes == null || romBytes.length != romBuffer.remaining()) {
+            romBytes = new byte[romBuffer.remaining()];
+            scratchRom.set(romBytes);
+        }
+        romBuffer.duplicate().get(romBytes);
+        PatchStats stats = patchInPlace(romBytes, treasures, playthrough, music, worldMap, levelColors, titleBGColors, otherBGColors,
+                objColors, chestColors, keyLocations, golfOrder, cutsceneSkip, revealSecrets, startingPowers);
+        romBuffer.duplicate().put(romBytes);
+        return stats;
+    }
+
+    /**
+     * Build the list of patch stages for the given options. Any NULL options will not be shuffled.
+     *
+     * @see #patch for the parameters
+     */
+    private static List<PatchStage> stages(int[] treasures,
+                                           byte[] playthrough,
+                                           Integer[] music,
+                                           Integer[] worldMap,
+                                           int[] levelColors,
+                                           int[] titleBGColors,
+                                           int[] otherBGColors,
+                                           int[] objColors,
+                                           int[] chestColors,
+                                           Level[] keyLocations,
+                                           Integer[] golfOrder,
+                                           boolean cutsceneSkip,
+                                           boolean revealSecrets,
+                                           List<Integer> startingPowers) throws IOException {
+        List<PatchStage> stages = new ArrayList<>();
+        stages.add(new PatchStage("treasures") {
+            @Override
+            protected void apply(RomImage rom) {
+                treasuresPatch(rom, treasures, worldMap);
+            }
+        });
         if (playthrough != null) {
-            romBytes = hintPatch(romBytes, playthrough);
+            stages.add(new PatchStage("hints") {
+                @Override
+                protected void apply(RomImage rom) throws IOException {
+                    hintPatch(rom, playthrough);
+                }
+            });
         }
         if (music != null) {
-            romBytes = musicPatch(romBytes, music);
+            stages.add(new PatchStage("music") {
+                @Override
+                protected void apply(RomImage rom) {
+                    musicPatch(rom, music);
+                }
+            });
         }
         if (keyLocations != null) {
-            romBytes = keyShufflePatch(romBytes, keyLocations);
+            stages.add(new PatchStage("keyShuffle") {
+                @Override
+                protected void apply(RomImage rom) throws IOException {
+                    keyShufflePatch(rom, keyLocations);
+                }
+            });
         }
         if (worldMap != null) {
-            romBytes = mapPatch(romBytes, worldMap, keyLocations != null);
+            stages.add(new PatchStage("mapShuffle") {
+                @Override
+                protected void apply(RomImage rom) throws IOException {
+                    mapPatch(rom, worldMap, keyLocations != null);
+                }
+            });
         }
         if (golfOrder != null) {
-            romBytes = shuffleGolf(romBytes, golfOrder);
+            stages.add(new PatchStage("golf") {
+                @Override
+                protected void apply(RomImage rom) {
+                    shuffleGolf(rom, golfOrder);
+                }
+            });
         }
         if (levelColors != null) {
-            romBytes = shuffleBGPalettes(romBytes,levelColors);
+            stages.add(new PatchStage("levelColors") {
+                @Override
+                protected void apply(RomImage rom) {
+                    shuffleBGPalettes(rom, levelColors);
+                }
+            });
         }
         if (titleBGColors != null) {
-            romBytes = shuffleTitleBGPalettes(romBytes,titleBGColors);
+            stages.add(new PatchStage("titleColors") {
+                @Override
+                protected void apply(RomImage rom) {
+                    shuffleTitleBGPalettes(rom, titleBGColors);
+                }
+            });
         }
         if (otherBGColors != null) {
-            romBytes = shuffleOtherBGPalettes(romBytes,otherBGColors);
+            stages.add(new PatchStage("otherColors") {
+                @Override
+                protected void apply(RomImage rom) {
+                    shuffleOtherBGPalettes(rom, otherBGColors);
+                }
+            });
         }
         if (objColors != null) {
-            romBytes = shuffleObjPalettes(romBytes, objColors);
+            stages.add(new PatchStage("objColors") {
+                @Override
+                protected void apply(RomImage rom) {
+                    shuffleObjPalettes(rom, objColors);
+                }
+            });
         }
         if (chestColors != null) {
-            romBytes = shuffleChestPalettes(romBytes, chestColors);
+            stages.add(new PatchStage("chestColors") {
+                @Override
+                protected void apply(RomImage rom) {
+                    shuffleChestPalettes(rom, chestColors);
+                }
+            });
         }
         if (cutsceneSkip) {
-            romBytes = applyPatch(romBytes,"cutSkipPatch.json");
+            stages.add(new PatchStage("cutsceneSkip") {
+                @Override
+                protected void apply(RomImage rom) throws IOException {
+                    applyPatch(rom, "cutSkipPatch.json");
+                }
+            });
         }
         if (startingPowers != null && startingPowers.size() > 0) {
-            romBytes = addStartingPowers(romBytes, startingPowers);
+            stages.add(new PatchStage("startingPowers") {
+                @Override
+                protected void apply(RomImage rom) throws IOException {
+                    addStartingPowers(rom, startingPowers);
+                }
+            });
         }
         if (revealSecrets) {
-            romBytes = revealSecrets(romBytes);
+            stages.add(new PatchStage("revealSecrets") {
+                @Override
+                protected void apply(RomImage rom) {
+                    revealSecrets(rom);
+                }
+            });
         }
-        savePatchedFile(romBytes, seed, version);
+        return stages;
     }
 
     /**
-     * Given a byte array representing a ROM, apply the given patch file.
+     * Get the given vanilla ROM with baseDiff applied. This is only built once per distinct ROM; callers must copy
+     * the result before modifying it.
      *
-     * @return byte array representing a patched ROM
-     * @throws IOException
+     * @param vanillaFile  a vanilla ROM
+     * @return the base-patched ROM
      */
-    private static byte[] applyPatch(byte[] romBytes, String patchName) throws IOException {
-            Gson gson = new GsonBuilder().create();
-            ClassLoader classLoader = Patcher.class.getClassLoader();
-            InputStream baseDiff = Patcher.class.getResourceAsStream(patchName);
-            BufferedReader br = new BufferedReader(new InputStreamReader(baseDiff));
-            String diffStr = br.readLine();
-            br.close();
-            JsonElement jelem = gson.fromJson(diffStr, JsonElement.class);
-            JsonObject jobj = jelem.getAsJsonObject();
-            for (Map.Entry<String, JsonElement> entry : jobj.entrySet()) {
-                int index = Integer.parseInt(entry.getKey());
-                JsonArray array = entry.getValue().getAsJsonArray();
-                for (int i = 0; i < array.size(); i++) {
-                    romBytes[index] = array.get(i).getAsByte();
-                    index++;
-                }
+    private static RomImage baseTemplate(File vanillaFile) throws IOException {
+        synchronized (baseTemplates) {
+            return baseTemplates.get(loadVanillaFile(vanillaFile));
+        }
+    }
+
+    /**
+     * Get the given vanilla ROM, unmodified. Callers must not modify the result.
+     *
+     * @param vanillaFile  a vanilla ROM
+     * @return byte array representing the vanilla ROM
+     */
+    private static byte[] vanillaRom(File vanillaFile) throws IOException {
+        synchronized (baseTemplates) {
+            return vanillaRoms.get(loadVanillaFile(vanillaFile));
+        }
+    }
+
+    /**
+     * Read the given vanilla ROM and build its base template, unless it has already been read and hasn't changed
+     * since. Callers must hold the lock on baseTemplates.
+     *
+     * @param vanillaFile  a vanilla ROM
+     * @return the vanilla ROM's MD5, its key in baseTemplates and vanillaRoms
+     */
+    private static String loadVanillaFile(File vanillaFile) throws IOException {
+        String path = vanillaFile.getAbsolutePath();
+        VanillaFile known = vanillaFiles.get(path);
+        if (known == null || known.length != vanillaFile.length() || known.lastModified != vanillaFile.lastModified()) {
+            long length = vanillaFile.length();
+            long lastModified = vanillaFile.lastModified();
+            byte[] romBytes = Files.readAllBytes(vanillaFile.toPath());
+            known = new VanillaFile(length, lastModified, Main.md5(romBytes));
+            vanillaFiles.put(path, known);
+            if (!baseTemplates.containsKey(known.md5)) {
+                vanillaRoms.put(known.md5, romBytes);
+                byte[] template = romBytes.clone();
+                Resources.getPatch("baseDiff.json").apply(template);
+                baseTemplates.put(known.md5, new RomImage(template));
             }
-            return romBytes;
+        }
+        return known.md5;
+    }
+
+    /**
+     * Given a ROM, apply the given patch file.
+     *
+     * @return the patched ROM
+     * @throws IOException
+     */
+    private static RomImage applyPatch(RomImage rom, String patchName) throws IOException {
+        Resources.getPatch(patchName).apply(rom);
+        return rom;
     }
 
     /**
      * Modify the treasure table in a given ROM.
      *
-     * @param romBytes  byte array representing a WL3 ROM
+     * @param rom       a WL3 ROM
      * @param treasures Randomized list of treasures
-     * @return byte array representing the new ROM
+     * @return the new ROM
      */
-    private static byte[] treasuresPatch(byte[] romBytes, int[] treasures, Integer[] worldMap) {
+    private static RomImage treasuresPatch(RomImage rom, int[] treasures, Integer[] worldMap) {
         int idx = 0x198f;
         for (int i = 0; i < treasures.length; i++) {
             int treasureIdx = i;
@@ -138,9 +395,9 @@ public class Patcher {
                 treasureIdx = (worldMap[i/4] * 4) + (i%4);
             }
 
-            romBytes[idx+i] = (byte)treasures[treasureIdx];
+            rom.set(idx+i, (byte)treasures[treasureIdx]);
         }
-        return romBytes;
+        return rom;
     }
 
     /**
@@ -149,15 +406,15 @@ public class Patcher {
      * @param playthrough Ordered list of treasures to hint at
      * @throws IOException
      */
-    private static byte[] hintPatch(byte[] romBytes, byte[] playthrough) throws IOException {
+    private static RomImage hintPatch(RomImage rom, byte[] playthrough) throws IOException {
         int idx = 0x82cc0;
-        romBytes[idx] = (byte)0x00;
+        rom.set(idx, (byte)0x00);
         for (int i = 0; i < playthrough.length; i++) {
-            romBytes[idx+1+i] = playthrough[i];
+            rom.set(idx+1+i, playthrough[i]);
         }
-        romBytes[idx+1+playthrough.length] = (byte)0xeb;
-        romBytes = applyPatch(romBytes, "hintsPatch.json");
-        return romBytes;
+        rom.set(idx+1+playthrough.length, (byte)0xeb);
+        rom = applyPatch(rom, "hintsPatch.json");
+        return rom;
     }
 
     /**
@@ -165,7 +422,8 @@ public class Patcher {
      *
      * @param music List of music IDs to use.
      */
-    private static byte[] musicPatch(byte[] romBytes, Integer[] music) {
+    private static RomImage musicPatch(RomImage rom, Integer[] music) {
+        byte[] romBytes = rom.bytes();
         int idx = 0x3fe00;
         for (int i = 0; i < music.length; i++) {
             if (i < 61) {
@@ -176,17 +434,17 @@ public class Patcher {
                     while (romBytes[idx] == (byte) 0xFF || romBytes[idx] == (byte) 0x00) {
                         idx++;
                     }
-                    romBytes[idx] = music[i].byteValue();
+                    rom.set(idx, music[i].byteValue());
                     idx++;
                 }
             }
             else {
                 int[] otherAddrs = {0x168a, 0x168c, 0x168e, 0x3ba5, 0x3bb2, 0x448e, 0x4cf0d, 0x9a3df, 0xace55, 0xae628, 0xaf7f5, 0xdb381, 0xdc060, /*0x1600f4,*/ 0x1c80b4, 0x1c89e4, 0x1e01b7, 0x1e01e3, 0x1f00a6, 0x1f802a};
-                romBytes[otherAddrs[i-61]] = music[i].byteValue();
+                rom.set(otherAddrs[i-61], music[i].byteValue());
             }
         }
-        romBytes[0x44f5] = romBytes[0x448e]; // titlescreen music loaded twice in quick succession from different places (volume related??)
-        return romBytes;
+        rom.set(0x44f5, romBytes[0x448e]); // titlescreen music loaded twice in quick succession from different places (volume related??)
+        return rom;
     }
 
     /**
@@ -196,27 +454,28 @@ public class Patcher {
      * @return
      * @throws IOException
      */
-    private static byte[] mapPatch(byte[] romBytes, Integer[] worldMap, boolean keyShuffle) throws IOException {
+    private static RomImage mapPatch(RomImage rom, Integer[] worldMap, boolean keyShuffle) throws IOException {
+        byte[] romBytes = rom.bytes();
         // logic update patch, allowing for levels from the first half of the game to appear in the second and vice versa
-        romBytes = applyPatch(romBytes, "mapShufflePatch.json");
+        rom = applyPatch(rom, "mapShufflePatch.json");
         // reorder level tile/object pointer table
-        romBytes = scrambleLevels(romBytes,worldMap, 16, 0xc00be);
+        rom = scrambleLevels(rom,worldMap, 16, 0xc00be);
         // reorder level warp pointer table
-        romBytes = scrambleLevels(romBytes,worldMap, 16, 0xc0319);
+        rom = scrambleLevels(rom,worldMap, 16, 0xc0319);
         // reorder level entry table
-        romBytes = scrambleLevels(romBytes,worldMap, 8, 0x4eba);
+        rom = scrambleLevels(rom,worldMap, 8, 0x4eba);
         // reassign nameplates on world map in both english and japanese
         int[] gfxSkips = {6, 13, 14, 21, 22};
-        romBytes = scrambleLevels(romBytes,worldMap, 0x200, 0x94200, gfxSkips);
-        romBytes = scrambleLevels(romBytes,worldMap, 0x200, 0x90200, gfxSkips);
+        rom = scrambleLevels(rom,worldMap, 0x200, 0x94200, gfxSkips);
+        rom = scrambleLevels(rom,worldMap, 0x200, 0x90200, gfxSkips);
         // reassign text level names (for temple hints) in both english and japanese
-        romBytes = scrambleHintText(romBytes,worldMap,0xb211a,0x74000);
-        romBytes[0xacc4b] = (byte)0x00;
-        romBytes[0xacc4c] = (byte)0x40;
-        romBytes[0xacc4e] = (byte)0x1D;
-        romBytes = scrambleHintText(romBytes,worldMap,0xb1fd7, 0x74220);
-        romBytes[0xacc46] = (byte)0x20;
-        romBytes[0xacc47] = (byte)0x42;
+        rom = scrambleHintText(rom,worldMap,0xb211a,0x74000);
+        rom.set(0xacc4b, (byte)0x00);
+        rom.set(0xacc4c, (byte)0x40);
+        rom.set(0xacc4e, (byte)0x1D);
+        rom = scrambleHintText(rom,worldMap,0xb1fd7, 0x74220);
+        rom.set(0xacc46, (byte)0x20);
+        rom.set(0xacc47, (byte)0x42);
 
         // the warp data for all North and West levels is stored in bank 0x30, while the warp data for all
         // South and East levels is stored in 0x31. For the patch to work we need to supply a list of which
@@ -233,11 +492,11 @@ public class Patcher {
                 grasslandsIdx = i;
                 continue;
             }
-            romBytes[idx+offset] = (byte)i;
+            rom.set(idx+offset, (byte)i);
             offset++;
         }
-        romBytes[idx+offset] = (byte)0xff;
-        romBytes[idx+offset+1] = (byte)grasslandsIdx;
+        rom.set(idx+offset, (byte)0xff);
+        rom.set(idx+offset+1, (byte)grasslandsIdx);
         // similarly, we need to update level #s in the transition level swap table, and then sort them by level #
         idx = 0x3cd4;
         List<byte[]> levelTransitionSwaps = new Vector<>();
@@ -260,19 +519,19 @@ public class Patcher {
         idx = 0x3cd4;
         for (byte[] swap : levelTransitionSwaps) {
             for (byte i : swap) {
-                romBytes[idx] = i;
+                rom.set(idx, i);
                 idx++;
             }
         }
 
         if (keyShuffle) {
-            scrambleLevels(romBytes,worldMap,3,0x36eb);
+            scrambleLevels(rom,worldMap,3,0x36eb);
         }
 
         // also scramble the music table
-        scrambleLevels(romBytes, worldMap, 16, 0x3fe40);
+        scrambleLevels(rom, worldMap, 16, 0x3fe40);
 
-        return romBytes;
+        return rom;
     }
 
     /**
@@ -282,8 +541,25 @@ public class Patcher {
      * @param entrySize size of each block of data to move
      * @param idx       index of the first byte of the first block to move
      */
-    private static byte[] scrambleLevels(byte[] romBytes, Integer[] worldMap, int entrySize, int idx) {
-        return scrambleLevels(romBytes,worldMap,entrySize,idx,new int[0]);
+    private static RomImage scrambleLevels(RomImage rom, Integer[] worldMap, int entrySize, int idx) {
+        return scrambleLevels(rom,worldMap,entrySize,idx,new int[0]);
+    }
+
+    /**
+     * Reorder a section of rom (typically a table) to match the reordered world map.
+     *
+     * @param worldMap  list of level IDs in the order they appear in-game
+     * @param entrySize size of each block of data to move
+     * @param idx       index of the first byte of the first block to move
+     * @param skips     a list of indexes to skip; blocks with these indexes will be passed over as if they didn't exist.
+     */
+    private static RomImage scrambleLevels(RomImage rom, Integer[] worldMap, int entrySize, int idx, int[] skips) {
+        // reorder a copy of the whole table (skipped blocks included), then write it back in one go
+        int tableSize = (worldMap.length + skips.length) * entrySize;
+        byte[] table = Arrays.copyOfRange(rom.bytes(), idx, idx + tableSize);
+        scrambleLevels(table,worldMap,entrySize,0,skips);
+        rom.write(idx, table, 0, tableSize);
+        return rom;
     }
 
     /**
@@ -333,8 +609,8 @@ public class Patcher {
      * @param worldMap List of level IDs, in the order they appear on the map
      * @param idx      Index of first byte of first string to reorder
      */
-    private static byte[] scrambleHintText(byte[] romBytes, Integer[] worldMap, int idx) {
-        return scrambleHintText(romBytes,worldMap,idx,idx);
+    private static RomImage scrambleHintText(RomImage rom, Integer[] worldMap, int idx) {
+        return scrambleHintText(rom,worldMap,idx,idx);
     }
 
     /**
@@ -344,82 +620,42 @@ public class Patcher {
      * @param idx      Index of first byte of first string to reorder
      * @param outIdx   Index of where to rewrite level names
      */
-    private static byte[] scrambleHintText(byte[] romBytes, Integer[] worldMap, int idx, int outIdx) {
+    private static RomImage scrambleHintText(RomImage rom, Integer[] worldMap, int idx, int outIdx) {
+        byte[] romBytes = rom.bytes();
         // first, decompress level text as one big string
         byte[] levelText = new byte[64*16];
-        int offset = 0;
-        int textIdx = 0;
-        while (textIdx < levelText.length) {
-            int len = (romBytes[idx+offset] & 0xff) - 0x80;
-            offset++;
-            for (int i = 0; i < len; i++) {
-                levelText[textIdx] = (byte)(romBytes[idx+offset] & 0xff);
-                textIdx++;
-                offset++;
-            }
-            len = romBytes[idx+offset] & 0xff;
-            offset++;
-            offset++;
-            for (int i = 0; i < len; i++) {
-                levelText[textIdx] = (byte)0x7f;
-                textIdx++;
-            }
-        }
+        RleCodec.decodeText(romBytes, idx, levelText);
 
         // swap level names around
         int[] skips = {0, 1, 8, 15, 22}; // empty spaces where N7, W7, and S7 would be
         levelText = scrambleLevels(levelText,worldMap,32,0, skips);
 
         // compress level names again
-        List<Byte> compressedNames = new Vector<>();
-        textIdx = 0;
-        while (textIdx < levelText.length) {
-            // find three or more spaces in a row to signify end of string
-            int scanIdx = textIdx;
-            while (scanIdx < levelText.length - 2 && (levelText[scanIdx] != 0x7f || levelText[scanIdx+1] != 0x7f || levelText[scanIdx+2] != 0x7f)) {
-                scanIdx++;
-            }
-            // write string length followed by string
-            int len = scanIdx - textIdx;
-            compressedNames.add((byte)(0x80 + (len & 0xff)));
-            for (int i = 0; i < len; i++) {
-                compressedNames.add(levelText[textIdx]);
-                textIdx++;
-            }
-            // determine number of spaces between this string and next
-            scanIdx = textIdx;
-            while (scanIdx < levelText.length && levelText[scanIdx] == 0x7f) {
-                scanIdx++;
-            }
-            len = scanIdx - textIdx;
-            compressedNames.add((byte)len);
-            compressedNames.add((byte)0x7f);
-            textIdx = scanIdx;
-        }
+        ByteSink compressedNames = new ByteSink(levelText.length);
+        RleCodec.encodeText(levelText, compressedNames);
         // persist recompressed text to the working copy of the ROM
-        for (int i = 0; i < compressedNames.size(); i++) {
-            romBytes[outIdx + i] = compressedNames.get(i);
-        }
+        compressedNames.copyTo(rom, outIdx);
         if (idx != outIdx) {
             //add ending tag
-            romBytes[outIdx + compressedNames.size()] = (byte) 0x00;
-            romBytes[outIdx + compressedNames.size() + 1] = (byte) 0x7f;
+            rom.set(outIdx + compressedNames.size(), (byte) 0x00);
+            rom.set(outIdx + compressedNames.size() + 1, (byte) 0x7f);
         }
 
-        return romBytes;
+        return rom;
     }
 
     /**
      * Rotate level background palettes by the given amounts.
      */
-    private static byte[] shuffleBGPalettes(byte[] romBytes, int[] switches) {
+    private static RomImage shuffleBGPalettes(RomImage rom, int[] switches) {
+        byte[] romBytes = rom.bytes();
         // c0b1b = start of table, +C8000
         int tableIdx = 0xc0b1b;
         int palIdx = 0xc8000;
         for (int i = 0; i < switches.length; i += 8) {
             int offset = ((romBytes[tableIdx+(i/4)+1] & 0xff) << 8) + (romBytes[tableIdx+(i/4)] & 0xff);
             for (int j = 0; j < 64; j += 8) {
-                romBytes = swapColors(romBytes, palIdx + offset + j, switches[i+j/8], false);
+                rom = swapColors(rom, palIdx + offset + j, switches[i+j/8], false);
             }
         }
 
@@ -476,26 +712,27 @@ public class Patcher {
             int targetOffset = setOffset + targetPal*8 + targetCol*2;
             int srcOffset = setOffset + srcPal*8 + srcCol*2;
 
-            romBytes[palIdx + targetOffset] = romBytes[palIdx + srcOffset];
-            romBytes[palIdx + targetOffset + 1] = romBytes[palIdx + srcOffset + 1];
+            rom.set(palIdx + targetOffset, romBytes[palIdx + srcOffset]);
+            rom.set(palIdx + targetOffset + 1, romBytes[palIdx + srcOffset + 1]);
         }
 
-        return romBytes;
+        return rom;
     }
 
     /**
      * Apply randomized colors to title screen.
      */
-    private static byte[] shuffleTitleBGPalettes(byte[] romBytes, int[] colors) {
+    private static RomImage shuffleTitleBGPalettes(RomImage rom, int[] colors) {
+        byte[] romBytes = rom.bytes();
         int tableIdx = 0x5002;
         // rotate four key palettes; build the remaining four from those palettes
         int[] entriesToShuffle = {1, 4, 5, 7};
         for (int i = 0; i < entriesToShuffle.length; i++) {
-            romBytes = swapColors(romBytes, tableIdx + entriesToShuffle[i]*8, colors[i], false);
+            rom = swapColors(rom, tableIdx + entriesToShuffle[i]*8, colors[i], false);
         }
         // treat 2 and 3 same as 1 and 4
-        romBytes = swapColors(romBytes, tableIdx + 2*8, colors[0], false);
-        romBytes = swapColors(romBytes, tableIdx + 3*8, colors[1], false);
+        rom = swapColors(rom, tableIdx + 2*8, colors[0], false);
+        rom = swapColors(rom, tableIdx + 3*8, colors[1], false);
 
         int[] entriesToBuild = {0, 2, 3, 6};
         int[][][] copies = {
@@ -509,33 +746,33 @@ public class Patcher {
             for (int j = 0; j < copies[i].length; j++) {
                 int[] copy = copies[i][j];
                 if (copy[0] < 0) continue;
-                romBytes[tableIdx + pal*8 + j*2] = romBytes[tableIdx + copy[0]*8 + copy[1]*2];
-                romBytes[tableIdx + pal*8 + j*2 + 1] = romBytes[tableIdx + copy[0]*8 + copy[1]*2 + 1];
+                rom.set(tableIdx + pal*8 + j*2, romBytes[tableIdx + copy[0]*8 + copy[1]*2]);
+                rom.set(tableIdx + pal*8 + j*2 + 1, romBytes[tableIdx + copy[0]*8 + copy[1]*2 + 1]);
             }
         }
 
         // this is weird, but we need to edit one sprite's color to not stand out (OBJ 2.2)
         int titleSprIdx = 0x5042;
-        romBytes[titleSprIdx + 2*8 + 2*2] = romBytes[tableIdx + 2*8 + 2*2];
-        romBytes[titleSprIdx + 2*8 + 2*2 + 1] = romBytes[tableIdx + 2*8 + 2*2 + 1];
+        rom.set(titleSprIdx + 2*8 + 2*2, romBytes[tableIdx + 2*8 + 2*2]);
+        rom.set(titleSprIdx + 2*8 + 2*2 + 1, romBytes[tableIdx + 2*8 + 2*2 + 1]);
 
         // also edit intro palettes to match
         int introIdx = 0x4f82;
         for (int i = 0; i < 20; i++) {
-            romBytes[introIdx + i*2] = romBytes[tableIdx];
-            romBytes[introIdx + i*2 + 1] = romBytes[tableIdx + 1];
+            rom.set(introIdx + i*2, romBytes[tableIdx]);
+            rom.set(introIdx + i*2 + 1, romBytes[tableIdx + 1]);
         }
         for (int i = 0; i < 24; i++) {
-            romBytes[introIdx + 40 + i] = romBytes[tableIdx + 40 + i];
+            rom.set(introIdx + 40 + i, romBytes[tableIdx + 40 + i]);
         }
 
-        return romBytes;
+        return rom;
     }
 
     /**
      * Apply randomized colors to misc screens.
      */
-    private static byte[] shuffleOtherBGPalettes(byte[] romBytes, int[] colors) {
+    private static RomImage shuffleOtherBGPalettes(RomImage rom, int[] colors) {
         int[] indexes = {
                 0x1ca1cf, // golf lobby
                 0x1ca08f, // golf
@@ -548,17 +785,18 @@ public class Patcher {
         for (int i = 0; i < indexes.length; i++) {
             int idx = indexes[i];
             for (int j = 0; j < 8; j++) {
-                romBytes = swapColors(romBytes, idx + j*8, colors[i],false);
+                rom = swapColors(rom, idx + j*8, colors[i],false);
             }
         }
 
-        return romBytes;
+        return rom;
     }
 
     /**
      * Rotate sprite palettes by the given amounts.
      */
-    private static byte[] shuffleObjPalettes(byte[] romBytes, int[] colors) {
+    private static RomImage shuffleObjPalettes(RomImage rom, int[] colors) {
+        byte[] romBytes = rom.bytes();
         int idx = 0x65251;
         int offset = 0;
         int colorIdx = 8;
@@ -570,84 +808,85 @@ public class Patcher {
             }
             offset += 2; // now we're looking at object palettes!
             for (int i = 0; i < 4; i++) {
-                romBytes = swapColors(romBytes,idx+offset,colors[colorIdx], false);
+                rom = swapColors(rom,idx+offset,colors[colorIdx], false);
                 offset += 8;
                 colorIdx++;
             }
         }
 
         // rotate rudy's colors
-        romBytes = swapColors(romBytes,0xdb000,colors[1],false);
-        romBytes = swapColors(romBytes,0xdb008,colors[1],false);
-        romBytes = swapColors(romBytes,0xdb010,colors[1],false);
-        romBytes = swapColors(romBytes,0xdb018,colors[1],false);
-        romBytes = swapColors(romBytes,0xdb020,colors[2],false);
-        romBytes = swapColors(romBytes,0xdb028,colors[3],false);
-        romBytes = swapColors(romBytes,0xdb030,colors[4],false);
-        romBytes = swapColors(romBytes,0xdb038,colors[5],false);
-        romBytes = swapColors(romBytes,0xdb040,colors[6],false);
-        romBytes = swapColors(romBytes,0xdb048,colors[1],false);
-        romBytes = swapColors(romBytes,0xdb050,colors[7],false);
-        romBytes = swapColors(romBytes,0xdb058,colors[7],false);
-        romBytes = swapColors(romBytes,0xdb060,colors[7],false);
-
-        romBytes = swapColors(romBytes,0x4d01b,colors[1],false);
-        romBytes = swapColors(romBytes,0x4d023,colors[1],false);
-        romBytes = swapColors(romBytes,0x4d02b,colors[1],false);
-        romBytes = swapColors(romBytes,0x4d033,colors[1],false);
-        romBytes = swapColors(romBytes,0x4d03b,colors[2],false);
-        romBytes = swapColors(romBytes,0x4d043,colors[3],false);
-
-        romBytes = swapColors(romBytes,0x4d04b,colors[1],false);
-        romBytes = swapColors(romBytes,0x4d053,colors[1],false);
-        romBytes = swapColors(romBytes,0x4d05b,colors[1],false);
-        romBytes = swapColors(romBytes,0x4d063,colors[1],false);
-        romBytes = swapColors(romBytes,0x4d06b,colors[2],false);
-        romBytes = swapColors(romBytes,0x4d073,colors[3],false);
-
-        romBytes = swapColors(romBytes,0x4d07b,colors[1],false);
-        romBytes = swapColors(romBytes,0x4d083,colors[1],false);
-        romBytes = swapColors(romBytes,0x4d08b,colors[1],false);
-        romBytes = swapColors(romBytes,0x4d093,colors[1],false);
-        romBytes = swapColors(romBytes,0x4d09b,colors[2],false);
-        romBytes = swapColors(romBytes,0x4d0a3,colors[3],false);
+        rom = swapColors(rom,0xdb000,colors[1],false);
+        rom = swapColors(rom,0xdb008,colors[1],false);
+        rom = swapColors(rom,0xdb010,colors[1],false);
+        rom = swapColors(rom,0xdb018,colors[1],false);
+        rom = swapColors(rom,0xdb020,colors[2],false);
+        rom = swapColors(rom,0xdb028,colors[3],false);
+        rom = swapColors(rom,0xdb030,colors[4],false);
+        rom = swapColors(rom,0xdb038,colors[5],false);
+        rom = swapColors(rom,0xdb040,colors[6],false);
+        rom = swapColors(rom,0xdb048,colors[1],false);
+        rom = swapColors(rom,0xdb050,colors[7],false);
+        rom = swapColors(rom,0xdb058,colors[7],false);
+        rom = swapColors(rom,0xdb060,colors[7],false);
+
+        rom = swapColors(rom,0x4d01b,colors[1],false);
+        rom = swapColors(rom,0x4d023,colors[1],false);
+        rom = swapColors(rom,0x4d02b,colors[1],false);
+        rom = swapColors(rom,0x4d033,colors[1],false);
+        rom = swapColors(rom,0x4d03b,colors[2],false);
+        rom = swapColors(rom,0x4d043,colors[3],false);
+
+        rom = swapColors(rom,0x4d04b,colors[1],false);
+        rom = swapColors(rom,0x4d053,colors[1],false);
+        rom = swapColors(rom,0x4d05b,colors[1],false);
+        rom = swapColors(rom,0x4d063,colors[1],false);
+        rom = swapColors(rom,0x4d06b,colors[2],false);
+        rom = swapColors(rom,0x4d073,colors[3],false);
+
+        rom = swapColors(rom,0x4d07b,colors[1],false);
+        rom = swapColors(rom,0x4d083,colors[1],false);
+        rom = swapColors(rom,0x4d08b,colors[1],false);
+        rom = swapColors(rom,0x4d093,colors[1],false);
+        rom = swapColors(rom,0x4d09b,colors[2],false);
+        rom = swapColors(rom,0x4d0a3,colors[3],false);
 
         // need to clean up a few colors for rudy
-        romBytes[0xdb020] = romBytes[0xdb000];
-        romBytes[0xdb021] = romBytes[0xdb001];
-        romBytes[0xdb024] = romBytes[0xdb02c];
-        romBytes[0xdb025] = romBytes[0xdb02d];
-        romBytes[0xdb028] = romBytes[0xdb000];
-        romBytes[0xdb029] = romBytes[0xdb001];
-
-        romBytes[0x4d03b] = romBytes[0x4d01b];
-        romBytes[0x4d03c] = romBytes[0x4d01c];
-        romBytes[0x4d03f] = romBytes[0x4d047];
-        romBytes[0x4d040] = romBytes[0x4d048];
-        romBytes[0x4d043] = romBytes[0x4d01b];
-        romBytes[0x4d044] = romBytes[0x4d01c];
-
-        romBytes[0x4d06b] = romBytes[0x4d04b];
-        romBytes[0x4d06c] = romBytes[0x4d04c];
-        romBytes[0x4d06f] = romBytes[0x4d077];
-        romBytes[0x4d070] = romBytes[0x4d078];
-        romBytes[0x4d073] = romBytes[0x4d04b];
-        romBytes[0x4d074] = romBytes[0x4d04c];
-
-        romBytes[0x4d09b] = romBytes[0x4d07b];
-        romBytes[0x4d09c] = romBytes[0x4d07c];
-        romBytes[0x4d09f] = romBytes[0x4d0a7];
-        romBytes[0x4d0a0] = romBytes[0x4d0a8];
-        romBytes[0x4d0a3] = romBytes[0x4d07b];
-        romBytes[0x4d0a4] = romBytes[0x4d07c];
-
-        return romBytes;
+        rom.set(0xdb020, romBytes[0xdb000]);
+        rom.set(0xdb021, romBytes[0xdb001]);
+        rom.set(0xdb024, romBytes[0xdb02c]);
+        rom.set(0xdb025, romBytes[0xdb02d]);
+        rom.set(0xdb028, romBytes[0xdb000]);
+        rom.set(0xdb029, romBytes[0xdb001]);
+
+        rom.set(0x4d03b, romBytes[0x4d01b]);
+        rom.set(0x4d03c, romBytes[0x4d01c]);
+        rom.set(0x4d03f, romBytes[0x4d047]);
+        rom.set(0x4d040, romBytes[0x4d048]);
+        rom.set(0x4d043, romBytes[0x4d01b]);
+        rom.set(0x4d044, romBytes[0x4d01c]);
+
+        rom.set(0x4d06b, romBytes[0x4d04b]);
+        rom.set(0x4d06c, romBytes[0x4d04c]);
+        rom.set(0x4d06f, romBytes[0x4d077]);
+        rom.set(0x4d070, romBytes[0x4d078]);
+        rom.set(0x4d073, romBytes[0x4d04b]);
+        rom.set(0x4d074, romBytes[0x4d04c]);
+
+        rom.set(0x4d09b, romBytes[0x4d07b]);
+        rom.set(0x4d09c, romBytes[0x4d07c]);
+        rom.set(0x4d09f, romBytes[0x4d0a7]);
+        rom.set(0x4d0a0, romBytes[0x4d0a8]);
+        rom.set(0x4d0a3, romBytes[0x4d07b]);
+        rom.set(0x4d0a4, romBytes[0x4d07c]);
+
+        return rom;
     }
 
     /**
      * Apply colors to the key/chest palettes.
      */
-    private static byte[] shuffleChestPalettes(byte[] romBytes, int[] colors) {
+    private static RomImage shuffleChestPalettes(RomImage rom, int[] colors) {
+        byte[] romBytes = rom.bytes();
         for (int i = 0; i < 4; i++) {
             float hue = (float)colors[i] / 100000f;
             float sat = (float)colors[i+4] / 100000f;
@@ -667,51 +906,47 @@ public class Patcher {
             byte[] palette = {highlight[0],highlight[1],main[0],main[1],outline[0],outline[1]};
             int idx = 0x64fc9 + (i * 0xe) + 0x2;
             for (int j = 0; j < palette.length; j++) {
-                romBytes[idx + j] = palette[j];
+                rom.set(idx + j, palette[j]);
             }
         }
 
         // set menu key colors to match real key colors
-        romBytes[0x1f41de] = romBytes[0x64fcd];
-        romBytes[0x1f41df] = romBytes[0x64fce];
-        romBytes[0x1e03aa] = romBytes[0x64fcd];
-        romBytes[0x1e03ab] = romBytes[0x64fce];
-        romBytes[0x1e042a] = romBytes[0x64fcd];
-        romBytes[0x1e042b] = romBytes[0x64fce];
-
-        romBytes[0x1f41e0] = romBytes[0x64fdb];
-        romBytes[0x1f41e1] = romBytes[0x64fdc];
-        romBytes[0x1e03ac] = romBytes[0x64fdb];
-        romBytes[0x1e03ad] = romBytes[0x64fdc];
-        romBytes[0x1e042c] = romBytes[0x64fdb];
-        romBytes[0x1e042d] = romBytes[0x64fdc];
-
-        romBytes[0x1f41e6] = romBytes[0x64fe9];
-        romBytes[0x1f41e7] = romBytes[0x64fea];
-        romBytes[0x1e03b2] = romBytes[0x64fe9];
-        romBytes[0x1e03b3] = romBytes[0x64fea];
-        romBytes[0x1e0432] = romBytes[0x64fe9];
-        romBytes[0x1e0433] = romBytes[0x64fea];
-
-        romBytes[0x1f41e8] = romBytes[0x64ff7];
-        romBytes[0x1f41e9] = romBytes[0x64ff8];
-        romBytes[0x1e03b4] = romBytes[0x64ff7];
-        romBytes[0x1e03b5] = romBytes[0x64ff8];
-        romBytes[0x1e0434] = romBytes[0x64ff7];
-        romBytes[0x1e0435] = romBytes[0x64ff8];
-
-        return romBytes;
+        rom.set(0x1f41de, romBytes[0x64fcd]);
+        rom.set(0x1f41df, romBytes[0x64fce]);
+        rom.set(0x1e03aa, romBytes[0x64fcd]);
+        rom.set(0x1e03ab, romBytes[0x64fce]);
+        rom.set(0x1e042a, romBytes[0x64fcd]);
+        rom.set(0x1e042b, romBytes[0x64fce]);
+
+        rom.set(0x1f41e0, romBytes[0x64fdb]);
+        rom.set(0x1f41e1, romBytes[0x64fdc]);
+        rom.set(0x1e03ac, romBytes[0x64fdb]);
+        rom.set(0x1e03ad, romBytes[0x64fdc]);
+        rom.set(0x1e042c, romBytes[0x64fdb]);
+        rom.set(0x1e042d, romBytes[0x64fdc]);
+
+        rom.set(0x1f41e6, romBytes[0x64fe9]);
+        rom.set(0x1f41e7, romBytes[0x64fea]);
+        rom.set(0x1e03b2, romBytes[0x64fe9]);
+        rom.set(0x1e03b3, romBytes[0x64fea]);
+        rom.set(0x1e0432, romBytes[0x64fe9]);
+        rom.set(0x1e0433, romBytes[0x64fea]);
+
+        rom.set(0x1f41e8, romBytes[0x64ff7]);
+        rom.set(0x1f41e9, romBytes[0x64ff8]);
+        rom.set(0x1e03b4, romBytes[0x64ff7]);
+        rom.set(0x1e03b5, romBytes[0x64ff8]);
+        rom.set(0x1e0434, romBytes[0x64ff7]);
+        rom.set(0x1e0435, romBytes[0x64ff8]);
+
+        return rom;
     }
 
     /**
      * Converts a HSV color to GBC palette format.
      */
     private static byte[] HSVtoGBC(float hue, float sat, float val) {
-        int color = Color.HSBtoRGB(hue, sat, val);
-        int b = (color & 0xFF) >>> 3;
-        int g = (color & 0xFF00) >>> 11;
-        int r = (color & 0xFF0000) >>> 19;
-        color = (b << 10) + (g << 5) + r;
+        int color = ColorTable.hsbToGbc(hue, sat, val);
         byte[] retBytes = new byte[2];
         retBytes[0] = (byte)(color & 0xff);
         retBytes[1] = (byte)((color & 0xff00) >>> 8);
@@ -721,65 +956,73 @@ public class Patcher {
     /**
      * Rotates a color palette at the given index.
      */
-    private static byte[] swapColors(byte[] romBytes, int idx, int swap, boolean grayKey) {
+    private static RomImage swapColors(RomImage rom, int idx, int swap, boolean grayKey) {
+        byte[] romBytes = rom.bytes();
         for (int i = 0; i < 8; i += 2) {
             int pal = ((romBytes[idx+i+1] & 0xff) << 8) + (romBytes[idx+i] & 0xff);
-            int b = (pal & 0x7c00) >>> 10;
-            int g = (pal & 0x3e0) >>> 5;
-            int r = (pal & 0x1f);
 
-            float[] hsv = Color.RGBtoHSB(r*8, g*8, b*8, null);
             if (grayKey) {
-                hsv[0] = 0.7778f;
+                float saturation = ColorTable.saturation(pal);
+                float brightness = ColorTable.brightness(pal);
                 if (i == 2) {
-                    hsv[1] = 0.32f;
-                    hsv[2] = 0.97f;
+                    saturation = 0.32f;
+                    brightness = 0.97f;
                 }
                 else if (i == 4) {
-                    hsv[1] = 1.0f;
-                    hsv[2] = 0.5f;
+                    saturation = 1.0f;
+                    brightness = 0.5f;
                 }
+                pal = ColorTable.rotateHue(0.7778f, saturation, brightness, swap);
+            }
+            else {
+                pal = ColorTable.rotateHue(pal, swap);
             }
-            pal = Color.HSBtoRGB(hsv[0] + (float)(swap)/100000.0f,hsv[1],hsv[2]);
-            b = (pal & 0xFF) >>> 3;
-            g = (pal & 0xFF00) >>> 11;
-            r = (pal & 0xFF0000) >>> 19;
-
-            pal = (b << 10) + (g << 5) + r;
-            romBytes[idx+i] = (byte)(pal & 0xff);
-            romBytes[idx+i+1] = (byte)((pal & 0xff00) >>> 8);
+            rom.set(idx+i, (byte)(pal & 0xff));
+            rom.set(idx+i+1, (byte)((pal & 0xff00) >>> 8));
         }
-        return romBytes;
+        return rom;
     }
 
     /**
      * Shuffle pointers to golf courses.
      */
-    private static byte[] shuffleGolf(byte[] romBytes, Integer[] order) {
+    private static RomImage shuffleGolf(RomImage rom, Integer[] order) {
         int golfTableIdx = 0x1c8ac3;
-        return scrambleLevels(romBytes, order,0xa, golfTableIdx);
+        return scrambleLevels(rom, order,0xa, golfTableIdx);
     }
 
     /**
      * Apply logic patch and shuffle keys.
      */
-    private static byte[] keyShufflePatch(byte[] romBytes, Level[] keyLocations) throws IOException {
-        romBytes = applyPatch(romBytes, "keyshuffle/keyShufflePatch.json");
+    private static RomImage keyShufflePatch(RomImage rom, Level[] keyLocations) throws IOException {
+        byte[] romBytes = rom.bytes();
+        rom = applyPatch(rom, "keyshuffle/keyShufflePatch.json");
 
         // we need to move some objects off of palette 2 and move keys onto palette 2
-        romBytes = editPalettes(romBytes,0x63, 0x95,0x4000, 2, 0); // music coin
-        romBytes = editPalettes(romBytes,0x63, 0x1ef, 0x23c,3, 2); // key
-        romBytes = editPalettes(romBytes,0x3, 0x1287, 0x1499,2, 0); // dust, stars, etc
-        romBytes = editPalettes(romBytes,0x60, 0x23, 0x241,2, 0); // coin
-        romBytes = editPalettes(romBytes,0x60, 0x296, 0x563,2, 0); // coin
-        romBytes = editPalettes(romBytes,0x60, 0xefb, 0x136b,2, 3); // enemy projectiles
-        romBytes = editPalettes(romBytes,0x61, 0xb04, 0xeea,2, 3); // enemy projectiles
-        romBytes = editPalettes(romBytes,0x62, 0x272f, 0x2894,2, 3); // enemy projectiles
+        new PaletteEdits()
+                .add(0x63, 0x95, 0x4000, 2, 0) // music coin
+                .add(0x63, 0x1ef, 0x23c, 3, 2) // key
+                .add(0x3, 0x1287, 0x1499, 2, 0) // dust, stars, etc
+                .add(0x60, 0x23, 0x241, 2, 0) // coin
+                .add(0x60, 0x296, 0x563, 2, 0) // coin
+                .add(0x60, 0xefb, 0x136b, 2, 3) // enemy projectiles
+                .add(0x61, 0xb04, 0xeea, 2, 3) // enemy projectiles
+                .add(0x62, 0x272f, 0x2894, 2, 3) // enemy projectiles
+                .apply(rom);
 
         // start at level pointer table
         int levelTableIdx = 0xc00be;
+        List<Integer> objAddrs = new ArrayList<>();
+        List<int[]> keyPositions = new ArrayList<>();
         for (int levelNum = 0; levelNum < 25; levelNum++) {
             Level level = keyLocations[levelNum];
+            // object indexes of this level's keys, in ascending order
+            int[] keys = new int[4];
+            for (int key = 0; key < 4; key++) {
+                KeyLocation loc = level.getLocation(key);
+                keys[key] = loc.getY() * 0xa0 + loc.getX();
+            }
+            Arrays.sort(keys);
             for (int levelMod = 0; levelMod < 8; levelMod++) {
                 // compute index in level pointer table, get level metadata
                 int levelIdx = levelNum * 8 + levelMod;
@@ -795,53 +1038,56 @@ public class Patcher {
                 objAddr += romBytes[levelAddr+3] & 0xff;
                 objAddr -= 0x4000;
                 objAddr += bank * 0x4000;
-                // scan through rle-compressed level data, replace keys and coins as we find them
-                int objOffset = 0;
-                int objIdx = 0;
-                int locIdx = 0;
-                while (objIdx < 0x10 * 0x0a * 0x30) {
-                    // check first byte to see if the next bytes are to be expanded or not
-                    byte check = (byte)(romBytes[objAddr+objOffset] & 0xff);
-                    if ((check & 0x80) == 0) {
-                        // next byte is to be expanded, so advance the object index appropriately
-                        objOffset += 2;
-                        objIdx += check * 2;
-                    }
-                    else {
-                        // next bytes are a literal string, we need to be on the lookout for keys and coins
-                        check &= 0x7f;
-                        objOffset++;
-                        for (int j = 0; j < check; j++) {
-                            // check both first and last nybbles for keys/coins (2 and 3) - when found, replace with a key if we find a key that matches in the level list, or a coin otherwise
-                            byte objByte = (byte)(romBytes[objAddr+objOffset] & 0xff);
-                            if ((objByte & 0xf0) == 0x20 || (objByte & 0xf0) == 0x30) {
-                                romBytes[objAddr+objOffset] = (byte)((objByte & 0x0f) + 0x30);
-                                for (int key = 0; key < 4; key++) {
-                                    KeyLocation loc = level.getLocation(key);
-                                    if (loc.getY() * 0xa0 + loc.getX() == objIdx) {
-                                        romBytes[objAddr+objOffset] = (byte)((objByte & 0x0f) + 0x20);
-                                        break;
-                                    }
-                                }
-                                locIdx++;
-                            }
-                            objIdx++;
-                            if ((objByte & 0x0f) == 0x02 || (objByte & 0x0f) == 0x03) {
-                                romBytes[objAddr+objOffset] = (byte)((objByte & 0xf0) + 0x03);
-                                for (int key = 0; key < 4; key++) {
-                                    KeyLocation loc = level.getLocation(key);
-                                    if (loc.getY() * 0xa0 + loc.getX() == objIdx) {
-                                        romBytes[objAddr+objOffset] = (byte)((objByte & 0xf0) + 0x02);
-                                        break;
-                                    }
-                                }
-                                locIdx++;
-                            }
-                            objIdx++;
-                            objOffset++;
-                        }
+                objAddrs.add(objAddr);
+                keyPositions.add(keys);
+            }
+        }
+
+        // level variants often share object data, and the last level to edit shared data wins. So object data is
+        // split into groups that don't overlap: each group is edited in level order, and separate groups in parallel.
+        Integer[] byAddr = new Integer[objAddrs.size()];
+        int[] objEnds = new int[objAddrs.size()];
+        for (int i = 0; i < byAddr.length; i++) {
+            byAddr[i] = i;
+            objEnds[i] = objectDataEnd(romBytes, objAddrs.get(i));
+        }
+        final List<Integer> addrs = objAddrs;
+        Arrays.sort(byAddr, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return Integer.compare(addrs.get(o1), addrs.get(o2));
+            }
+        });
+        List<Callable<Void>> groups = new ArrayList<>();
+        int groupStart = 0;
+        int groupEnd = objEnds[byAddr[0]];
+        for (int i = 1; i <= byAddr.length; i++) {
+            if (i < byAddr.length && objAddrs.get(byAddr[i]) < groupEnd) {
+                groupEnd = Math.max(groupEnd, objEnds[byAddr[i]]);
+                continue;
+            }
+            final Integer[] group = Arrays.copyOfRange(byAddr, groupStart, i);
+            Arrays.sort(group);
+            final RomImage target = rom;
+            groups.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int stream : group) {
+                        placeKeyObjects(target, addrs.get(stream), keyPositions.get(stream));
                     }
+                    return null;
                 }
+            });
+            if (i < byAddr.length) {
+                groupStart = i;
+                groupEnd = objEnds[byAddr[i]];
+            }
+        }
+        for (Future<Void> group : ForkJoinPool.commonPool().invokeAll(groups)) {
+            try {
+                group.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IOException("Could not place keys", e);
             }
         }
 
@@ -855,53 +1101,94 @@ public class Patcher {
                 int regionCoords = loc.getRegion() / 0xa;
                 regionCoords <<= 4;
                 regionCoords += loc.getRegion() % 0xa;
-                romBytes[keyTableIdx+keyTableOffset] = (byte)regionCoords;
+                rom.set(keyTableIdx+keyTableOffset, (byte)regionCoords);
                 keyTableOffset++;
             }
         }
 
-        return romBytes;
+        return rom;
+    }
+
+    /**
+     * Find the end of a level's RLE-compressed object data.
+     *
+     * @param objAddr  index of the first byte of the object data
+     * @return index of the byte after the object data
+     */
+    private static int objectDataEnd(byte[] romBytes, int objAddr) {
+        int objOffset = 0;
+        int objIdx = 0;
+        while (objIdx < 0x10 * 0x0a * 0x30) {
+            int check = romBytes[objAddr+objOffset];
+            if ((check & 0x80) == 0) {
+                objOffset += 2;
+                objIdx += check * 2;
+            }
+            else {
+                check &= 0x7f;
+                objOffset += 1 + check;
+                objIdx += check * 2;
+            }
+        }
+        return objAddr + objOffset;
     }
 
     /**
-     * Edit sprite palette assignments in the given range.
+     * Scan through a level's RLE-compressed object data, replacing keys and coins as we find them: a key if it's at one
+     * of the level's key positions, or a coin otherwise.
      *
-     * @param bank  which ROM bank to examine
-     * @param start starting address of palettes to edit
-     * @param end   end address of palettes to edit (should point to a 0x80 byte)
-     * @param from  palette number (0-7) to change from
-     * @param to    palette number (0-7) to change to
+     * @param objAddr  index of the first byte of the object data
+     * @param keys     object indexes of the level's keys, in ascending order
      */
-    private static byte[] editPalettes(byte[] romBytes, int bank, int start, int end, int from, int to) {
-        int idx = bank * 0x4000;
-        int offset = start;
-        while (offset < end) {
-            if ((romBytes[idx+offset] & 0xff) == 0x80) {
-                offset++;
-                if ((romBytes[idx+offset] & 0xff) == 0xff &&
-                        (romBytes[idx+offset+1] & 0xff) == 0xff &&
-                        (romBytes[idx+offset+2] & 0xff) == 0xff &&
-                        (romBytes[idx+offset+3] & 0xff) == 0xff) {
-                    break;
+    private static void placeKeyObjects(RomImage rom, int objAddr, int[] keys) {
+        byte[] romBytes = rom.bytes();
+        int objOffset = 0;
+        int objIdx = 0;
+        // object indexes only go up, so the next key that could match is tracked as we go
+        int nextKey = 0;
+        while (objIdx < 0x10 * 0x0a * 0x30) {
+            // check first byte to see if the next bytes are to be expanded or not
+            int check = romBytes[objAddr+objOffset];
+            if ((check & 0x80) == 0) {
+                // next byte is to be expanded, so advance the object index appropriately
+                objOffset += 2;
+                objIdx += check * 2;
+                continue;
+            }
+            // next bytes are a literal string, we need to be on the lookout for keys and coins
+            check &= 0x7f;
+            objOffset++;
+            for (int j = 0; j < check; j++) {
+                // check both first and last nybbles for keys/coins (2 and 3)
+                int objByte = romBytes[objAddr+objOffset] & 0xff;
+                if ((objByte & 0xf0) == 0x20 || (objByte & 0xf0) == 0x30) {
+                    while (nextKey < keys.length && keys[nextKey] < objIdx) {
+                        nextKey++;
+                    }
+                    boolean key = nextKey < keys.length && keys[nextKey] == objIdx;
+                    rom.set(objAddr+objOffset, (objByte & 0x0f) + (key ? 0x20 : 0x30));
                 }
-                while ((romBytes[idx+offset+1] & 0xf0) >= 0x40 && (romBytes[idx+offset+1] & 0xf0) <= 0x70) {
-                    offset += 2;
+                objIdx++;
+                if ((objByte & 0x0f) == 0x02 || (objByte & 0x0f) == 0x03) {
+                    while (nextKey < keys.length && keys[nextKey] < objIdx) {
+                        nextKey++;
+                    }
+                    boolean key = nextKey < keys.length && keys[nextKey] == objIdx;
+                    // based on the original byte, so this undoes any change to the first nybble
+                    rom.set(objAddr+objOffset, (objByte & 0xf0) + (key ? 0x02 : 0x03));
                 }
+                objIdx++;
+                objOffset++;
             }
-            offset += 3;
-            if ((romBytes[idx+offset] & 0x07) == from) {
-                romBytes[idx+offset] = (byte)((romBytes[idx+offset] & 0xf8) + to);
-            }
-            offset++;
         }
-        return romBytes;
     }
 
     /**
      * Update game initialization routine to award Wario some treasure on game start.
      */
-    private static byte[] addStartingPowers(byte[] romBytes, List<Integer> startingPowers) throws IOException {
-        romBytes = applyPatch(romBytes,"powerPatch.json");
+    private static RomImage addStartingPowers(RomImage rom, List<Integer> startingPowers) throws IOException {
+        byte[] romBytes = rom.bytes();
+        rom = applyPatch(rom,"powerPatch.json");
         int itemsIdx = 0x83fb3;
         int powersAIdx = 0x83fe2;
         int powersBIdx = 0x83fe6;
@@ -913,7 +1200,7 @@ public class Patcher {
             int slot = item % 8;
 
             // place item in correct slot
-            romBytes[itemsIdx + bucket] |= ((1 << slot) & 0xff);
+            rom.set(itemsIdx + bucket, romBytes[itemsIdx + bucket] | ((1 << slot) & 0xff));
         }
 
         byte powersA = 0x00;
@@ -928,24 +1215,57 @@ public class Patcher {
         if (startingPowers.contains(Items.FROG_GLOVES)) powersB |= 0x10;
         if (startingPowers.contains(Items.SWIM_FINS)) powersB |= 0x20;
 
-        romBytes[powersAIdx] = powersA;
-        romBytes[powersBIdx] = powersB;
+        rom.set(powersAIdx, powersA);
+        rom.set(powersBIdx, powersB);
         // store initial treasure count as binary-coded decimal
-        romBytes[treasureCountIdx] = (byte)(((startingPowers.size()/10 & 0xff) << 4) + (startingPowers.size()%10 & 0xff));
+        rom.set(treasureCountIdx, (byte)(((startingPowers.size()/10 & 0xff) << 4) + (startingPowers.size()%10 & 0xff)));
 
-        return romBytes;
+        return rom;
     }
 
     /**
      * Update level data to reveal hidden pathways to the player.
+     *
+     * This only depends on the level graphics data, which is the same for every seed, so the result is remembered as
+     * a delta: the bytes the pass read and the bytes it wrote. As long as the bytes it would read are unchanged, the
+     * recorded writes are replayed instead of redoing the work.
      */
-    private static byte[] revealSecrets(byte[] romBytes) {
+    private static RomImage revealSecrets(RomImage rom) {
+        byte[] romBytes = rom.bytes();
+        synchronized (revealSecretsDeltas) {
+            for (RomDelta delta : revealSecretsDeltas) {
+                if (delta.replay(rom)) {
+                    return rom;
+                }
+            }
+        }
+        byte[] inputBytes = romBytes.clone();
+        BitSet reads = new BitSet(romBytes.length);
+        BitSet writes = new BitSet(romBytes.length);
+        revealSecrets(rom, reads, writes);
+        synchronized (revealSecretsDeltas) {
+            revealSecretsDeltas.add(0, new RomDelta(Patch.capture(inputBytes, reads), Patch.capture(romBytes, writes)));
+            if (revealSecretsDeltas.size() > MAX_REVEAL_SECRETS_DELTAS) {
+                revealSecretsDeltas.remove(MAX_REVEAL_SECRETS_DELTAS);
+            }
+        }
+        return rom;
+    }
+
+    /**
+     * Update level data to reveal hidden pathways to the player.
+     *
+     * @param reads   every ROM position this pass reads is added to this set
+     * @param writes  every ROM position this pass writes is added to this set
+     */
+    private static void revealSecrets(RomImage rom, BitSet reads, BitSet writes) {
+        byte[] romBytes = rom.bytes();
         int tilesetTable  = 0xC04C5;
         int effectsTable  = 0xC8000;
         int subtilesTable = 0xC090D;
         int flagsTable    = 0xC09D1;
         // bank -> location -> data
-        SortedMap<Integer, SortedMap<Integer, List<Byte>>> compressedGfxData = new TreeMap<>();
+        SortedMap<Integer, SortedMap<Integer, byte[]>> compressedGfxData = new TreeMap<>();
         for (int tilesetId = 1; tilesetId <= 0x99; tilesetId++) {
             int tilesetEntry = tilesetTable + tilesetId*2;
             int tilesetDataOffset = ((romBytes[tilesetEntry+1] & 0xff) << 8) + (romBytes[tilesetEntry] & 0xff);
@@ -953,48 +1273,32 @@ public class Patcher {
             int subtilesIdx = romBytes[tilesetDataLocation] & 0xff;
             int flagsIdx = romBytes[tilesetDataLocation+1] & 0xff;
             int dataBank = 0x38 + subtilesIdx/6;
+            reads.set(tilesetEntry, tilesetEntry + 2);
+            reads.set(tilesetDataLocation, tilesetDataLocation + 2);
 
             byte[] subtiles = new byte[0x200];
             byte[] effects = new byte[0x100];
             byte[] flags = new byte[0x200];
-            int compressedFlagsSize = 0;
 
             int subtilesLocation = ((romBytes[subtilesTable+subtilesIdx*2+1] & 0xff) << 8)
                     + (romBytes[subtilesTable+subtilesIdx*2] & 0xff);
             subtilesLocation = subtilesLocation - 0x4000 + (dataBank * 0x4000);
             System.arraycopy(romBytes, subtilesLocation + 0, subtiles, 0, subtiles.length);
+            reads.set(subtilesTable+subtilesIdx*2, subtilesTable+subtilesIdx*2 + 2);
+            reads.set(subtilesLocation, subtilesLocation + subtiles.length);
             int effectsLocation = ((romBytes[effectsTable+subtilesIdx*2+1] & 0xff) << 8)
                     + (romBytes[effectsTable+subtilesIdx*2] & 0xff);
             int effectsBank = (subtilesIdx >= 0x3f) ? 0x50 : 0x32;
             effectsLocation = effectsLocation - 0x4000 + (effectsBank * 0x4000);
             System.arraycopy(romBytes, effectsLocation + 0, effects, 0, effects.length);
+            reads.set(effectsTable+subtilesIdx*2, effectsTable+subtilesIdx*2 + 2);
+            reads.set(effectsLocation, effectsLocation + effects.length);
             int flagsLocation = ((romBytes[flagsTable+flagsIdx*2+1] & 0xff) << 8)
                     + (romBytes[flagsTable+flagsIdx*2] & 0xff);
             flagsLocation = flagsLocation - 0x4000 + (dataBank * 0x4000);
-            int flagsPtr = 0;
-            int flagsProcessed = 0;
-            while (true) {
-                int indicator = romBytes[flagsLocation + flagsPtr] & 0xff;
-                flagsPtr++;
-                if (indicator == 0x00) {
-                    break;
-                }
-                else if ((indicator & 0x80) > 0) {
-                    indicator &= 0x7f;
-                    for (int i = 0; i < indicator; i++) {
-                        flags[flagsProcessed] = romBytes[flagsLocation+flagsPtr];
-                        flagsPtr++;
-                        flagsProcessed++;
-                    }
-                }
-                else {
-                    for (int i = 0; i < indicator; i++) {
-                        flags[flagsProcessed] = romBytes[flagsLocation+flagsPtr];
-                        flagsProcessed++;
-                    }
-                    flagsPtr++;
-                }
-            }
+            int flagsProcessed = RleCodec.decode(romBytes, flagsLocation, flags);
+            reads.set(flagsTable+flagsIdx*2, flagsTable+flagsIdx*2 + 2);
+            reads.set(flagsLocation, flagsLocation + RleCodec.encodedLength(romBytes, flagsLocation));
             if (flagsProcessed != 0x200) {
                 System.out.println("Error in decompression");
             }
@@ -1074,67 +1378,14 @@ public class Patcher {
             }
 
             // update subtiles
-            List<Byte> subtileList = new Vector<>();
-            for (byte subtile : subtiles) {
-                subtileList.add(subtile);
-            }
             compressedGfxData.putIfAbsent(dataBank, new TreeMap<>());
-            compressedGfxData.get(dataBank).putIfAbsent(subtilesLocation, subtileList);
+            compressedGfxData.get(dataBank).putIfAbsent(subtilesLocation, subtiles);
 
             // now we need to recompress flags
-            int newCount = 0;
-            int newPtr = 0;
-            int lookaheadPtr = 0;
-            int last = 0x00;
-            int run = 0;
-            List<Byte> compressedFlagsList = new Vector<>();
-
-            while (newPtr < flags.length) {
-                if (lookaheadPtr >= flags.length) {
-                    compressedFlagsList.add((byte)((lookaheadPtr - newPtr) | 0x80));
-                    newCount++;
-                    while (newPtr < lookaheadPtr) {
-                        compressedFlagsList.add(flags[newPtr]);
-                        newCount++;
-                        newPtr++;
-                    }
-                }
-                else if ((flags[lookaheadPtr] & 0xff) == last) {
-                    run++;
-                    lookaheadPtr++;
-
-                    if (run >= 3) {
-                        lookaheadPtr -= 3;
-                        if (lookaheadPtr > newPtr) {
-                            compressedFlagsList.add((byte) ((lookaheadPtr - newPtr) | 0x80));
-                            newCount++;
-                            while (newPtr < lookaheadPtr) {
-                                compressedFlagsList.add(flags[newPtr]);
-                                newCount++;
-                                newPtr++;
-                            }
-                        }
-                        while (lookaheadPtr < flags.length && (lookaheadPtr-newPtr < 0x7f) && (flags[lookaheadPtr] & 0xff) == last) {
-                            lookaheadPtr++;
-                        }
-                        compressedFlagsList.add((byte)(lookaheadPtr - newPtr));
-                        compressedFlagsList.add((byte)(last));
-                        newCount += 2;
-                        newPtr = lookaheadPtr;
-
-                        run = 0;
-                    }
-                }
-                else {
-                    last = flags[lookaheadPtr] & 0xff;
-                    lookaheadPtr++;
-                    run = 1;
-                }
-            }
-            compressedFlagsList.add((byte)0x00);
-            newCount++;
+            ByteSink compressedFlags = new ByteSink(flags.length);
+            RleCodec.encode(flags, flags.length, compressedFlags);
 
-            compressedGfxData.get(dataBank).putIfAbsent(flagsLocation,compressedFlagsList);
+            compressedGfxData.get(dataBank).putIfAbsent(flagsLocation, compressedFlags.toByteArray());
         }
 
         // All level gfx data has been processed, edited, and recompressed
@@ -1144,26 +1395,25 @@ public class Patcher {
         for (Integer dataBank : compressedGfxData.keySet()) {
             int writePtr = -1;
             int bankStart = dataBank * 0x4000;
-            for (Map.Entry<Integer, List<Byte>> dataEntry : compressedGfxData.get(dataBank).entrySet()) {
+            for (Map.Entry<Integer, byte[]> dataEntry : compressedGfxData.get(dataBank).entrySet()) {
                 int location = dataEntry.getKey();
                 int relLocation = location % 0x4000;
-                List<Byte> data = dataEntry.getValue();
+                byte[] data = dataEntry.getValue();
 
                 if (writePtr < 0) {
                     writePtr = relLocation;
                 }
                 relLocation += 0x4000;
                 int newLocation = bankStart + writePtr;
-                for (Byte dataByte : data) {
-                    romBytes[bankStart + writePtr] = dataByte;
-                    writePtr++;
-                }
+                rom.write(bankStart + writePtr, data, 0, data.length);
+                writes.set(bankStart + writePtr, bankStart + writePtr + data.length);
+                writePtr += data.length;
                 newLocation = (newLocation % 0x4000) + 0x4000;
 
                 // now update pointers
                 int table = 0;
                 boolean subtiles = false;
-                if (data.size() == 0x200) {
+                if (data.length == 0x200) {
                     // subtile data
                     table = subtilesTable;
                     subtiles = true;
@@ -1179,21 +1429,23 @@ public class Patcher {
                     int flagsIdx = romBytes[tilesetDataLocation+1] & 0xff;
                     int thisBank = 0x38 + subtilesIdx/6;
                     int idx = (subtiles) ? subtilesIdx : flagsIdx;
+                    reads.set(tilesetEntry, tilesetEntry + 2);
+                    reads.set(tilesetDataLocation, tilesetDataLocation + 2);
                     if (thisBank != dataBank) {
                         continue;
                     }
 
                     int readLocation = ((romBytes[table + idx*2 + 1] & 0xFF) << 8) +
                             (romBytes[table + idx*2] & 0xFF);
+                    reads.set(table + idx*2, table + idx*2 + 2);
                     if (readLocation == relLocation) {
-                        romBytes[table + idx*2 + 1] = (byte)(newLocation >>> 8);
-                        romBytes[table + idx*2] = (byte)(newLocation & 0xff);
+                        rom.set(table + idx*2 + 1, (byte)(newLocation >>> 8));
+                        rom.set(table + idx*2, (byte)(newLocation & 0xff));
+                        writes.set(table + idx*2, table + idx*2 + 2);
                     }
                 }
             }
         }
-
-        return romBytes;
     }
 
     /**
@@ -1202,11 +1454,83 @@ public class Patcher {
      * @param romBytes  byte array representing the final ROM
      * @param seed      encoded String representation of the seed used to randomize the ROM
      * @param version         String representing current app version
+     * @return the name of the written file
      * @throws IOException
      */
-    private static void savePatchedFile(byte[] romBytes, String seed, String version) throws IOException {
+    private static String savePatchedFile(byte[] romBytes, String seed, String version) throws IOException {
         String filename = "WL3-randomizer-" + version + "-" + seed + ".gbc";
-        File randoFile = new File(filename);
-        Files.write(randoFile.toPath(),romBytes);
+        try (FileChannel channel = openOutputFile(filename)) {
+            ByteBuffer buffer = ByteBuffer.wrap(romBytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return filename;
+    }
+
+    /**
+     * Write the randomized ROM to disk as a BPS patch against the vanilla ROM. Only the bytes baseDiff or the
+     * randomizer may have changed are compared; everything else is known to match the vanilla ROM.
+     *
+     * @param vanillaBytes  byte array representing the vanilla ROM
+     * @param rom           the final ROM, copied from a base template
+     * @param seed          encoded String representation of the seed used to randomize the ROM
+     * @param version       String representing current app version
+     * @return the name of the written file
+     * @throws IOException
+     */
+    private static String savePatchFile(byte[] vanillaBytes, RomImage rom, String seed, String version) throws IOException {
+        String filename = "WL3-randomizer-" + version + "-" + seed + ".bps";
+        ByteRanges changed = Resources.getPatch("baseDiff.json").ranges().addAll(rom.dirtyRanges());
+        try (OutputStream out = new BufferedOutputStream(Channels.newOutputStream(openOutputFile(filename)))) {
+            BpsPatch.write(vanillaBytes, rom.bytes(), changed, out);
+        }
+        return filename;
+    }
+
+    /**
+     * Open the given file for writing, replacing any existing contents.
+     */
+    private static FileChannel openOutputFile(String filename) throws IOException {
+        return FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static class VanillaFile {
+        private final long length;
+        private final long lastModified;
+        private final String md5;
+
+        private VanillaFile(long length, long lastModified, String md5) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.md5 = md5;
+        }
+    }
+
+    /**
+     * The effect of a patch stage on a ROM: the bytes it read, and the bytes it wrote given those inputs.
+     */
+    private static class RomDelta {
+        private final Patch input;
+        private final Patch output;
+
+        private RomDelta(Patch input, Patch output) {
+            this.input = input;
+            this.output = output;
+        }
+
+        /**
+         * Apply the recorded writes to the given ROM, if it has the same input bytes.
+         *
+         * @return true if the writes were applied, false if the stage needs to be run again
+         */
+        private boolean replay(RomImage rom) {
+            if (!input.isAppliedTo(rom.bytes())) {
+                return false;
+            }
+            output.apply(rom);
+            return true;
+        }
     }
 }
@@ -0,0 +1,27 @@
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event for a level of the placement search that gave up, so the search had to back out of it. The
+ * duration covers everything the search tried below that level. Only backtracks slower than the threshold are
+ * recorded, so the event can stay enabled in production.
+ */
+@Name("wl3.PlacementBacktrack")
+@Label("Placement Backtrack")
+@Category({"WL3 Randomizer", "Placement"})
+@StackTrace(false)
+@Threshold("20 ms")
+class PlacementBacktrackEvent extends Event {
+    @Label("Seed")
+    long seed;
+
+    @Label("Search Depth")
+    int depth;
+
+    @Label("Items Remaining")
+    @Description("Treasures that were still to be placed when the search entered this level")
+    int itemsRemaining;
+
+    @Label("Fails")
+    @Description("Dead ends the attempt had backed out of so far, including this one")
+    int fails;
+}
@@ -0,0 +1,724 @@
+import keyshuffle.Level;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Generates randomized games. Everything a generation needs is held by the instance (or, during treasure placement,
+ * by a GenerationContext), so separate Randomizers can generate games on different threads at the same time.
+ */
+public class Randomizer {
+    public static final String VERSION = "v0.12.0-RC5";
+
+    /**
+     * Receives progress and error messages during generation.
+     */
+    public interface Logger {
+        void log(String message);
+    }
+
+    private final String vanillaFileLocation;
+    private final Logger logger;
+    // ROM writes that haven't been waited for yet; only used with async output
+    private final List<Future<String>> pendingWrites = new ArrayList<>();
+    private volatile boolean asyncOutput = false;
+    // placement attempts that are still running, so cancel can stop them
+    private final List<GenerationContext> runningAttempts = new ArrayList<>();
+    private volatile boolean cancelled = false;
+    // progress of the current generation, for getProgress
+    private volatile String stage = "placement";
+    private volatile int attempts = 0;
+    private volatile GenerationContext latestAttempt;
+    // metrics for the current (or most recent) generation
+    private volatile GenerationMetrics metrics = new GenerationMetrics();
+    // the game made by the most recent generation, or null if it didn't make one
+    private volatile GeneratedGame game;
+
+    /**
+     * @param vanillaFileLocation  Location of the vanilla WL3 ROM
+     * @param logger               Where to send progress and error messages
+     */
+    public Randomizer(String vanillaFileLocation, Logger logger) {
+        this.vanillaFileLocation = vanillaFileLocation;
+        this.logger = logger;
+    }
+
+    /**
+     * Choose whether generate waits for the randomized ROM to be written to disk before returning. With async output,
+     * generate returns as soon as the spoiler log is written, and awaitOutput must be called before exiting. Useful
+     * for generating many games in a row.
+     */
+    public void setAsyncOutput(boolean asyncOutput) {
+        this.asyncOutput = asyncOutput;
+    }
+
+    /**
+     * Wait for every randomized ROM still being written to disk.
+     *
+     * @return true if every ROM was written successfully
+     */
+    public boolean awaitOutput() {
+        List<Future<String>> writes;
+        synchronized (pendingWrites) {
+            writes = new ArrayList<>(pendingWrites);
+            pendingWrites.clear();
+        }
+        boolean ok = true;
+        for (Future<String> write : writes) {
+            ok &= awaitWrite(write) != null;
+        }
+        return ok;
+    }
+
+    /**
+     * Stop the current generation as soon as possible. Placement attempts give up at their next check, and nothing is
+     * written unless writing had already started. Once cancelled, this Randomizer doesn't generate anything more.
+     * Safe to call from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+        synchronized (runningAttempts) {
+            for (GenerationContext attempt : runningAttempts) {
+                attempt.cancel();
+            }
+        }
+    }
+
+    /**
+     * Describe how far the current generation has got. Safe to call from any thread while generate is running.
+     *
+     * @return the number of seeds tried so far, and what the generation is doing now
+     */
+    public String getProgress() {
+        GenerationContext attempt = latestAttempt;
+        String progress = "Still working: " + attempts + (attempts == 1 ? " seed" : " seeds") + " tried so far";
+        if (!stage.equals("placement") || attempt == null) {
+            return progress + ", now on " + stage;
+        }
+        if (attempt.isTestingDifficulty()) {
+            return progress + ", now on difficulty test";
+        }
+        return progress + ", now on placement (" + attempt.getFails() + " fails in current seed)";
+    }
+
+    /**
+     * @return what the most recent call to generate cost. Once generate has returned, the result doesn't change.
+     */
+    public GenerationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the game made by the most recent call to generate, or null if it didn't make one
+     */
+    public GeneratedGame getGame() {
+        return game;
+    }
+
+    /**
+     * Start a placement attempt, keeping track of it so it can be cancelled.
+     */
+    private GenerationContext startAttempt(long seed, Map<String,String> options, Level[] allKeyLocations) {
+        GenerationContext attempt = new GenerationContext(seed, options, allKeyLocations);
+        synchronized (runningAttempts) {
+            runningAttempts.add(attempt);
+            if (cancelled) {
+                attempt.cancel();
+            }
+        }
+        attempts++;
+        latestAttempt = attempt;
+        return attempt;
+    }
+
+    /**
+     * Stop keeping track of a placement attempt.
+     *
+     * @param completed  true if the attempt ran to completion, so its work is added to the metrics
+     */
+    private void finishAttempt(GenerationContext attempt, boolean completed) {
+        synchronized (runningAttempts) {
+            runningAttempts.remove(attempt);
+        }
+        if (completed) {
+            metrics.addAttempt(attempt);
+        }
+    }
+
+    /**
+     * Generate a randomized game, writing the randomized ROM and its spoiler log to the working directory.
+     *
+     * @param userSeed  Seed provided by the user. null if no seed was specified.
+     * @param options   Options selected by the user
+     * @return the seed of the generated game, or null if no game was generated
+     */
+    public String generate(String userSeed, Map<String,String> options) {
+        return generate(userSeed, options, 1);
+    }
+
+    /**
+     * Generate a randomized game, writing the randomized ROM and its spoiler log to the working directory.
+     *
+     * @param userSeed       Seed provided by the user. null if no seed was specified.
+     * @param options        Options selected by the user
+     * @param searchThreads  Number of candidate seeds to try at once when no seed was specified.
+     * @return the seed of the generated game, or null if no game was generated
+     */
+    public String generate(String userSeed, Map<String,String> options, int searchThreads) {
+        GenerationMetrics generationMetrics = new GenerationMetrics();
+        metrics = generationMetrics;
+        game = null;
+        stage = "placement";
+        attempts = 0;
+        latestAttempt = null;
+        GenerationEvent event = new GenerationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String seed = null;
+        try {
+            seed = generateGame(userSeed, options, searchThreads);
+            return seed;
+        } finally {
+            generationMetrics.addStageTime("total", System.nanoTime() - start);
+            GenerationMetrics.record(generationMetrics);
+            event.end();
+            if (event.shouldCommit()) {
+                event.seed = seed;
+                event.attempts = generationMetrics.getAttempts();
+                event.rejectedByPrepare = generationMetrics.getRejections().get(GenerationContext.REJECTED_PREPARE);
+                event.rejectedByPlacement = generationMetrics.getRejections().get(GenerationContext.REJECTED_PLACEMENT);
+                event.rejectedByDifficulty = generationMetrics.getRejections().get(GenerationContext.REJECTED_DIFFICULTY);
+                event.canAccessCalls = generationMetrics.getCanAccessCalls();
+                event.commit();
+            }
+        }
+    }
+
+    private String generateGame(String userSeed, Map<String,String> options, int searchThreads) {
+        // separate junk items from non-junk items
+        Integer[] junk = {Items.ROCKETSHIP, Items.POKEMON_PIKACHU, Items.FIGHTER, Items.TELEPHONE, Items.CROWN,
+                      Items.TIME_BUTTON, Items.RUBY, Items.EMERALD, Items.SAPPHIRE, Items.CLUBS, Items.SPADES,
+                      Items.HEARTS, Items.DIAMONDS, Items.CLAY_FIGURE, Items.SABRE, Items.GLASS, Items.TEAPOT,
+                      Items.MAGNIFYING_GLASS, Items.UFO, Items.CAR, Items.TRAIN, Items.RED_CRAYON, Items.BROWN_CRAYON,
+                      Items.YELLOW_CRAYON, Items.GREEN_CRAYON, Items.CYAN_CRAYON, Items.BLUE_CRAYON, Items.PINK_CRAYON};
+        List<Integer> junkList = Arrays.asList(junk);
+        List<Integer> inventory = new Vector<>();
+        for (int i = 1; i <= 0x64; i++) {
+            if (!junkList.contains(i)) {
+                inventory.add(i);
+            }
+        }
+        // init locations
+        String[] locationNames = new String[100];
+        for (int i = 0; i < 100; i++) {
+            locationNames[i] = "" + "NWSEE".charAt(i/24) + ((i >= 96) ? '7' : Character.forDigit(((i % 24)/4) + 1, 10)) + "SRGB".charAt(i%4);
+        }
+        boolean keyShuffle = options.containsKey("keyShuffle") && "true".equals(options.get("keyShuffle"));
+
+        Level[] allKeyLocations = new Level[25];
+        try {
+            // load list of all potential key locations
+            allKeyLocations = Resources.getKeyLocations();
+        } catch (IOException e) {
+            logger.log(e.getMessage());
+        }
+        List<Level> levelList = new ArrayList<>();
+        if (keyShuffle) {
+            // init list of empty levels
+            for (int i = 0; i < 25; i++) {
+                levelList.add(new Level(i, locationNames[i * 4].substring(0, 2)));
+            }
+        }
+        else {
+            try {
+                // init list of levels with vanilla key placements
+                levelList = Arrays.asList(Resources.getVanillaKeyLocations());
+            } catch (IOException e) {
+                logger.log(e.getMessage());
+            }
+        }
+
+        boolean mapShuffle = options.containsKey("mapShuffle") && "true".equals(options.get("mapShuffle"));
+        boolean utilityStart = options.containsKey("utilityStart") && !options.get("utilityStart").equals("false");
+
+        // Set up the random object
+        Random seedRNG = new Random();
+        long seed;
+        if (userSeed == null || userSeed.length() == 0) {
+            seed = seedRNG.nextLong();
+        }
+        else if (userSeed.length() != 11) {
+            logger.log("Invalid seed. Please double-check the seed and try again.");
+            return null;
+        }
+        else {
+            try {
+                seed = decodeSeed(userSeed);
+            } catch (Exception e) {
+                logger.log("Invalid seed. Please double-check the seed and try again.");
+                return null;
+            }
+        }
+
+        // attempt to place treasures
+        stage = "placement";
+        long stageStart = System.nanoTime();
+        GenerationContext context;
+        if (userSeed != null && userSeed.length() > 0) {
+            context = startAttempt(seed, options, allKeyLocations);
+            boolean placed = context.placeTreasures(inventory, levelList);
+            finishAttempt(context, true);
+            if (cancelled) {
+                logger.log("Generation was cancelled.");
+                return null;
+            }
+            if (!placed) {
+                logger.log("Invalid seed. Please double-check the seed and try again.");
+                return null;
+            }
+        }
+        else if (searchThreads > 1) {
+            context = searchSeeds(seed, seedRNG, options, allKeyLocations, inventory, levelList, searchThreads);
+            if (context == null) {
+                logger.log(cancelled ? "Generation was cancelled." : "Seed search was interrupted.");
+                return null;
+            }
+        }
+        else {
+            context = startAttempt(seed, options, allKeyLocations);
+            while (!context.placeTreasures(inventory, levelList)) {
+                finishAttempt(context, true);
+                if (cancelled) {
+                    logger.log("Generation was cancelled.");
+                    return null;
+                }
+                // could not finish in reasonable time, or seed difficulty was incorrect
+                // generate a new seed and re-randomize using that
+                context = startAttempt(seedRNG.nextLong(), options, allKeyLocations);
+            }
+            finishAttempt(context, true);
+        }
+        metrics.addStageTime("placement", System.nanoTime() - stageStart);
+        if (cancelled) {
+            logger.log("Generation was cancelled.");
+            return null;
+        }
+        seed = context.getSeed();
+        Random rng = context.getRng();
+        int[] finalTreasures = context.getFinalTreasures();
+        Integer[] worldMap = context.getWorldMap();
+        Level[] finalKeyLocations = context.getFinalKeyLocations();
+        List<Integer> startingItems = context.getStartingItems();
+
+        // items have been placed, now shuffle list of junk and use it to fill in the remaining locations
+        boolean excludeJunk = options.containsKey("excludeJunk") && "true".equals(options.get("excludeJunk"));
+
+        List<Integer> miscItems = new ArrayList<>(junkList);
+        for (Integer startingItem : startingItems) {
+            if (!miscItems.contains(startingItem)) {
+                miscItems.add(Items.EMPTY);
+            }
+        }
+
+        Collections.shuffle(miscItems,rng);
+
+        int nextLocation = 0;
+        for (Integer junkItem : miscItems) {
+            if (excludeJunk && junkItem != Items.TIME_BUTTON && junkItem != Items.MAGNIFYING_GLASS) {
+                // if junk items are excluded, replace with empty boxes
+                junkItem = Items.EMPTY;
+            }
+            if (utilityStart && (junkItem == Items.TIME_BUTTON || junkItem == Items.MAGNIFYING_GLASS)) {
+                junkItem = Items.EMPTY;
+            }
+
+            for (int i = nextLocation; i < 100; i++) {
+                if (finalTreasures[i] == 0) {
+                    finalTreasures[i] = junkItem;
+                    nextLocation = i + 1;
+                    break;
+                }
+            }
+        }
+
+        // build playthrough to set up hints if requested
+        byte[] playthrough = null;
+        if (options.containsKey("hints") && !options.get("hints").equals("unhelpful")) {
+            boolean strategicHints = options.get("hints").equals("strategic");
+            playthrough = context.buildPlaythrough(rng, strategicHints, context.isItemStart());
+        }
+
+        // randomize music if requested
+        Integer[] music = null;
+        if (options.containsKey("musicShuffle")) {
+            if (options.get("musicShuffle").equals("on")) {
+                music = shuffleMusic(false, rng);
+            }
+            else if (options.get("musicShuffle").equals("chaos")) {
+                music = shuffleMusic(true, rng);
+            }
+        }
+
+        // randomize level palettes if requested
+        // 2336 numbers
+        int[] paletteSwitches = null;
+        int[] titleSwitches = null;
+        int[] otherSwitches = null;
+        if (options.containsKey("levelColors") && "true".equals(options.get("levelColors"))) {
+            // There are some sets of palettes that we want to ensure get the same transformation.
+            // This is usually because of rooms that cycle through palettes (e.g. N1 underground),
+            // or because of levels that change their palettes in response to Wario's inventory (e.g. S4)
+            int[][] associations = {{0x2,0x3,0x73,0x74},
+                                    {0x20,0x4a},
+                                    {0x23,0x70},
+                                    {0x24,0x58,0x59},
+                                    {0x2b,0x6c},
+                                    {0x2f,0x76,0x77,0x78,0x79,0x7a,0x7b,0x7c},
+                                    {0x31,0x55,0x56,0x57,0x5e,0x5f,0x60},
+                                    {0x44,0x7d,0x7e,0x7f,0x80,0x81,0x82,0x83},
+                                    {0x45,0x84,0x85,0x86,0x87,0x88,0x89,0x8a},
+                                    {0x46,0x8b,0x8c,0x8d,0x8e,0x8f,0x90,0x91},
+                                    {0x4b,0x4c},
+                                    {0x5a,0x5b,0x5c},
+                                    {0x65,0x66,0x67},
+                                    {0x68,0x69,0x6a},
+                                    {0x6d,0x6e},
+                                    {0x71,0x72}};
+            int[][] assocSwitches = new int[associations.length][8];
+            for (int i = 0; i < assocSwitches.length; i++) {
+                for (int j = 0; j < assocSwitches[i].length; j++) {
+                    assocSwitches[i][j] = -1;
+                }
+            }
+
+            paletteSwitches = new int[1168];
+            for (int i = 0; i < paletteSwitches.length; i++) {
+                int assocIdx = -1;
+                for (int x = 0; x < associations.length; x++) {
+                    for (int y = 0; y < associations[x].length; y++) {
+                        if (associations[x][y] == i/8) {
+                            assocIdx = x;
+                        }
+                    }
+                }
+                if (assocIdx > -1 && assocSwitches[assocIdx][i%8] != -1) {
+                    paletteSwitches[i] = assocSwitches[assocIdx][i%8];
+                    continue;
+                }
+                paletteSwitches[i] = rng.nextInt(100000);
+                if (assocIdx > -1) {
+                    assocSwitches[assocIdx][i%8] = paletteSwitches[i];
+                }
+            }
+
+            titleSwitches = new int[4];
+            for (int i = 0; i < titleSwitches.length; i++) {
+                titleSwitches[i] = rng.nextInt(100000);
+            }
+
+            otherSwitches = new int[6];
+            for (int i = 0; i < otherSwitches.length; i++) {
+                otherSwitches[i] = rng.nextInt(100000);
+            }
+        }
+
+        int[] objColors = null;
+        // randomize object palettes if requested
+        if (options.containsKey("enemyColors") && "true".equals(options.get("enemyColors"))) {
+            objColors = new int[480];
+            for (int i = 0; i < objColors.length; i++) {
+                objColors[i] = rng.nextInt(100000);
+            }
+        }
+
+        // randomize key/chest palettes
+        int[] chestColors = null;
+        if (options.containsKey("chestColors") && "true".equals(options.get("chestColors"))) {
+            // pick four each of hue, sat, val values that are distinct
+            chestColors = new int[12];
+            for (int set = 0; set < 3; set++) {
+                for (int val = 0; val < 4; val++) {
+                    int candidate = 0;
+                    boolean ok = false;
+                    while (!ok) {
+                        if (set == 1) {
+                            candidate = rng.nextInt(70000) + 30000;
+                        }
+                        else if (set == 2) {
+                            candidate = rng.nextInt(50000) + 50000;
+                        }
+                        else {
+                            candidate = rng.nextInt(100000);
+                        }
+                        ok = true;
+                        for (int i = 0; i < val; i++) {
+                            if (Math.abs(candidate - chestColors[set*4 + i]) < (set == 0 ? 10000 : 8750)) {
+                                ok = false;
+                                break;
+                            }
+                            else if (set == 0 && (Math.abs(((candidate+50000)%100000) - ((chestColors[set*4 + i]+50000)%100000)) < 10000)) {
+                                ok = false;
+                                break;
+                            }
+                        }
+                    }
+                    chestColors[set*4 + val] = candidate;
+                }
+            }
+        }
+
+        // randomize golf if requested
+        Integer[] golfOrder = null;
+        if (options.containsKey("golfShuffle") && "true".equals(options.get("golfShuffle"))) {
+            golfOrder = shuffleGolf(rng);
+        }
+
+        boolean cutsceneSkip = options.containsKey("cutsceneSkip") && "true".equals(options.get("cutsceneSkip"));
+        boolean revealSecrets = options.containsKey("revealSecrets") && "true".equals(options.get("revealSecrets"));
+        boolean bpsOutput = options.containsKey("outputFormat") && "bps".equals(options.get("outputFormat"));
+
+        // patch vanilla ROM file and create randomized ROM
+        stage = "patching";
+        stageStart = System.nanoTime();
+        Future<String> romWrite;
+        try {
+            romWrite = Patcher.patch(vanillaFileLocation,
+                    finalTreasures,
+                    encodeSeed(seed),
+                    playthrough,
+                    music,
+                    mapShuffle ? worldMap : null,
+                    paletteSwitches,
+                    titleSwitches,
+                    otherSwitches,
+                    objColors,
+                    chestColors,
+                    keyShuffle ? finalKeyLocations : null,
+                    golfOrder,
+                    cutsceneSkip,
+                    revealSecrets,
+                    startingItems,
+                    bpsOutput,
+                    VERSION,
+                    metrics);
+        } catch (IOException e) {
+            logger.log("Error occurred while generating randomized game: " + e.getMessage());
+            return null;
+        }
+        metrics.addStageTime("patching", System.nanoTime() - stageStart);
+
+        logger.log("Generated randomized game with seed " + encodeSeed(seed));
+
+        // the ROM is written in the background; write the spoiler log in the meantime
+        stage = "spoiler log";
+        stageStart = System.nanoTime();
+        byte[] spoilerPlaythrough = context.buildPlaythrough(null, false, context.isItemStart());
+        try {
+            SpoilerLog.writeSpoiler(startingItems, finalTreasures, keyShuffle ? finalKeyLocations : null,
+                    mapShuffle ? worldMap : null, encodeSeed(seed), spoilerPlaythrough, options, VERSION);
+            logger.log("Wrote spoiler log to wl3spoiler-"+VERSION+"-"+encodeSeed(seed)+".txt");
+        }
+        catch (IOException e) {
+            logger.log("Error occurred while writing spoiler log: " + e.getMessage());
+        }
+        metrics.addStageTime("spoiler log", System.nanoTime() - stageStart);
+
+        String romFile = null;
+        if (asyncOutput) {
+            synchronized (pendingWrites) {
+                pendingWrites.add(romWrite);
+            }
+        }
+        else {
+            stage = "saving";
+            stageStart = System.nanoTime();
+            romFile = awaitWrite(romWrite);
+            metrics.addStageTime("saving", System.nanoTime() - stageStart);
+            if (romFile == null) {
+                return null;
+            }
+        }
+        game = new GeneratedGame(encodeSeed(seed), startingItems, finalTreasures,
+                keyShuffle ? finalKeyLocations : null, mapShuffle ? worldMap : null, spoilerPlaythrough, romFile);
+        return encodeSeed(seed);
+    }
+
+    /**
+     * Wait for a randomized ROM to be written to disk, and report the result.
+     *
+     * @param romWrite  the pending write, as returned by Patcher.patch
+     * @return the name of the written file, or null if it couldn't be written
+     */
+    private String awaitWrite(Future<String> romWrite) {
+        try {
+            String filename = romWrite.get();
+            if (filename.endsWith(".bps")) {
+                logger.log("Randomized game has been saved as a patch for the vanilla ROM: " + filename);
+            }
+            else {
+                logger.log("Randomized ROM has been saved as " + filename);
+            }
+            return filename;
+        } catch (ExecutionException e) {
+            logger.log("Error occurred while saving randomized game: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.log("Interrupted while saving randomized game");
+        }
+        return null;
+    }
+
+    /**
+     * Try several candidate seeds at once, returning the first attempt that produces a valid game. Each attempt is
+     * fully determined by its seed, so entering the winning seed later reproduces the same game.
+     *
+     * @param firstSeed        First seed to try
+     * @param seedRNG          Random object used to pick further seeds
+     * @param options          Options selected by the user
+     * @param allKeyLocations  All potential key locations, per level
+     * @param inventory        All non-junk treasures, in their unshuffled order
+     * @param levelList        Levels with their initial key placements
+     * @param threads          Number of attempts to run at once
+     * @return the successful attempt, or null if the search was interrupted or cancelled
+     */
+    private GenerationContext searchSeeds(long firstSeed, Random seedRNG, Map<String,String> options,
+                                                 final Level[] allKeyLocations, final List<Integer> inventory,
+                                                 final List<Level> levelList, int threads) {
+        ExecutorService pool = Executors.newWorkStealingPool(threads);
+        CompletionService<Boolean> completionService = new ExecutorCompletionService<>(pool);
+        Map<Future<Boolean>, GenerationContext> running = new HashMap<>();
+        try {
+            long seed = firstSeed;
+            while (!cancelled) {
+                while (running.size() < threads) {
+                    final GenerationContext attempt = startAttempt(seed, options, allKeyLocations);
+                    Future<Boolean> future = completionService.submit(new Callable<Boolean>() {
+                        public Boolean call() {
+                            return attempt.placeTreasures(inventory, levelList);
+                        }
+                    });
+                    running.put(future, attempt);
+                    seed = seedRNG.nextLong();
+                }
+                Future<Boolean> done = completionService.take();
+                GenerationContext attempt = running.remove(done);
+                finishAttempt(attempt, true);
+                if (done.get() && !cancelled) {
+                    return attempt;
+                }
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            for (GenerationContext attempt : running.values()) {
+                attempt.cancel();
+                finishAttempt(attempt, false);
+            }
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Randomize the game's music.
+     *
+     * @param chaotic false if music should be shuffled; true if it should be completely randomized
+     * @param rng random object to use
+     * @return a list of music tracks in the order they should be added to the ROM
+     */
+    private static Integer[] shuffleMusic(boolean chaotic, Random rng) {
+        Integer[] vanilla = { 0x16, 0x1a, 0x1f, 0x17, 0x1c, 0x19, 0x18, 0x1b, 0x20, 0x1e, 0x1d, // statuses
+                          0x01, 0x02, 0x07, 0x08, 0x0e, 0x0f, 0x10, 0x10, 0x11, 0x11, 0x11, 0x11, // north
+                          0x05, 0x05, 0x0c, 0x0b, 0x13, 0x14, 0x07, 0x08, 0x11, 0x11, 0x0d, 0x0d, // west
+                          0x0e, 0x0f, 0x10, 0x10, 0x05, 0x05, 0x10, 0x10, 0x12, 0x12, 0x09, 0x0a, // south
+                          0x13, 0x14, 0x06, 0x06, 0x0c, 0x0b, 0x12, 0x12, 0x04, 0x04, 0x0d, 0x0d, 0x03, 0x03, //east
+                          0x21, 0x22, 0x23, 0x25, 0x26, 0x27, 0x28, 0x29, 0x2e, 0x2f, 0x30, 0x32, 0x32, 0x33, 0x37, 0x35, 0x36, 0x38, 0x3a}; // other songs (titlescreen, map, etc)
+
+        if (chaotic) {
+            Integer[] notLooped = { 0x15, 0x24, 0x2a, 0x2b, 0x2c, 0x2d, 0x31, 0x34, 0x39 };
+            List<Integer> disallowed = Arrays.asList(notLooped);
+            for (int i = 0; i < vanilla.length; i++) {
+                Integer newMusic;
+                do {
+                    newMusic = rng.nextInt(0x3A) + 1;
+                } while (disallowed.contains(newMusic));
+                vanilla[i] = newMusic;
+            }
+            return vanilla;
+        }
+        else {
+            List<Integer> newMusic = Arrays.asList(vanilla);
+            Collections.shuffle(newMusic, rng);
+            return newMusic.toArray(new Integer[newMusic.size()]);
+        }
+    }
+
+    /**
+     * Shuffle golf courses.
+     *
+     * @param rng  Seeded random object to use
+     * @return an array of Integers representing the order in which golf courses should be shuffled
+     */
+    private static Integer[] shuffleGolf(Random rng) {
+        List<Integer> golfOrder = new ArrayList<>();
+        for (int i = 0; i < 0x14; i++) {
+            golfOrder.add(i);
+        }
+        Collections.shuffle(golfOrder,rng);
+        return golfOrder.toArray(new Integer[0x14]);
+    }
+
+    /**
+     * Encode a random seed, transforming it into a user-friendly 11-character String representation.
+     *
+     * @param seed  a random seed in long format
+     * @return a String encoding of the provided seed
+     */
+    private static String encodeSeed(long seed) {
+        char[] chars = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ_!".toCharArray();
+        String codedSeed = "";
+        int idx = 0;
+        for (int i = 1; i <= 64; i++) {
+            idx >>>= 1;
+            if ((seed & 1) == 1) {
+                idx += 32;
+            }
+            seed >>>= 1;
+            if (i % 6 == 0) {
+                codedSeed = chars[idx] + codedSeed;
+                idx = 0;
+            }
+        }
+        idx >>>= 2;
+        codedSeed = chars[idx] + codedSeed;
+        return codedSeed;
+    }
+
+    /**
+     * Decode a string representation of a random seed, transforming it into a usable long that can be passed in a Random constructor.
+     *
+     * @param codedSeed  an 11-character String representation of a random seed
+     * @return the decoded long form of the provided seed
+     */
+    private static long decodeSeed(String codedSeed) throws Exception {
+        String chars = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ_!";
+        char[] codedChars = codedSeed.toCharArray();
+
+        for (char c : codedSeed.toCharArray()) {
+            if (chars.indexOf(c) < 0) {
+                throw new Exception();
+            }
+        }
+        long seed = 0L;
+        for (int i = 0; i < codedChars.length; i++) {
+            seed <<= 6;
+            int val = chars.indexOf(codedChars[i]);
+            seed |= val;
+        }
+        return seed;
+    }
+}
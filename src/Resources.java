@@ -0,0 +1,119 @@
+import com.google.gson.GsonBuilder;
+import keyshuffle.Level;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Process-wide cache of the resource files bundled with the randomizer. Each file is read and parsed the first time
+ * it's needed and kept for the life of the process, so repeated generations skip the parsing entirely.
+ *
+ * Patches are immutable and can be shared. Levels are not, so callers always get their own copies (the KeyLocations
+ * inside them are immutable and are shared).
+ */
+public final class Resources {
+    private static final Map<String, Patch> patches = new HashMap<>();
+    private static Level[] keyLocations;
+    private static Level[] vanillaKeyLocations;
+
+    private Resources() {
+    }
+
+    /**
+     * Load a patch, preferring the precompiled binary version (see PatchCompiler) and falling back to the JSON. The
+     * binary version is only used if it was compiled from the JSON as it is now, so editing a JSON patch without
+     * recompiling it (or checking it out with different line endings) can't leave a stale binary in effect.
+     *
+     * @param patchName  path of the JSON patch file, relative to the root of the jar
+     * @return the parsed patch
+     */
+    public static synchronized Patch getPatch(String patchName) throws IOException {
+        Patch patch = patches.get(patchName);
+        if (patch == null) {
+            byte[] json = readBytes(patchName);
+            if (json == null) {
+                throw new FileNotFoundException("Missing resource: " + patchName);
+            }
+            byte[] binary = readBytes(binaryPatchName(patchName));
+            if (binary != null && Patch.isCompiledFrom(binary, json)) {
+                patch = Patch.fromBinary(binary);
+            }
+            else {
+                patch = Patch.fromJson(readLine(patchName));
+            }
+            patches.put(patchName, patch);
+        }
+        return patch;
+    }
+
+    /**
+     * @return the name of the precompiled version of the given JSON patch
+     */
+    static String binaryPatchName(String patchName) {
+        return patchName.substring(0, patchName.length() - ".json".length()) + ".bin";
+    }
+
+    /**
+     * @return every potential key location, per level
+     */
+    public static Level[] getKeyLocations() throws IOException {
+        synchronized (Resources.class) {
+            if (keyLocations == null) {
+                keyLocations = new GsonBuilder().create().fromJson(readLine("keyshuffle/keyLocations.json"), Level[].class);
+            }
+        }
+        return copyLevels(keyLocations);
+    }
+
+    /**
+     * @return every level with its vanilla key placements
+     */
+    public static Level[] getVanillaKeyLocations() throws IOException {
+        synchronized (Resources.class) {
+            if (vanillaKeyLocations == null) {
+                vanillaKeyLocations = new GsonBuilder().create().fromJson(readLine("keyshuffle/keyLocations_vanilla.json"), Level[].class);
+            }
+        }
+        return copyLevels(vanillaKeyLocations);
+    }
+
+    private static Level[] copyLevels(Level[] levels) {
+        Level[] copy = new Level[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            copy[i] = new Level(levels[i]);
+        }
+        return copy;
+    }
+
+    /**
+     * @return the contents of a resource file, or null if there is no such file
+     */
+    private static byte[] readBytes(String name) throws IOException {
+        InputStream stream = Resources.class.getResourceAsStream("/" + name);
+        if (stream == null) {
+            return null;
+        }
+        try (InputStream in = stream) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Read a resource file; all of the JSON ones are a single line.
+     */
+    private static String readLine(String name) throws IOException {
+        InputStream stream = Resources.class.getResourceAsStream("/" + name);
+        if (stream == null) {
+            throw new FileNotFoundException("Missing resource: " + name);
+        }
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(stream))) {
+            return br.readLine();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * The run-length encodings WL3 uses for its compressed data.
+ *
+ * Tile data (e.g. tileset flags) is a series of chunks, ended by a 0x00 byte. A chunk starting with a byte 0x80 + n
+ * is followed by n literal bytes; a chunk starting with a byte n (1-0x7f) is followed by one byte to repeat n times.
+ *
+ * Text (e.g. level names) alternates between literal strings and runs of spaces (0x7f): a byte 0x80 + n followed by
+ * n literal bytes, then a byte n followed by 0x7f for n spaces. It has no terminator; the reader knows the length.
+ *
+ * The encoders reproduce the vanilla game's output exactly, so that recompressing unchanged data leaves the ROM
+ * unchanged.
+ */
+public final class RleCodec {
+    private static final int SPACE = 0x7f;
+
+    private RleCodec() {
+    }
+
+    /**
+     * Decompress tile data.
+     *
+     * @param src  compressed data
+     * @param off  index of the first chunk in src
+     * @param dst  array to decompress into
+     * @return the number of bytes written to dst
+     */
+    public static int decode(byte[] src, int off, byte[] dst) {
+        int ptr = off;
+        int processed = 0;
+        while (true) {
+            int indicator = src[ptr] & 0xff;
+            ptr++;
+            if (indicator == 0x00) {
+                return processed;
+            }
+            else if ((indicator & 0x80) > 0) {
+                indicator &= 0x7f;
+                System.arraycopy(src, ptr, dst, processed, indicator);
+                ptr += indicator;
+                processed += indicator;
+            }
+            else {
+                for (int i = 0; i < indicator; i++) {
+                    dst[processed] = src[ptr];
+                    processed++;
+                }
+                ptr++;
+            }
+        }
+    }
+
+    /**
+     * @param src  compressed tile data
+     * @param off  index of the first chunk in src
+     * @return the number of bytes the compressed data takes up in src, including the terminator
+     */
+    public static int encodedLength(byte[] src, int off) {
+        int ptr = off;
+        while (true) {
+            int indicator = src[ptr] & 0xff;
+            ptr++;
+            if (indicator == 0x00) {
+                return ptr - off;
+            }
+            ptr += ((indicator & 0x80) > 0) ? (indicator & 0x7f) : 1;
+        }
+    }
+
+    /**
+     * Compress tile data, including the terminator.
+     *
+     * @param src  data to compress
+     * @param len  number of bytes of src to compress
+     * @param out  where to write the compressed data
+     */
+    public static void encode(byte[] src, int len, ByteSink out) {
+        int newPtr = 0;
+        int lookaheadPtr = 0;
+        int last = 0x00;
+        int run = 0;
+
+        while (newPtr < len) {
+            if (lookaheadPtr >= len) {
+                out.write((lookaheadPtr - newPtr) | 0x80);
+                out.write(src, newPtr, lookaheadPtr - newPtr);
+                newPtr = lookaheadPtr;
+            }
+            else if ((src[lookaheadPtr] & 0xff) == last) {
+                run++;
+                lookaheadPtr++;
+
+                if (run >= 3) {
+                    lookaheadPtr -= 3;
+                    if (lookaheadPtr > newPtr) {
+                        out.write((lookaheadPtr - newPtr) | 0x80);
+                        out.write(src, newPtr, lookaheadPtr - newPtr);
+                        newPtr = lookaheadPtr;
+                    }
+                    while (lookaheadPtr < len && (lookaheadPtr-newPtr < 0x7f) && (src[lookaheadPtr] & 0xff) == last) {
+                        lookaheadPtr++;
+                    }
+                    out.write(lookaheadPtr - newPtr);
+                    out.write(last);
+                    newPtr = lookaheadPtr;
+
+                    run = 0;
+                }
+            }
+            else {
+                last = src[lookaheadPtr] & 0xff;
+                lookaheadPtr++;
+                run = 1;
+            }
+        }
+        out.write(0x00);
+    }
+
+    /**
+     * Decompress text, filling the whole destination array.
+     *
+     * @param src  compressed text
+     * @param off  index of the first string in src
+     * @param dst  array to decompress into
+     * @return the number of bytes read from src
+     */
+    public static int decodeText(byte[] src, int off, byte[] dst) {
+        int offset = off;
+        int textIdx = 0;
+        while (textIdx < dst.length) {
+            int len = (src[offset] & 0xff) - 0x80;
+            offset++;
+            for (int i = 0; i < len; i++) {
+                dst[textIdx] = src[offset];
+                textIdx++;
+                offset++;
+            }
+            len = src[offset] & 0xff;
+            offset++;
+            offset++;
+            for (int i = 0; i < len; i++) {
+                dst[textIdx] = (byte) SPACE;
+                textIdx++;
+            }
+        }
+        return offset - off;
+    }
+
+    /**
+     * Compress text. Three or more spaces in a row end a string.
+     *
+     * @param src  text to compress
+     * @param out  where to write the compressed text
+     */
+    public static void encodeText(byte[] src, ByteSink out) {
+        int textIdx = 0;
+        while (textIdx < src.length) {
+            // find three or more spaces in a row to signify end of string
+            int scanIdx = textIdx;
+            while (scanIdx < src.length - 2 && (src[scanIdx] != SPACE || src[scanIdx+1] != SPACE || src[scanIdx+2] != SPACE)) {
+                scanIdx++;
+            }
+            // write string length followed by string
+            int len = scanIdx - textIdx;
+            out.write(0x80 + (len & 0xff));
+            out.write(src, textIdx, len);
+            textIdx += len;
+            // determine number of spaces between this string and next
+            scanIdx = textIdx;
+            while (scanIdx < src.length && src[scanIdx] == SPACE) {
+                scanIdx++;
+            }
+            len = scanIdx - textIdx;
+            out.write(len);
+            out.write(SPACE);
+            textIdx = scanIdx;
+        }
+    }
+}
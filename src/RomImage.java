@@ -0,0 +1,186 @@
+import java.util.BitSet;
+
+/**
+ * A ROM being patched. Reads go straight to the byte array, but every write goes through set or write, so the image
+ * knows which parts of the ROM have changed since it was created. That lets checksums and diffs be computed from the
+ * changed bytes alone, instead of scanning the whole ROM.
+ *
+ * Changes are tracked in blocks of 64 bytes.
+ */
+public final class RomImage {
+    private static final int BLOCK_SHIFT = 6;
+    /** Size of the blocks changes are tracked in, in bytes. */
+    public static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int HEADER_START = 0x134;
+    private static final int HEADER_CHECKSUM = 0x14d;
+    private static final int GLOBAL_CHECKSUM = 0x14e;
+
+    private final byte[] bytes;
+    // one bit per block; set once any byte in the block has been written
+    private final long[] dirtyBlocks;
+    // sum of each block's bytes, leaving out the global checksum, as of the first checksum; null until then, and
+    // never modified once set, so copies can share it
+    private int[] baseBlockSums;
+    // total of baseBlockSums
+    private long baseSum;
+
+    /**
+     * @param bytes  byte array representing a ROM. The image takes ownership of the array; don't write to it directly.
+     */
+    public RomImage(byte[] bytes) {
+        this.bytes = bytes;
+        this.dirtyBlocks = new long[((bytes.length >>> BLOCK_SHIFT) >>> 6) + 1];
+    }
+
+    /**
+     * @return a new image with the same contents as this one, and no changes recorded
+     */
+    public RomImage copy() {
+        RomImage copy = new RomImage(bytes.clone());
+        if (dirtyBlockCount() == 0) {
+            // nothing has been written yet, so this image's sums are right for the copy too
+            copy.baseBlockSums = baseBlockSums();
+            copy.baseSum = baseSum;
+        }
+        return copy;
+    }
+
+    /**
+     * @return the ROM's contents. Callers may read from this array freely, but must write through set or write.
+     */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * Set a single byte to the low 8 bits of the given value.
+     */
+    public void set(int offset, int value) {
+        bytes[offset] = (byte) value;
+        markDirty(offset, offset + 1);
+    }
+
+    /**
+     * Copy len bytes of src, starting at srcOff, into the ROM at offset.
+     */
+    public void write(int offset, byte[] src, int srcOff, int len) {
+        System.arraycopy(src, srcOff, bytes, offset, len);
+        markDirty(offset, offset + len);
+    }
+
+    private void markDirty(int start, int end) {
+        for (int block = start >>> BLOCK_SHIFT; block <= (end - 1) >>> BLOCK_SHIFT; block++) {
+            dirtyBlocks[block >>> 6] |= 1L << block;
+        }
+    }
+
+    /**
+     * @return the parts of the ROM that may have changed since this image was created, in ascending order. Every
+     *         changed byte is included; unchanged bytes near a changed one may be too.
+     */
+    public ByteRanges dirtyRanges() {
+        ByteRanges ranges = new ByteRanges();
+        int blocks = ((bytes.length - 1) >>> BLOCK_SHIFT) + 1;
+        int block = 0;
+        while (block < blocks) {
+            if (!isDirty(block)) {
+                block++;
+                continue;
+            }
+            int start = block;
+            while (block < blocks && isDirty(block)) {
+                block++;
+            }
+            ranges.add(start << BLOCK_SHIFT, Math.min(block << BLOCK_SHIFT, bytes.length));
+        }
+        return ranges;
+    }
+
+    /**
+     * @return the number of blocks written since this image was created
+     */
+    public int dirtyBlockCount() {
+        int count = 0;
+        for (long word : dirtyBlocks) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private boolean isDirty(int block) {
+        return (dirtyBlocks[block >>> 6] & (1L << block)) != 0;
+    }
+
+    /**
+     * @return every byte that may have changed since this image was created, as a patch
+     */
+    public Patch changes() {
+        BitSet positions = new BitSet(bytes.length);
+        ByteRanges dirty = dirtyRanges();
+        for (int i = 0; i < dirty.size(); i++) {
+            positions.set(dirty.start(i), dirty.end(i));
+        }
+        return Patch.capture(bytes, positions);
+    }
+
+    /**
+     * @return the header checksum the ROM should have at 0x14d, given the current header. The header is only 25 bytes,
+     *         so this just sums it.
+     */
+    public int headerChecksum() {
+        int checksum = 0;
+        for (int i = HEADER_START; i < HEADER_CHECKSUM; i++) {
+            checksum = checksum - (bytes[i] & 0xff) - 1;
+        }
+        return checksum & 0xff;
+    }
+
+    /**
+     * The global checksum is the sum of every byte in the ROM other than the checksum itself. The whole ROM is only
+     * summed once (and the sums are shared with copies made before any writes); after that, only the dirty ranges are
+     * summed again. Nothing is written to the ROM.
+     *
+     * @return the global checksum the ROM should have at 0x14e (big-endian), given its current contents
+     */
+    public int globalChecksum() {
+        int[] blockSums = baseBlockSums();
+        long sum = baseSum;
+        ByteRanges dirty = dirtyRanges();
+        for (int i = 0; i < dirty.size(); i++) {
+            for (int start = dirty.start(i); start < dirty.end(i); start += BLOCK_SIZE) {
+                sum += blockSum(start) - blockSums[start >>> BLOCK_SHIFT];
+            }
+        }
+        return (int) (sum & 0xffff);
+    }
+
+    private synchronized int[] baseBlockSums() {
+        if (baseBlockSums == null) {
+            // a snapshot of the current contents works as well as the original: globalChecksum re-sums every dirty
+            // block, so it doesn't matter whether a dirty block was summed before or after it was written
+            int[] sums = new int[((bytes.length - 1) >>> BLOCK_SHIFT) + 1];
+            long sum = 0;
+            for (int block = 0; block < sums.length; block++) {
+                sums[block] = blockSum(block << BLOCK_SHIFT);
+                sum += sums[block];
+            }
+            baseBlockSums = sums;
+            baseSum = sum;
+        }
+        return baseBlockSums;
+    }
+
+    /**
+     * @return the sum of the current bytes in the block starting at the given offset, leaving out the global checksum
+     */
+    private int blockSum(int start) {
+        int end = Math.min(start + BLOCK_SIZE, bytes.length);
+        int sum = 0;
+        for (int i = start; i < end; i++) {
+            if (i != GLOBAL_CHECKSUM && i != GLOBAL_CHECKSUM + 1) {
+                sum += bytes[i] & 0xff;
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,164 @@
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Tests that applying a PaletteEdits batch gives exactly the bytes that applying each edit in turn with the old
+ * editPalettes did. editPalettes is kept below as the reference.
+ *
+ * Build and run from the repository root:
+ *
+ *     javac -encoding UTF-8 -d test-out -cp gson.jar $(find src test -name "*.java")
+ *     java -cp test-out:src:gson.jar PaletteEditsTest [--rom <vanilla ROM>]
+ *
+ * The key shuffle edits are tested on ROMs filled with random sprite data, and random batches of overlapping and
+ * misaligned edits on smaller ones. With --rom, the key shuffle edits are tested on the vanilla ROM too. Exits with
+ * status 1 if anything fails.
+ */
+public class PaletteEditsTest {
+    private static final int BANK_SIZE = 0x4000;
+    // the edits Patcher.keyShufflePatch makes, in order: {bank, start, end, from, to}. The two coin edits and the
+    // projectile edit share bank 0x60, and the key edit is inside the music coin edit's range.
+    private static final int[][] KEY_SHUFFLE_EDITS = {
+            {0x63, 0x95, 0x4000, 2, 0}, // music coin
+            {0x63, 0x1ef, 0x23c, 3, 2}, // key
+            {0x3, 0x1287, 0x1499, 2, 0}, // dust, stars, etc
+            {0x60, 0x23, 0x241, 2, 0}, // coin
+            {0x60, 0x296, 0x563, 2, 0}, // coin
+            {0x60, 0xefb, 0x136b, 2, 3}, // enemy projectiles
+            {0x61, 0xb04, 0xeea, 2, 3}, // enemy projectiles
+            {0x62, 0x272f, 0x2894, 2, 3}, // enemy projectiles
+    };
+
+    private int failures = 0;
+
+    public static void main(String[] args) throws Exception {
+        byte[] rom = null;
+        if (args.length == 2 && args[0].equals("--rom")) {
+            rom = Files.readAllBytes(new File(args[1]).toPath());
+        }
+        else if (args.length > 0) {
+            System.err.println("Usage: PaletteEditsTest [--rom <vanilla ROM>]");
+            System.exit(2);
+        }
+
+        PaletteEditsTest test = new PaletteEditsTest();
+        Random rng = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            byte[] random = new byte[0x65 * BANK_SIZE];
+            for (int bank : new int[]{0x3, 0x60, 0x61, 0x62, 0x63}) {
+                fillSprites(rng, random, bank * BANK_SIZE, (bank + 1) * BANK_SIZE, i % 3);
+            }
+            test.check("key shuffle edits, random ROM #" + i, random, KEY_SHUFFLE_EDITS);
+        }
+        for (int i = 0; i < 3000; i++) {
+            byte[] random = new byte[6 * BANK_SIZE];
+            fillSprites(rng, random, 0, random.length, i % 3);
+            int[][] edits = new int[1 + rng.nextInt(10)][];
+            for (int k = 0; k < edits.length; k++) {
+                int start = rng.nextInt(0x3f00);
+                int end = Math.min(BANK_SIZE, start + rng.nextInt(i % 5 == 0 ? BANK_SIZE : 0x300));
+                boolean keyLike = rng.nextInt(3) == 0;
+                edits[k] = new int[]{1 + rng.nextInt(4), start, end, keyLike ? 2 : rng.nextInt(8),
+                        rng.nextInt(keyLike ? 4 : 8)};
+            }
+            test.check("random edits #" + i, random, edits);
+        }
+        // every palette sent to 0, one edit at a time, so the last edits reached each byte through all the others
+        int[][] allToZero = new int[7][];
+        for (int p = 1; p <= 7; p++) {
+            allToZero[p - 1] = new int[]{1, 0, BANK_SIZE, p, 0};
+        }
+        for (int i = 0; i < 20; i++) {
+            byte[] random = new byte[3 * BANK_SIZE];
+            fillSprites(rng, random, 0, random.length, i % 3);
+            test.check("all palettes to 0 #" + i, random, allToZero);
+        }
+        byte[] palette5 = new byte[3 * BANK_SIZE];
+        Arrays.fill(palette5, (byte) 0x05);
+        test.check("all palettes to 0 over palette 5", palette5, allToZero);
+        if (rom != null) {
+            test.check("key shuffle edits, vanilla ROM", rom, KEY_SHUFFLE_EDITS);
+        }
+        else {
+            System.out.println("No --rom given; only testing generated data");
+        }
+        if (test.failures > 0) {
+            System.out.println(test.failures + " failures");
+            System.exit(1);
+        }
+        System.out.println("All passed");
+    }
+
+    private void check(String name, byte[] rom, int[][] edits) {
+        byte[] expected = rom.clone();
+        PaletteEdits batch = new PaletteEdits();
+        for (int[] edit : edits) {
+            editPalettes(expected, edit[0], edit[1], edit[2], edit[3], edit[4]);
+            batch.add(edit[0], edit[1], edit[2], edit[3], edit[4]);
+        }
+        RomImage actual = new RomImage(rom.clone());
+        batch.apply(actual);
+        if (!Arrays.equals(expected, actual.bytes())) {
+            failures++;
+            for (int i = 0; i < expected.length; i++) {
+                if (expected[i] != actual.bytes()[i]) {
+                    System.out.println(String.format("FAIL %s: first difference at 0x%x, expected 0x%02x, got 0x%02x",
+                            name, i, expected[i] & 0xff, actual.bytes()[i] & 0xff));
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fill part of a ROM with random bytes, with extra record separators (0x80) and, depending on the mode, extra
+     * end markers (0xff), so that walks take every path through editPalettes.
+     */
+    private static void fillSprites(Random rng, byte[] rom, int start, int end, int mode) {
+        for (int i = start; i < end; i++) {
+            int value = rng.nextInt(0x100);
+            if (mode > 0 && rng.nextInt(6) == 0) {
+                value = 0x80 + rng.nextInt(mode == 1 ? 1 : 8);
+            }
+            if (mode == 2 && rng.nextInt(40) == 0) {
+                value = 0xff;
+            }
+            rom[i] = (byte) value;
+        }
+    }
+
+    /**
+     * Edit sprite palette assignments in the given range, as Patcher did before PaletteEdits.
+     *
+     * @param bank  which ROM bank to examine
+     * @param start starting address of palettes to edit
+     * @param end   end address of palettes to edit (should point to a 0x80 byte)
+     * @param from  palette number (0-7) to change from
+     * @param to    palette number (0-7) to change to
+     */
+    private static byte[] editPalettes(byte[] romBytes, int bank, int start, int end, int from, int to) {
+        int idx = bank * 0x4000;
+        int offset = start;
+        while (offset < end) {
+            if ((romBytes[idx+offset] & 0xff) == 0x80) {
+                offset++;
+                if ((romBytes[idx+offset] & 0xff) == 0xff &&
+                        (romBytes[idx+offset+1] & 0xff) == 0xff &&
+                        (romBytes[idx+offset+2] & 0xff) == 0xff &&
+                        (romBytes[idx+offset+3] & 0xff) == 0xff) {
+                    break;
+                }
+                while ((romBytes[idx+offset+1] & 0xf0) >= 0x40 && (romBytes[idx+offset+1] & 0xf0) <= 0x70) {
+                    offset += 2;
+                }
+            }
+            offset += 3;
+            if ((romBytes[idx+offset] & 0x07) == from) {
+                romBytes[idx+offset] = (byte)((romBytes[idx+offset] & 0xf8) + to);
+            }
+            offset++;
+        }
+        return romBytes;
+    }
+}
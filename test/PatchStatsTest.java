@@ -0,0 +1,130 @@
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Tests that PatchStats.getChangedRanges covers every byte Patcher.patchInPlace changes, including the ones baseDiff
+ * changes.
+ *
+ * Build and run from the repository root:
+ *
+ *     javac -encoding UTF-8 -d test-out -cp gson.jar $(find src test -name "*.java")
+ *     java -cp test-out:src:gson.jar PatchStatsTest [--rom <vanilla ROM>]
+ *
+ * Without --rom, a ROM of random bytes is patched with the options whose stages don't follow pointers in the ROM. With
+ * --rom, the vanilla ROM is patched with every option. Exits with status 1 if anything fails.
+ */
+public class PatchStatsTest {
+    private static final int ROM_SIZE = 0x420000;
+
+    private int failures = 0;
+
+    public static void main(String[] args) throws Exception {
+        byte[] rom = null;
+        if (args.length == 2 && args[0].equals("--rom")) {
+            rom = Files.readAllBytes(new File(args[1]).toPath());
+        }
+        else if (args.length > 0) {
+            System.err.println("Usage: PatchStatsTest [--rom <vanilla ROM>]");
+            System.exit(2);
+        }
+
+        PatchStatsTest test = new PatchStatsTest();
+        Random rng = new Random(1);
+        for (int i = 0; i < 5; i++) {
+            byte[] random = new byte[ROM_SIZE];
+            rng.nextBytes(random);
+            test.check("random ROM #" + i + ", treasures only", random, rng, false);
+            test.check("random ROM #" + i + ", simple options", random, rng, true);
+        }
+        if (rom != null) {
+            test.checkAllOptions(rom, rng);
+        }
+        else {
+            System.out.println("No --rom given; only testing generated data");
+        }
+        if (test.failures > 0) {
+            System.out.println(test.failures + " failures");
+            System.exit(1);
+        }
+        System.out.println("All passed");
+    }
+
+    private void check(String name, byte[] input, Random rng, boolean options) throws Exception {
+        byte[] romBytes = input.clone();
+        PatchStats stats;
+        if (options) {
+            stats = Patcher.patchInPlace(romBytes, treasures(rng), playthrough(rng), null, null, null,
+                    switches(rng, 4), switches(rng, 6), null, switches(rng, 12), null, golfOrder(rng), true, false,
+                    Arrays.asList(Items.SWIM_FINS, Items.GARLIC));
+        }
+        else {
+            stats = Patcher.patchInPlace(romBytes, treasures(rng), null, null, null, null, null, null, null, null,
+                    null, null, false, false, null);
+        }
+        checkCovered(name, input, romBytes, stats);
+    }
+
+    private void checkAllOptions(byte[] input, Random rng) throws Exception {
+        byte[] romBytes = input.clone();
+        PatchStats stats = Patcher.patchInPlace(romBytes, treasures(rng), playthrough(rng), null, null,
+                switches(rng, 1168), switches(rng, 4), switches(rng, 6), switches(rng, 480), switches(rng, 12), null,
+                golfOrder(rng), true, true, Arrays.asList(Items.SWIM_FINS, Items.GARLIC));
+        checkCovered("vanilla ROM, all options", input, romBytes, stats);
+    }
+
+    /**
+     * Check that every byte that differs between the input and the patched ROM is in the stats' changed ranges.
+     */
+    private void checkCovered(String name, byte[] input, byte[] patched, PatchStats stats) {
+        ByteRanges changed = stats.getChangedRanges();
+        int missed = 0;
+        int firstMissed = -1;
+        for (int i = 0; i < input.length; i++) {
+            if (input[i] != patched[i] && !changed.contains(i)) {
+                if (missed == 0) {
+                    firstMissed = i;
+                }
+                missed++;
+            }
+        }
+        if (missed > 0) {
+            failures++;
+            System.out.println(String.format("FAIL %s: %d changed bytes outside getChangedRanges, first at 0x%x",
+                    name, missed, firstMissed));
+        }
+    }
+
+    private static int[] treasures(Random rng) {
+        int[] treasures = new int[100];
+        for (int i = 0; i < treasures.length; i++) {
+            treasures[i] = 1 + rng.nextInt(0x64);
+        }
+        return treasures;
+    }
+
+    private static byte[] playthrough(Random rng) {
+        byte[] playthrough = new byte[100];
+        for (int i = 0; i < playthrough.length; i++) {
+            playthrough[i] = (byte) (1 + rng.nextInt(0x64));
+        }
+        return playthrough;
+    }
+
+    private static int[] switches(Random rng, int count) {
+        int[] switches = new int[count];
+        for (int i = 0; i < count; i++) {
+            switches[i] = rng.nextInt(100000);
+        }
+        return switches;
+    }
+
+    private static Integer[] golfOrder(Random rng) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < 0x14; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, rng);
+        return order.toArray(new Integer[0x14]);
+    }
+}
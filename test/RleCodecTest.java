@@ -0,0 +1,254 @@
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Round-trip tests for RleCodec. For tile data and text, decoding what was encoded must give back the original, and
+ * the encoders must produce exactly what the List-based encoders they replaced did; those are kept below as the
+ * reference.
+ *
+ * Build and run from the repository root:
+ *
+ *     javac -encoding UTF-8 -d test-out -cp gson.jar $(find src test -name "*.java")
+ *     java -cp test-out:src:gson.jar RleCodecTest [--rom <vanilla ROM>]
+ *
+ * With --rom, the tileset flags and level name text from the ROM are tested too. Exits with status 1 if anything
+ * fails.
+ */
+public class RleCodecTest {
+    private static final int CASES = 20000;
+    private static final int SPACE = 0x7f;
+
+    private int failures = 0;
+
+    public static void main(String[] args) throws Exception {
+        byte[] rom = null;
+        if (args.length == 2 && args[0].equals("--rom")) {
+            rom = Files.readAllBytes(new File(args[1]).toPath());
+        }
+        else if (args.length > 0) {
+            System.err.println("Usage: RleCodecTest [--rom <vanilla ROM>]");
+            System.exit(2);
+        }
+
+        RleCodecTest test = new RleCodecTest();
+        Random rng = new Random(1);
+        for (int i = 0; i < CASES; i++) {
+            test.checkTiles("random tiles #" + i, randomTiles(rng));
+            test.checkText("random text #" + i, randomText(rng));
+        }
+        if (rom != null) {
+            for (Map.Entry<String, byte[]> flags : romFlags(rom).entrySet()) {
+                test.checkTiles(flags.getKey(), flags.getValue());
+            }
+            for (int idx : new int[]{0xb211a, 0xb1fd7}) {
+                byte[] levelText = new byte[64*16];
+                RleCodec.decodeText(rom, idx, levelText);
+                test.checkText(String.format("level names at 0x%x", idx), levelText);
+            }
+        }
+        else {
+            System.out.println("No --rom given; only testing generated data");
+        }
+        if (test.failures > 0) {
+            System.out.println(test.failures + " failures");
+            System.exit(1);
+        }
+        System.out.println("All passed");
+    }
+
+    private void checkTiles(String name, byte[] data) {
+        ByteSink sink = new ByteSink();
+        RleCodec.encode(data, data.length, sink);
+        byte[] encoded = sink.toByteArray();
+        check(name + ": encoding matches reference", Arrays.equals(encoded, toArray(referenceEncode(data))));
+        check(name + ": encodedLength", RleCodec.encodedLength(encoded, 0) == encoded.length);
+        byte[] decoded = new byte[data.length];
+        int decodedLength = RleCodec.decode(encoded, 0, decoded);
+        check(name + ": round trip", decodedLength == data.length && Arrays.equals(decoded, data));
+    }
+
+    private void checkText(String name, byte[] text) {
+        ByteSink sink = new ByteSink();
+        RleCodec.encodeText(text, sink);
+        byte[] encoded = sink.toByteArray();
+        check(name + ": encoding matches reference", Arrays.equals(encoded, toArray(referenceEncodeText(text))));
+        byte[] decoded = new byte[text.length];
+        int read = RleCodec.decodeText(encoded, 0, decoded);
+        check(name + ": round trip", read == encoded.length && Arrays.equals(decoded, text));
+    }
+
+    private void check(String name, boolean ok) {
+        if (!ok) {
+            failures++;
+            if (failures <= 20) {
+                System.out.println("FAIL " + name);
+            }
+        }
+    }
+
+    /**
+     * @return tile data shaped like tileset flags: up to 0x200 bytes, alternating runs of a few common values with
+     *         stretches of other bytes. The encoder can't split a stretch with no runs in it longer than 0x7f bytes
+     *         (nor could the one it replaced), so the stretches are kept shorter than that.
+     */
+    private static byte[] randomTiles(Random rng) {
+        byte[] data = new byte[rng.nextInt(0x201)];
+        int[] common = {0x00, 0x01, 0x40, 0x80, 0xff};
+        int i = 0;
+        while (i < data.length) {
+            int value = common[rng.nextInt(common.length)];
+            int runLen = Math.min(data.length - i, 3 + rng.nextInt(rng.nextBoolean() ? 4 : 0x100));
+            for (int j = 0; j < runLen; j++) {
+                data[i++] = (byte) value;
+            }
+            int literalLen = Math.min(data.length - i, rng.nextInt(0x70));
+            for (int j = 0; j < literalLen; j++) {
+                data[i++] = (byte) (rng.nextInt(4) == 0 ? common[rng.nextInt(common.length)] : rng.nextInt(0x100));
+            }
+        }
+        return data;
+    }
+
+    /**
+     * @return text shaped like the level names: 32 slots of 32 bytes, each a name of up to 24 characters (which may
+     *         contain single spaces) padded with spaces. Every run of spaces is shorter than 0x100, as in the ROM.
+     */
+    private static byte[] randomText(Random rng) {
+        byte[] text = new byte[64*16];
+        Arrays.fill(text, (byte) SPACE);
+        for (int slot = 0; slot < 32; slot++) {
+            // leave at most a few slots in a row empty, so runs of spaces stay short enough to encode
+            if (slot % 4 != 0 && rng.nextInt(4) == 0) {
+                continue;
+            }
+            int len = 1 + rng.nextInt(24);
+            for (int i = 0; i < len; i++) {
+                boolean space = i > 0 && i < len - 1 && text[slot*32 + i - 1] != SPACE && rng.nextInt(6) == 0;
+                text[slot*32 + i] = (byte) (space ? SPACE : rng.nextInt(0x7f));
+            }
+        }
+        return text;
+    }
+
+    /**
+     * @return the decompressed flags for every tileset in the ROM, found the same way Patcher.revealSecrets finds them
+     */
+    private static Map<String, byte[]> romFlags(byte[] rom) {
+        Map<String, byte[]> allFlags = new LinkedHashMap<>();
+        int tilesetTable = 0xC04C5;
+        int flagsTable = 0xC09D1;
+        for (int tilesetId = 1; tilesetId <= 0x99; tilesetId++) {
+            int tilesetEntry = tilesetTable + tilesetId*2;
+            int tilesetDataOffset = ((rom[tilesetEntry+1] & 0xff) << 8) + (rom[tilesetEntry] & 0xff);
+            int tilesetDataLocation = 0xC0000 + tilesetDataOffset - 0x4000;
+            int subtilesIdx = rom[tilesetDataLocation] & 0xff;
+            int flagsIdx = rom[tilesetDataLocation+1] & 0xff;
+            int dataBank = 0x38 + subtilesIdx/6;
+            int flagsLocation = ((rom[flagsTable+flagsIdx*2+1] & 0xff) << 8) + (rom[flagsTable+flagsIdx*2] & 0xff);
+            flagsLocation = flagsLocation - 0x4000 + (dataBank * 0x4000);
+            byte[] flags = new byte[0x200];
+            RleCodec.decode(rom, flagsLocation, flags);
+            allFlags.put(String.format("tileset 0x%02x flags", tilesetId), flags);
+        }
+        return allFlags;
+    }
+
+    private static byte[] toArray(List<Byte> list) {
+        byte[] array = new byte[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * The tile data encoder from Patcher.revealSecrets, before it moved to RleCodec.
+     */
+    private static List<Byte> referenceEncode(byte[] flags) {
+        int newCount = 0;
+        int newPtr = 0;
+        int lookaheadPtr = 0;
+        int last = 0x00;
+        int run = 0;
+        List<Byte> compressedFlagsList = new Vector<>();
+
+        while (newPtr < flags.length) {
+            if (lookaheadPtr >= flags.length) {
+                compressedFlagsList.add((byte)((lookaheadPtr - newPtr) | 0x80));
+                newCount++;
+                while (newPtr < lookaheadPtr) {
+                    compressedFlagsList.add(flags[newPtr]);
+                    newCount++;
+                    newPtr++;
+                }
+            }
+            else if ((flags[lookaheadPtr] & 0xff) == last) {
+                run++;
+                lookaheadPtr++;
+
+                if (run >= 3) {
+                    lookaheadPtr -= 3;
+                    if (lookaheadPtr > newPtr) {
+                        compressedFlagsList.add((byte) ((lookaheadPtr - newPtr) | 0x80));
+                        newCount++;
+                        while (newPtr < lookaheadPtr) {
+                            compressedFlagsList.add(flags[newPtr]);
+                            newCount++;
+                            newPtr++;
+                        }
+                    }
+                    while (lookaheadPtr < flags.length && (lookaheadPtr-newPtr < 0x7f) && (flags[lookaheadPtr] & 0xff) == last) {
+                        lookaheadPtr++;
+                    }
+                    compressedFlagsList.add((byte)(lookaheadPtr - newPtr));
+                    compressedFlagsList.add((byte)(last));
+                    newCount += 2;
+                    newPtr = lookaheadPtr;
+
+                    run = 0;
+                }
+            }
+            else {
+                last = flags[lookaheadPtr] & 0xff;
+                lookaheadPtr++;
+                run = 1;
+            }
+        }
+        compressedFlagsList.add((byte)0x00);
+        newCount++;
+        return compressedFlagsList;
+    }
+
+    /**
+     * The text encoder from Patcher.scrambleHintText, before it moved to RleCodec.
+     */
+    private static List<Byte> referenceEncodeText(byte[] levelText) {
+        List<Byte> compressedNames = new Vector<>();
+        int textIdx = 0;
+        while (textIdx < levelText.length) {
+            // find three or more spaces in a row to signify end of string
+            int scanIdx = textIdx;
+            while (scanIdx < levelText.length - 2 && (levelText[scanIdx] != 0x7f || levelText[scanIdx+1] != 0x7f || levelText[scanIdx+2] != 0x7f)) {
+                scanIdx++;
+            }
+            // write string length followed by string
+            int len = scanIdx - textIdx;
+            compressedNames.add((byte)(0x80 + (len & 0xff)));
+            for (int i = 0; i < len; i++) {
+                compressedNames.add(levelText[textIdx]);
+                textIdx++;
+            }
+            // determine number of spaces between this string and next
+            scanIdx = textIdx;
+            while (scanIdx < levelText.length && levelText[scanIdx] == 0x7f) {
+                scanIdx++;
+            }
+            len = scanIdx - textIdx;
+            compressedNames.add((byte)len);
+            compressedNames.add((byte)0x7f);
+            textIdx = scanIdx;
+        }
+        return compressedNames;
+    }
+}
@@ -0,0 +1,155 @@
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Tests that RomImage's header and global checksums, which only re-sum the dirty ranges, match the checksums computed
+ * over the whole ROM, and that computing them doesn't change the ROM.
+ *
+ * Build and run from the repository root:
+ *
+ *     javac -encoding UTF-8 -d test-out -cp gson.jar $(find src test -name "*.java")
+ *     java -cp test-out:src:gson.jar RomChecksumTest [--rom <vanilla ROM>]
+ *
+ * With --rom, the vanilla ROM is also patched with every option and checked. Exits with status 1 if anything fails.
+ */
+public class RomChecksumTest {
+    private static final int CASES = 50;
+    private static final int ROM_SIZE = 0x420000;
+
+    private int failures = 0;
+
+    public static void main(String[] args) throws Exception {
+        byte[] rom = null;
+        if (args.length == 2 && args[0].equals("--rom")) {
+            rom = Files.readAllBytes(new File(args[1]).toPath());
+        }
+        else if (args.length > 0) {
+            System.err.println("Usage: RomChecksumTest [--rom <vanilla ROM>]");
+            System.exit(2);
+        }
+
+        RomChecksumTest test = new RomChecksumTest();
+        Random rng = new Random(1);
+        byte[] templateBytes = new byte[ROM_SIZE];
+        rng.nextBytes(templateBytes);
+        RomImage template = new RomImage(templateBytes);
+        test.check("random template", template);
+        for (int i = 0; i < CASES; i++) {
+            RomImage image = template.copy();
+            // some images are summed before they're written to, some only after
+            if (rng.nextBoolean()) {
+                test.check("random ROM #" + i + ", before writes", image);
+            }
+            randomWrites(image, rng);
+            test.check("random ROM #" + i, image);
+            randomWrites(image, rng);
+            test.check("random ROM #" + i + ", written again", image);
+            // a copy of a written image can't share its sums
+            RomImage copy = image.copy();
+            randomWrites(copy, rng);
+            test.check("copy of random ROM #" + i, copy);
+        }
+        if (rom != null) {
+            RomImage image = new RomImage(rom.clone());
+            test.check("vanilla ROM", image);
+            byte[] patched = rom.clone();
+            Patcher.patchInPlace(patched, treasures(rng), null, null, null, null, null, null, null, null, null, null,
+                    true, true, Arrays.asList(Items.SWIM_FINS, Items.GARLIC));
+            // replay the patched ROM's differences through an image of the vanilla ROM
+            for (int i = 0; i < rom.length; i++) {
+                if (patched[i] != rom[i]) {
+                    image.set(i, patched[i]);
+                }
+            }
+            test.check("patched vanilla ROM", image);
+        }
+        else {
+            System.out.println("No --rom given; only testing generated data");
+        }
+        if (test.failures > 0) {
+            System.out.println(test.failures + " failures");
+            System.exit(1);
+        }
+        System.out.println("All passed");
+    }
+
+    /**
+     * Write a few random runs of bytes, sometimes over the header or the global checksum itself.
+     */
+    private static void randomWrites(RomImage image, Random rng) {
+        int writes = 1 + rng.nextInt(20);
+        for (int i = 0; i < writes; i++) {
+            int offset;
+            switch (rng.nextInt(4)) {
+                case 0:
+                    offset = 0x130 + rng.nextInt(0x30);
+                    break;
+                case 1:
+                    // last block, which may run past the end
+                    offset = ROM_SIZE - 1 - rng.nextInt(0x80);
+                    break;
+                default:
+                    offset = rng.nextInt(ROM_SIZE);
+                    break;
+            }
+            if (rng.nextBoolean()) {
+                image.set(offset, rng.nextInt(0x100));
+            }
+            else {
+                byte[] src = new byte[1 + rng.nextInt(0x200)];
+                rng.nextBytes(src);
+                int len = Math.min(src.length, ROM_SIZE - offset);
+                image.write(offset, src, 0, len);
+            }
+        }
+    }
+
+    private void check(String name, RomImage image) {
+        byte[] before = image.bytes().clone();
+        int header = image.headerChecksum();
+        int global = image.globalChecksum();
+        if (!Arrays.equals(before, image.bytes())) {
+            failures++;
+            System.out.println("FAIL " + name + ": computing the checksums changed the ROM");
+        }
+        int expectedHeader = fullHeaderChecksum(before);
+        int expectedGlobal = fullGlobalChecksum(before);
+        if (header != expectedHeader) {
+            failures++;
+            System.out.println(String.format("FAIL %s: header checksum 0x%02x, expected 0x%02x", name, header,
+                    expectedHeader));
+        }
+        if (global != expectedGlobal) {
+            failures++;
+            System.out.println(String.format("FAIL %s: global checksum 0x%04x, expected 0x%04x", name, global,
+                    expectedGlobal));
+        }
+    }
+
+    private static int fullHeaderChecksum(byte[] romBytes) {
+        int checksum = 0;
+        for (int i = 0x134; i <= 0x14c; i++) {
+            checksum = checksum - (romBytes[i] & 0xff) - 1;
+        }
+        return checksum & 0xff;
+    }
+
+    private static int fullGlobalChecksum(byte[] romBytes) {
+        int checksum = 0;
+        for (int i = 0; i < romBytes.length; i++) {
+            if (i != 0x14e && i != 0x14f) {
+                checksum += romBytes[i] & 0xff;
+            }
+        }
+        return checksum & 0xffff;
+    }
+
+    private static int[] treasures(Random rng) {
+        int[] treasures = new int[100];
+        for (int i = 0; i < treasures.length; i++) {
+            treasures[i] = 1 + rng.nextInt(0x64);
+        }
+        return treasures;
+    }
+}